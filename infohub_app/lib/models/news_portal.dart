@@ -33,7 +33,9 @@ class NewsPortal {
       description: json['description'] ?? '',
       category: json['category'] != null
           ? Category.fromJson(json['category'])
-          : null,
+          : json['categoryId'] != null
+              ? Category(id: json['categoryId'], name: json['categoryName'] ?? '')
+              : null,
     );
   }
 }
\ No newline at end of file
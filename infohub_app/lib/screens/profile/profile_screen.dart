@@ -25,6 +25,7 @@ class _ProfileScreenState extends State<ProfileScreen> {
   bool _isLoading = true;
   bool _isSaving = false;
   String? _avatarBase64;
+  bool _avatarChanged = false;
   ThemeMode _selectedTheme = ThemeMode.system;
 
   @override
@@ -101,7 +102,10 @@ class _ProfileScreenState extends State<ProfileScreen> {
       }
 
       if (mounted) {
-        setState(() => _avatarBase64 = base64Encode(bytes));
+        setState(() {
+          _avatarBase64 = base64Encode(bytes);
+          _avatarChanged = true;
+        });
       }
     } catch (e) {
       if (mounted) {
@@ -122,12 +126,14 @@ class _ProfileScreenState extends State<ProfileScreen> {
     final result = await auth.updateMyProfile(
       username: _usernameController.text.trim(),
       avatarBase64: _avatarBase64,
+      keepAvatar: !_avatarChanged,
       themePreference: ThemeService.toPreference(_selectedTheme),
     );
 
     if (!mounted) return;
 
     if (result['success'] == true) {
+      _avatarChanged = false;
       await themeService.setThemeMode(_selectedTheme);
       if (!mounted) return;
       ScaffoldMessenger.of(context).showSnackBar(
@@ -199,8 +205,10 @@ class _ProfileScreenState extends State<ProfileScreen> {
                               ),
                               if (avatarBytes != null)
                                 OutlinedButton.icon(
-                                  onPressed: () =>
-                                      setState(() => _avatarBase64 = null),
+                                  onPressed: () => setState(() {
+                                    _avatarBase64 = null;
+                                    _avatarChanged = true;
+                                  }),
                                   icon: const Icon(Icons.delete_outline),
                                   label: const Text('Удалить'),
                                 ),
@@ -12,6 +12,8 @@ class AuthService extends ChangeNotifier {
   static const String apiBaseUrl = AppConfig.apiBaseUrl;
   static const String baseUrl = '$apiBaseUrl/auth';
   static const String profileUrl = '$apiBaseUrl/users/me';
+  // Сервер отдаёт уменьшенную копию аватара вместо оригинала
+  static const int avatarSize = 256;
 
   final StorageService _storage = StorageService();
   bool _isAuthenticated = false;
@@ -295,7 +297,7 @@ class AuthService extends ChangeNotifier {
       if (!headers.containsKey('Authorization')) return null;
 
       final response = await http.get(
-        Uri.parse(profileUrl),
+        Uri.parse('$profileUrl?avatarSize=$avatarSize'),
         headers: headers,
       );
 
@@ -315,6 +317,7 @@ class AuthService extends ChangeNotifier {
   Future<Map<String, dynamic>> updateMyProfile({
     required String username,
     String? avatarBase64,
+    bool keepAvatar = false,
     required String themePreference,
   }) async {
     try {
@@ -324,11 +327,12 @@ class AuthService extends ChangeNotifier {
       }
 
       final response = await http.put(
-        Uri.parse(profileUrl),
+        Uri.parse('$profileUrl?avatarSize=$avatarSize'),
         headers: headers,
         body: json.encode({
           'username': username,
-          'avatarBase64': avatarBase64,
+          if (!keepAvatar) 'avatarBase64': avatarBase64,
+          'keepAvatar': keepAvatar,
           'themePreference': themePreference,
         }),
       );
@@ -365,6 +369,16 @@ class AuthService extends ChangeNotifier {
   }
 
   Future<void> logout() async {
+    // Сервер отзывает все выданные токены; при ошибке сети выходим локально
+    try {
+      final headers = await _authHeaders();
+      if (headers.containsKey('Authorization')) {
+        await http
+            .post(Uri.parse('$baseUrl/logout'), headers: headers)
+            .timeout(const Duration(seconds: 5));
+      }
+    } catch (_) {}
+
     await _storage.clearAll();
     _isAuthenticated = false;
     _userEmail = null;
@@ -0,0 +1,112 @@
+#!/usr/bin/env bash
+# Smoke-тест native-бинарника и сравнение с JVM: время до первого ответа и RSS.
+#
+# Подготовка:  mvn -Pnative -DskipTests native:compile   (target/newsapp)
+#              mvn -DskipTests package                    (target/newsapp-0.0.1-SNAPSHOT.jar)
+# Запуск:      scripts/native-smoke-test.sh
+#
+# Нужна доступная PostgreSQL (SPRING_DATASOURCE_URL и т.д.). Оба режима стартуют с профилем prod.
+# Проверки задевают пути, которые в native чаще всего ломаются без подсказок:
+# Jackson-тела, JWT (jjwt + ServiceLoader), проекции Spring Data, CBOR, ?fields=.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT="${SMOKE_PORT:-18081}"
+BASE="http://127.0.0.1:${PORT}"
+NATIVE="target/newsapp"
+JAR="target/newsapp-0.0.1-SNAPSHOT.jar"
+
+if [[ ! -x "$NATIVE" || ! -f "$JAR" ]]; then
+  echo "Build both: 'mvn -Pnative -DskipTests native:compile' and 'mvn -DskipTests package'" >&2
+  exit 1
+fi
+
+PID=""
+cleanup() {
+  if [[ -n "$PID" ]]; then
+    kill "$PID" 2>/dev/null && wait "$PID" 2>/dev/null || true
+  fi
+}
+trap cleanup EXIT
+
+rss_mb() {
+  awk '/VmRSS/ { printf "%.1f", $2 / 1024 }' "/proc/$1/status"
+}
+
+# Запускает приложение и ждёт первого ответа; печатает миллисекунды
+start() {
+  local started code
+  started=$(date +%s%N)
+  SPRING_PROFILES_ACTIVE=prod "$@" --server.port="$PORT" >"target/smoke-$MODE.log" 2>&1 &
+  PID=$!
+  while true; do
+    code=$(curl -s -o /dev/null -w '%{http_code}' "$BASE/api/categories" || true)
+    if [[ "$code" != "000" ]]; then
+      break
+    fi
+    if ! kill -0 "$PID" 2>/dev/null; then
+      echo "$MODE exited before serving a request, see target/smoke-$MODE.log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  echo $(( ($(date +%s%N) - started) / 1000000 ))
+}
+
+expect() {
+  local name="$1" expected="$2" actual="$3"
+  if [[ "$actual" != "$expected" ]]; then
+    echo "FAIL [$MODE] $name: expected $expected, got $actual" >&2
+    exit 1
+  fi
+  echo "  ok  $name"
+}
+
+smoke() {
+  local email="smoke-$MODE-$(date +%s%N)@example.com"
+  local token code
+
+  token=$(curl -s -H 'Content-Type: application/json' \
+    -d "{\"username\":\"${email%@*}\",\"email\":\"$email\",\"password\":\"smoke-password\"}" \
+    "$BASE/api/auth/register" | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+  expect "register returns token" yes "$([[ -n "$token" ]] && echo yes || echo no)"
+
+  token=$(curl -s -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$email\",\"password\":\"smoke-password\"}" \
+    "$BASE/api/auth/login" | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+  expect "login returns token" yes "$([[ -n "$token" ]] && echo yes || echo no)"
+
+  local auth=(-H "Authorization: Bearer $token")
+  code=$(curl -s -o /dev/null -w '%{http_code}' "${auth[@]}" "$BASE/api/users/me")
+  expect "GET /api/users/me" 200 "$code"
+  code=$(curl -s -o /dev/null -w '%{http_code}' "${auth[@]}" "$BASE/api/categories")
+  expect "GET /api/categories" 200 "$code"
+  code=$(curl -s -o /dev/null -w '%{http_code}' "${auth[@]}" "$BASE/api/news-portal/all")
+  expect "GET /api/news-portal/all" 200 "$code"
+  code=$(curl -s -o /dev/null -w '%{content_type}' "${auth[@]}" -H 'Accept: application/cbor' "$BASE/api/news-portal/all")
+  expect "CBOR response" application/cbor "${code%%;*}"
+  code=$(curl -s "${auth[@]}" "$BASE/api/users/me?fields=email" | grep -c '"username"' || true)
+  expect "?fields= filters properties" 0 "$code"
+  code=$(curl -s -o /dev/null -w '%{http_code}' -H 'Authorization: Bearer broken' "$BASE/api/users/me")
+  expect "invalid token rejected" yes "$([[ "$code" != 200 ]] && echo yes || echo no)"
+}
+
+run() {
+  MODE="$1"; shift
+  local startup idle loaded
+  echo "== $MODE"
+  startup=$(start "$@")
+  idle=$(rss_mb "$PID")
+  smoke
+  loaded=$(rss_mb "$PID")
+  cleanup
+  PID=""
+  RESULTS+=("$(printf '%-7s first response %6s ms   RSS idle %7s MB   RSS after smoke %7s MB' \
+    "$MODE" "$startup" "$idle" "$loaded")")
+}
+
+RESULTS=()
+run native "$NATIVE"
+run jvm java -jar "$JAR"
+printf '%s\n' "${RESULTS[@]}"
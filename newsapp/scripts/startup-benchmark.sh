@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Время до первого ответа HTTP для разных режимов запуска.
+#
+# Подготовка:  mvn -Pfast-startup -DskipTests package
+# Запуск:      scripts/startup-benchmark.sh [повторов]
+#
+# Нужна доступная PostgreSQL (SPRING_DATASOURCE_URL и т.д., как для обычного запуска).
+# Режимы:
+#   baseline  — как раньше: ddl-auto=update, show-sql и format_sql включены
+#   prod      — профиль prod: Flyway, без сверки схемы Hibernate
+#   prod-aot  — prod + AOT-контекст + CDS-архив из target/application
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${BENCH_PORT:-18080}"
+URL="http://127.0.0.1:${PORT}/api/categories"
+JAR="target/newsapp-0.0.1-SNAPSHOT.jar"
+APP_DIR="target/application"
+
+if [[ ! -f "$JAR" || ! -f "$APP_DIR/application.jsa" ]]; then
+  echo "Run 'mvn -Pfast-startup -DskipTests package' first" >&2
+  exit 1
+fi
+
+# Миллисекунды от запуска JVM до первого ответа (любой статус, в т.ч. 401)
+measure() {
+  local dir="$1"; shift
+  local started pid code elapsed
+  started=$(date +%s%N)
+  (cd "$dir" && exec java "$@" --server.port="$PORT") >/dev/null 2>&1 &
+  pid=$!
+  while true; do
+    code=$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)
+    if [[ "$code" != "000" ]]; then
+      break
+    fi
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "application exited before serving a request" >&2
+      return 1
+    fi
+    sleep 0.05
+  done
+  elapsed=$(( ($(date +%s%N) - started) / 1000000 ))
+  kill "$pid" && wait "$pid" 2>/dev/null || true
+  echo "$elapsed"
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+bench() {
+  local name="$1"; shift
+  local results=()
+  for ((i = 0; i < RUNS; i++)); do
+    results+=("$(measure "$@")")
+  done
+  printf '%-9s median %6s ms   runs: %s\n' "$name" "$(printf '%s\n' "${results[@]}" | median)" "${results[*]}"
+}
+
+bench baseline . -Dspring.jpa.show-sql=true -Dspring.jpa.properties.hibernate.format_sql=true -jar "$JAR"
+bench prod . -Dspring.profiles.active=prod -jar "$JAR"
+bench prod-aot "$APP_DIR" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+  -Dspring.profiles.active=prod -jar newsapp-0.0.1-SNAPSHOT.jar
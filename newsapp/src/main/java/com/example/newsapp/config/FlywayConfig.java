@@ -0,0 +1,30 @@
+package com.example.newsapp.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Миграции при старте можно отключить свойством {@code app.flyway.migrate-on-start}.
+ * В AOT-сборке наличие Flyway фиксируется на этапе сборки и
+ * {@code spring.flyway.enabled} во время запуска уже не действует, а обучающему
+ * запуску CDS база не нужна.
+ */
+@Configuration
+@Slf4j
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${app.flyway.migrate-on-start:true}") boolean migrateOnStart) {
+        return flyway -> {
+            if (migrateOnStart) {
+                flyway.migrate();
+            } else {
+                log.info("Flyway migrations skipped (app.flyway.migrate-on-start=false)");
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.newsapp.config;
+
+import com.example.newsapp.dto.AdminStatsDto;
+import com.example.newsapp.dto.CategoryFavoritesDto;
+import com.example.newsapp.dto.FavoriteDto;
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.dto.NewsStreamEvent;
+import com.example.newsapp.dto.RankedNewsDto;
+import com.example.newsapp.dto.SuggestionDto;
+import com.example.newsapp.dto.SyncResponse;
+import com.example.newsapp.dto.UserProfileView;
+import com.example.newsapp.entity.AnalyticsDaily;
+import com.example.newsapp.entity.Article;
+import com.example.newsapp.entity.Category;
+import com.example.newsapp.entity.NewsPortal;
+import com.example.newsapp.entity.PortalMetadata;
+import com.example.newsapp.entity.User;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.projection.TargetAware;
+
+import java.util.List;
+
+/**
+ * Подсказки для native-image сверх того, что Spring AOT выводит сам.
+ * Используются только при сборке с профилем {@code native}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHints.Registrar.class)
+public class NativeHints {
+
+    // jjwt-api создаёт реализации по имени класса, сериализатор ищет через ServiceLoader
+    static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    // Тела запросов и ответов, которые Jackson читает через сгенерированные Lombok аксессоры
+    static final List<Class<?>> JSON_TYPES = List.of(
+            NewsPortalDto.class, FavoriteDto.class, RankedNewsDto.class, SuggestionDto.class, SyncResponse.class,
+            NewsStreamEvent.class, AdminStatsDto.class, CategoryFavoritesDto.class, AnalyticsDaily.class,
+            NewsPortal.class, Category.class, Article.class, PortalMetadata.class, User.class
+    );
+
+    // Конструкторные выражения JPQL (select new ...) вызываются Hibernate через reflection
+    static final List<Class<?>> JPQL_CONSTRUCTOR_TYPES = List.of(NewsPortalDto.class, FavoriteDto.class,
+            CategoryFavoritesDto.class);
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : JJWT_IMPLEMENTATIONS) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            bindingRegistrar.registerReflectionHints(hints.reflection(), JSON_TYPES.toArray(Class<?>[]::new));
+            for (Class<?> type : JPQL_CONSTRUCTOR_TYPES) {
+                hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+
+            // Интерфейсная проекция Spring Data реализуется JDK-прокси
+            hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(UserProfileView.class, TargetAware.class));
+
+            hints.resources().registerPattern("db/migration/*.sql");
+        }
+    }
+}
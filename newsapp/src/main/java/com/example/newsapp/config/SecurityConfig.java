@@ -1,7 +1,9 @@
 package com.example.newsapp.config;
 
+import com.example.newsapp.service.ConcurrencyLimitFilter;
 import com.example.newsapp.service.JwtAuthenticationFilter;
 import com.example.newsapp.service.UserDetailsServiceImpl;
+import com.example.newsapp.service.profiling.ProfiledPasswordEncoder;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,6 +27,7 @@ public class SecurityConfig {
 
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -34,8 +37,12 @@ public class SecurityConfig {
                         // Регистрация и логин доступны всем
                         .requestMatchers("/error").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")
+                        .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
 
                         // Новости
+                        .requestMatchers(HttpMethod.POST, "/api/news-portal/*/view").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/news/**", "/api/news-portal/**").authenticated()
                         .requestMatchers(HttpMethod.POST, "/api/news/**", "/api/news-portal/**").hasAuthority("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/news/**", "/api/news-portal/**").hasAuthority("ADMIN")
@@ -53,7 +60,9 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 // Добавляем JWT-фильтр
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Сброс нагрузки до разбора токена
+                .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -66,9 +75,10 @@ public class SecurityConfig {
         return provider;
     }
 
+    // bcrypt виден в записях JFR как newsapp.PasswordHash
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new ProfiledPasswordEncoder(new BCryptPasswordEncoder());
     }
 
     @Bean
@@ -0,0 +1,74 @@
+package com.example.newsapp.config;
+
+import com.example.newsapp.dto.FieldSelection;
+import com.example.newsapp.service.profiling.ProfiledJacksonConverters;
+import com.example.newsapp.service.profiling.RepositoryProfiling;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * CBOR и Smile для тех же DTO, что отдаются в JSON.
+ * <p>
+ * Конвертеры стоят сразу после JSON: клиенты с {@code Accept: *}{@code /*}
+ * по-прежнему получают JSON, бинарный формат выбирается только явным Accept.
+ * ObjectMapper строится из общего билдера Spring Boot, поэтому настройки
+ * Jackson (модули, формат дат) у всех форматов одинаковые.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public WebConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    // Заменяет JSON-конвертер Spring Boot: сериализация ответа видна в JFR как newsapp.ResponseWrite
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return ProfiledJacksonConverters.json(objectMapper);
+    }
+
+    // Вызовы репозиториев видны в JFR как newsapp.RepositoryQuery
+    @Bean
+    public static RepositoryProfiling repositoryProfiling() {
+        return new RepositoryProfiling();
+    }
+
+    // DTO с @JsonFilter без ?fields= сериализуются целиком
+    @Bean
+    public static Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilters() {
+        return builder -> builder.filters(FieldSelection.defaultFilters());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring MVC сам добавляет эти конвертеры с настройками по умолчанию — заменяем их
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+        int index = 0;
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                index = i + 1;
+                break;
+            }
+        }
+        converters.add(index, ProfiledJacksonConverters.smile(
+                objectMapperBuilder.factory(new SmileFactory()).build()));
+        converters.add(index, ProfiledJacksonConverters.cbor(
+                objectMapperBuilder.factory(new CBORFactory()).build()));
+    }
+}
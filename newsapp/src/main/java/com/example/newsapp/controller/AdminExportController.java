@@ -0,0 +1,56 @@
+package com.example.newsapp.controller;
+
+import com.example.newsapp.service.export.DataExportService;
+import com.example.newsapp.service.export.DataExportService.Format;
+import com.example.newsapp.service.export.DataExportService.Table;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Полная выгрузка таблиц для аналитиков (ADMIN):
+ * {@code curl --compressed -H "Authorization: Bearer ..." -o favorites.csv ".../api/admin/export/favorites?format=csv"}.
+ * Таблицы: {@code news}, {@code categories}, {@code favorites}; форматы: {@code csv}, {@code ndjson}.
+ * Со {@code Accept-Encoding: gzip} ответ сжимается ({@code Content-Encoding: gzip}).
+ */
+@RestController
+@RequestMapping("/api/admin/export")
+public class AdminExportController {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final DataExportService exportService;
+
+    public AdminExportController(DataExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // Пишем прямо в ответ в потоке запроса: у асинхронного StreamingResponseBody
+    // есть таймаут, которого многомиллионная выгрузка может не уложиться
+    @GetMapping("/{table}")
+    public void export(@PathVariable String table,
+                       @RequestParam(defaultValue = "csv") String format,
+                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                       HttpServletResponse response) throws IOException {
+        Table source = Table.of(table);
+        Format target = Format.of(format);
+        boolean gzip = DataExportService.acceptsGzip(acceptEncoding);
+        String filename = source.getTableName() + "-" + LocalDateTime.now().format(FILE_TIMESTAMP)
+                + "." + target.getExtension();
+
+        try (DataExportService.Permit ignored = exportService.acquire()) {
+            response.setContentType(target.getContentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).toString());
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            exportService.export(source, target, gzip, response.getOutputStream());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.newsapp.controller;
+
+import com.example.newsapp.service.profiling.ProfilingService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Профилирование живого экземпляра (ADMIN):
+ * {@code curl -X POST -H "Authorization: Bearer ..." -o app.jfr ".../api/admin/profiling/recordings?seconds=30"}.
+ * Ответ приходит по окончании записи; файл открывается в JDK Mission Control
+ * или {@code jfr print --events newsapp.* app.jfr}.
+ */
+@RestController
+@RequestMapping("/api/admin/profiling")
+public class AdminProfilingController {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ProfilingService profilingService;
+
+    public AdminProfilingController(ProfilingService profilingService) {
+        this.profilingService = profilingService;
+    }
+
+    @PostMapping("/recordings")
+    public ResponseEntity<StreamingResponseBody> record(@RequestParam(defaultValue = "30") long seconds,
+                                                        @RequestParam(defaultValue = "default") String settings)
+            throws IOException {
+        Path file = profilingService.record(Duration.ofSeconds(seconds), settings);
+        String filename = "newsapp-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr";
+
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).toString())
+                .body(body);
+    }
+}
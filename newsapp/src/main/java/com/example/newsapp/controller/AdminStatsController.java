@@ -0,0 +1,33 @@
+package com.example.newsapp.controller;
+
+import com.example.newsapp.dto.AdminStatsDto;
+import com.example.newsapp.service.analytics.AnalyticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Админская аналитика (ADMIN): читает только сводные таблицы, данные
+ * отстают от событий не больше чем на {@code app.analytics.flush-interval-ms}.
+ */
+@RestController
+@RequestMapping("/api/admin/stats")
+public class AdminStatsController {
+
+    private final AnalyticsService analyticsService;
+
+    public AdminStatsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping
+    public AdminStatsDto stats(@RequestParam(defaultValue = "30") int days) {
+        return analyticsService.stats(days);
+    }
+
+    // Пересчёт сводок с нуля по исходным таблицам, например после ручной правки данных
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        analyticsService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
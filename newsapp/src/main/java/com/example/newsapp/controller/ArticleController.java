@@ -0,0 +1,38 @@
+package com.example.newsapp.controller;
+
+import com.example.newsapp.entity.Article;
+import com.example.newsapp.repository.ArticleRepository;
+import com.example.newsapp.service.ingest.FeedIngestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/news-portal")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class ArticleController {
+
+    private final ArticleRepository articleRepo;
+    private final FeedIngestionService ingestionService;
+
+    // Последние статьи из фида портала
+    @GetMapping("/{id}/articles")
+    public List<Article> getArticles(@PathVariable Long id, @RequestParam(defaultValue = "20") int limit) {
+        int size = Math.max(1, Math.min(limit, 100));
+        return articleRepo.findByNewsPortalIdOrderByPublishedAtDescIdDesc(id, PageRequest.of(0, size));
+    }
+
+    // Внеочередная загрузка фидов (ADMIN)
+    @PostMapping("/ingest")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void ingest() {
+        if (!ingestionService.triggerIngest()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Ingestion is already running");
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.newsapp.controller;
 
 import com.example.newsapp.entity.User;
+import com.example.newsapp.event.UserRegisteredEvent;
 import com.example.newsapp.repository.UserRepository;
 import com.example.newsapp.service.JwtService;
 import com.example.newsapp.service.PasswordResetService;
+import com.example.newsapp.service.TokenVersionCache;
+import com.example.newsapp.service.profiling.AuthenticationEvent;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.Data;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -31,45 +38,67 @@ public class AuthController {
     private final AuthenticationManager authManager;
     private final JwtService jwtService;
     private final PasswordResetService passwordResetService;
+    private final TokenVersionCache tokenVersions;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AuthController(UserRepository userRepository,
                           PasswordEncoder passwordEncoder,
                           AuthenticationManager authManager,
                           JwtService jwtService,
-                          PasswordResetService passwordResetService) {
+                          PasswordResetService passwordResetService,
+                          TokenVersionCache tokenVersions,
+                          ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authManager = authManager;
         this.jwtService = jwtService;
         this.passwordResetService = passwordResetService;
+        this.tokenVersions = tokenVersions;
+        this.eventPublisher = eventPublisher;
     }
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
-        String normalizedEmail = normalizeEmail(user.getEmail());
-        user.setEmail(normalizedEmail);
-
-        if (userRepository.existsByEmailIgnoreCase(normalizedEmail)) {
-            return ResponseEntity
-                    .status(HttpStatus.CONFLICT)
-                    .body("Email already exists");
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        event.setOperation("register");
+        try {
+            ResponseEntity<?> response = doRegister(user);
+            event.setSuccess(response.getStatusCode().is2xxSuccessful());
+            return response;
+        } finally {
+            event.commit();
         }
+    }
 
-        if (userRepository.existsByUsername(user.getUsername())) {
-            return ResponseEntity
-                    .status(HttpStatus.CONFLICT)
-                    .body("Username already exists");
+    @PostMapping("/login")
+    public ResponseEntity<?> login(@RequestBody Map<String, String> body) {
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        event.setOperation("login");
+        try {
+            ResponseEntity<?> response = doLogin(body);
+            event.setSuccess(true);
+            return response;
+        } finally {
+            event.commit();
         }
+    }
 
+    private ResponseEntity<?> doRegister(User user) {
+        String normalizedEmail = normalizeEmail(user.getEmail());
+        user.setEmail(normalizedEmail);
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
+        // Один INSERT: уникальность email и username проверяют индексы БД
         try {
-            userRepository.save(user);
+            userRepository.saveAndFlush(user);
         } catch (DataIntegrityViolationException e) {
             return ResponseEntity
                     .status(HttpStatus.CONFLICT)
-                    .body("Email already exists");
+                    .body(isUsernameConflict(e) ? "Username already exists" : "Email already exists");
         }
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId()));
 
         String token = jwtService.generateToken(user);
 
@@ -81,17 +110,16 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
-    @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> body) {
+    private ResponseEntity<?> doLogin(Map<String, String> body) {
         String email = normalizeEmail(body.get("email"));
         String password = body.get("password");
 
-        authManager.authenticate(
+        Authentication authentication = authManager.authenticate(
                 new UsernamePasswordAuthenticationToken(email, password)
         );
 
-        User user = userRepository.findByEmailIgnoreCase(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Пользователь уже загружен при проверке пароля
+        User user = (User) authentication.getPrincipal();
 
         String token = jwtService.generateToken(user);
 
@@ -103,6 +131,16 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    // Выход со всех устройств: все выданные пользователю токены перестают приниматься
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@AuthenticationPrincipal User user) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        tokenVersions.revoke(user.getId());
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/forgot-password")
     public ResponseEntity<?> forgotPassword(@RequestBody ForgotPasswordRequest request, HttpServletRequest httpRequest) {
         String email = request == null ? null : request.getEmail();
@@ -135,6 +173,17 @@ public class AuthController {
         private String newPassword;
     }
 
+    // Имя ограничения драйвер может дополнить схемой или суффиксом индекса
+    private static boolean isUsernameConflict(DataIntegrityViolationException e) {
+        String name = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName()
+                : null;
+        if (name == null) {
+            name = e.getMostSpecificCause().getMessage();
+        }
+        return name != null && name.toLowerCase(Locale.ROOT).contains(User.USERNAME_CONSTRAINT);
+    }
+
     private String normalizeEmail(String email) {
         return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
@@ -1,7 +1,10 @@
 package com.example.newsapp.controller;
 
 import com.example.newsapp.entity.Category;
+import com.example.newsapp.event.CategoryChangedEvent;
 import com.example.newsapp.repository.CategoryRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -12,9 +15,11 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryRepository repo;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CategoryController(CategoryRepository repo) {
+    public CategoryController(CategoryRepository repo, ApplicationEventPublisher eventPublisher) {
         this.repo = repo;
+        this.eventPublisher = eventPublisher;
     }
 
     @GetMapping
@@ -22,19 +27,28 @@ public class CategoryController {
         return repo.findAll();
     }
 
+    // Запись коммитится вместе со строкой журнала синхронизации (SyncService пишет её перед коммитом)
     @PostMapping
+    @Transactional
     public Category add(@RequestBody Category category) {
-        return repo.save(category);
+        Category saved = repo.save(category);
+        eventPublisher.publishEvent(CategoryChangedEvent.saved(saved.getId(), saved.getName()));
+        return saved;
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public Category update(@PathVariable Long id, @RequestBody Category category) {
         category.setId(id);
-        return repo.save(category);
+        Category saved = repo.save(category);
+        eventPublisher.publishEvent(CategoryChangedEvent.saved(saved.getId(), saved.getName()));
+        return saved;
     }
 
     @DeleteMapping("/{id}")
+    @Transactional
     public void delete(@PathVariable Long id) {
         repo.deleteById(id);
+        eventPublisher.publishEvent(CategoryChangedEvent.deleted(id));
     }
 }
\ No newline at end of file
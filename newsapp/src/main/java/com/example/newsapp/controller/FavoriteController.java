@@ -1,7 +1,9 @@
 package com.example.newsapp.controller;
 
-import com.example.newsapp.entity.Favorite;
+import com.example.newsapp.dto.FavoriteDto;
+import com.example.newsapp.dto.RankedNewsDto;
 import com.example.newsapp.service.FavoriteService;
+import com.example.newsapp.service.recommend.RecommendationService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,18 +15,27 @@ import java.util.List;
 public class FavoriteController {
 
     private final FavoriteService favoriteService;
+    private final RecommendationService recommendationService;
 
-    public FavoriteController(FavoriteService favoriteService) {
+    public FavoriteController(FavoriteService favoriteService, RecommendationService recommendationService) {
         this.favoriteService = favoriteService;
+        this.recommendationService = recommendationService;
     }
 
-    // Получение всех избранных новостей пользователя
+    // Получение всех избранных новостей пользователя (поддерживает ?fields=)
     @GetMapping("/{userId}")
-    public ResponseEntity<List<Favorite>> getFavorites(@PathVariable Long userId) {
-        List<Favorite> favorites = favoriteService.getFavorites(userId);
+    public ResponseEntity<List<FavoriteDto>> getFavorites(@PathVariable Long userId) {
+        List<FavoriteDto> favorites = favoriteService.getFavorites(userId);
         return ResponseEntity.ok(favorites);
     }
 
+    // Персональная подборка по избранному; без избранного — новости «в тренде»
+    @GetMapping("/{userId}/recommendations")
+    public List<RankedNewsDto> getRecommendations(@PathVariable Long userId,
+                                                  @RequestParam(defaultValue = "20") int limit) {
+        return recommendationService.forUser(userId, Math.max(1, Math.min(limit, 100)));
+    }
+
     // Добавление / удаление из избранного
     @PostMapping("/{userId}/{newsId}")
     public ResponseEntity<String> toggleFavorite(@PathVariable Long userId, @PathVariable Long newsId) {
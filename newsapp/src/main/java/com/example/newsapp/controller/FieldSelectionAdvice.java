@@ -0,0 +1,39 @@
+package com.example.newsapp.controller;
+
+import com.example.newsapp.dto.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Применяет {@code ?fields=} к ответам контроллеров чтения. Работает для
+ * JSON, CBOR и Smile — все они сериализуются через Jackson.
+ */
+@ControllerAdvice(assignableTypes = {
+        NewsPortalController.class,
+        NewsController.class,
+        FavoriteController.class,
+        UserProfileController.class
+})
+public class FieldSelectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer,
+                                           MediaType contentType,
+                                           MethodParameter returnType,
+                                           ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        FieldSelection selection = FieldSelection.parse(servletRequest.getServletRequest().getParameter("fields"));
+        if (!selection.isAll()) {
+            bodyContainer.setFilters(selection.toFilterProvider());
+        }
+    }
+}
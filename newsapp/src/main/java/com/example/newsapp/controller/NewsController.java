@@ -1,7 +1,10 @@
  package com.example.newsapp.controller;
 
+import com.example.newsapp.dto.FieldSelection;
+import com.example.newsapp.dto.NewsPortalDto;
 import com.example.newsapp.entity.NewsPortal;
 import com.example.newsapp.repository.NewsPortalRepository;
+import com.example.newsapp.service.NewsPortalService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,43 +18,38 @@ import java.util.Optional;
 public class NewsController {
 
     private final NewsPortalRepository newsRepo;
+    private final NewsPortalService newsService;
 
-    // Получить все новости
+    // Получить все новости (поддерживает ?fields=)
     @GetMapping("/all")
-    public List<NewsPortal> getAll() {
-        return newsRepo.findAll();
+    public List<NewsPortalDto> getAll(@RequestParam(required = false) String fields) {
+        return FieldSelection.parse(fields).includes("description")
+                ? newsRepo.findAllViews()
+                : newsRepo.findAllSummaryViews();
     }
 
     // Добавить новость (ADMIN)
     @PostMapping("/add")
     public ResponseEntity<NewsPortal> addNews(@RequestBody NewsPortal news) {
-        return ResponseEntity.ok(newsRepo.save(news));
+        return ResponseEntity.ok(newsService.create(news));
     }
 
     // Обновить новость (ADMIN)
     @PutMapping("/{id}")
     public ResponseEntity<?> updateNews(@PathVariable Long id, @RequestBody NewsPortal updatedNews) {
-        Optional<NewsPortal> optionalNews = newsRepo.findById(id);
-        if (optionalNews.isEmpty()) {
+        Optional<NewsPortal> updated = newsService.update(id, updatedNews);
+        if (updated.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-
-        NewsPortal news = optionalNews.get();
-        news.setTitle(updatedNews.getTitle());
-        news.setUrl(updatedNews.getUrl());
-        news.setDescription(updatedNews.getDescription());
-        news.setCategory(updatedNews.getCategory());
-
-        return ResponseEntity.ok(newsRepo.save(news));
+        return ResponseEntity.ok(updated.get());
     }
 
     // Удалить новость (ADMIN)
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteNews(@PathVariable Long id) {
-        if (!newsRepo.existsById(id)) {
+        if (!newsService.delete(id)) {
             return ResponseEntity.notFound().build();
         }
-        newsRepo.deleteById(id);
         return ResponseEntity.ok("Новость успешно удалена");
     }
 }
@@ -1,13 +1,28 @@
 package com.example.newsapp.controller;
 
+import com.example.newsapp.dto.FieldSelection;
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.dto.RankedNewsDto;
+import com.example.newsapp.dto.SuggestionDto;
 import com.example.newsapp.entity.NewsPortal;
-import com.example.newsapp.entity.Category;
+import com.example.newsapp.entity.User;
 import com.example.newsapp.repository.NewsPortalRepository;
-import com.example.newsapp.repository.CategoryRepository;
+import com.example.newsapp.service.NewsFeedSnapshot;
+import com.example.newsapp.service.NewsPortalService;
+import com.example.newsapp.service.NewsStatsService;
+import com.example.newsapp.service.SuggestService;
+import com.example.newsapp.service.recommend.RecommendationService;
+import com.example.newsapp.service.stream.NewsStreamService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Data;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,62 +31,132 @@ import java.util.List;
 public class NewsPortalController {
 
     private final NewsPortalRepository newsRepo;
-    private final CategoryRepository categoryRepo;
+    private final NewsPortalService newsService;
+    private final NewsFeedSnapshot feedSnapshot;
+    private final NewsStatsService statsService;
+    private final SuggestService suggestService;
+    private final RecommendationService recommendationService;
+    private final NewsStreamService streamService;
 
-    public NewsPortalController(NewsPortalRepository newsRepo, CategoryRepository categoryRepo) {
+    public NewsPortalController(NewsPortalRepository newsRepo,
+                                NewsPortalService newsService,
+                                NewsFeedSnapshot feedSnapshot,
+                                NewsStatsService statsService,
+                                SuggestService suggestService,
+                                RecommendationService recommendationService,
+                                NewsStreamService streamService) {
         this.newsRepo = newsRepo;
-        this.categoryRepo = categoryRepo;
+        this.newsService = newsService;
+        this.feedSnapshot = feedSnapshot;
+        this.statsService = statsService;
+        this.suggestService = suggestService;
+        this.recommendationService = recommendationService;
+        this.streamService = streamService;
     }
 
+    // Все GET-списки поддерживают ?fields=, см. FieldSelectionAdvice
     @GetMapping("/all")
-    public List<NewsPortal> getAll() {
-        return newsRepo.findAll();
+    public List<NewsPortalDto> getAll(@RequestParam(required = false) String fields) {
+        return FieldSelection.parse(fields).includes("description")
+                ? newsRepo.findAllViews()
+                : newsRepo.findAllSummaryViews();
+    }
+
+    // Лента категории из снимка в памяти, без обращения к БД
+    @GetMapping("/by-category/{id}")
+    public List<NewsPortalDto> getByCategory(@PathVariable Long id) {
+        return feedSnapshot.byCategory(id);
+    }
+
+    // Рейтинги считаются в памяти, см. NewsStatsService
+    @GetMapping("/trending")
+    public List<RankedNewsDto> trending(@RequestParam(defaultValue = "20") int limit) {
+        return statsService.trending(clampLimit(limit));
+    }
+
+    @GetMapping("/most-favorited")
+    public List<RankedNewsDto> mostFavorited(@RequestParam(defaultValue = "20") int limit) {
+        return statsService.mostFavorited(clampLimit(limit));
+    }
+
+    // «Сохранившие эту новость сохранили также» — из матрицы в памяти, см. RecommendationService
+    @GetMapping("/{id}/related")
+    public List<RankedNewsDto> related(@PathVariable Long id, @RequestParam(defaultValue = "10") int limit) {
+        return recommendationService.related(id, clampLimit(limit));
+    }
+
+    // Новые и изменённые новости категорий без опроса: ?categories=1,2 (SSE), см. NewsStreamService
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void stream(@RequestParam List<Long> categories,
+                       @AuthenticationPrincipal User user,
+                       HttpServletRequest request,
+                       HttpServletResponse response) throws IOException {
+        streamService.subscribe(user.getId(), categories, request, response);
+    }
+
+    // Учёт просмотра доступен любому авторизованному пользователю
+    @PostMapping("/{id}/view")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void recordView(@PathVariable Long id) {
+        if (feedSnapshot.findById(id).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "News not found");
+        }
+        statsService.recordView(id);
     }
 
     @PostMapping("/add")
     public NewsPortal addPortal(@RequestBody NewsPortal portal) {
-        if (portal.getCategory() != null && portal.getCategory().getId() != null) {
-            Category cat = categoryRepo.findById(portal.getCategory().getId())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Category not found"));
-            portal.setCategory(cat);
-        }
-        return newsRepo.save(portal);
+        return newsService.create(portal);
     }
 
     @PutMapping("/{id}")
     public NewsPortal updatePortal(@PathVariable Long id, @RequestBody NewsPortal updatedPortal) {
-        NewsPortal existing = newsRepo.findById(id)
+        return newsService.update(id, updatedPortal)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "News not found"));
-
-        existing.setTitle(updatedPortal.getTitle());
-        existing.setUrl(updatedPortal.getUrl());
-        existing.setDescription(updatedPortal.getDescription());
-
-        if (updatedPortal.getCategory() != null && updatedPortal.getCategory().getId() != null) {
-            Category cat = categoryRepo.findById(updatedPortal.getCategory().getId())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Category not found"));
-            existing.setCategory(cat);
-        } else {
-            existing.setCategory(null);
-        }
-
-        return newsRepo.save(existing);
     }
 
     @DeleteMapping("/{id}")
     public void deletePortal(@PathVariable Long id) {
-        if (!newsRepo.existsById(id)) {
+        if (!newsService.delete(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "News not found");
         }
-        newsRepo.deleteById(id);
+    }
+
+    // Массовые операции (ADMIN): список id, одна транзакция, в ответе — число затронутых строк
+    @PostMapping("/bulk/delete")
+    public NewsPortalService.BulkResult bulkDelete(@RequestBody BulkRequest request) {
+        return newsService.deleteAll(request.getIds());
+    }
+
+    @PostMapping("/bulk/category")
+    public NewsPortalService.BulkResult bulkReassignCategory(@RequestBody BulkRequest request) {
+        return newsService.reassignCategory(request.getIds(), request.getCategoryId());
     }
 
     // 🔍    Серверный поиск
     @GetMapping("/search")
-    public List<NewsPortal> search(@RequestParam String q) {
+    public List<NewsPortalDto> search(@RequestParam String q) {
         if (q == null || q.trim().isEmpty()) {
-            return newsRepo.findAll();
+            return newsRepo.findAllViews();
         }
         return newsRepo.search(q.trim());
     }
+
+    // Подсказки по префиксу из дерева в памяти
+    @GetMapping("/suggest")
+    public List<SuggestionDto> suggest(@RequestParam String prefix,
+                                       @RequestParam(defaultValue = "10") int limit) {
+        return suggestService.suggest(prefix, Math.max(limit, 1));
+    }
+
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, 100));
+    }
+
+    @Data
+    public static class BulkRequest {
+        private List<Long> ids;
+        // Только для /bulk/category; null снимает категорию
+        private Long categoryId;
+    }
 }
@@ -0,0 +1,35 @@
+package com.example.newsapp.controller;
+
+import com.example.newsapp.entity.PortalMetadata;
+import com.example.newsapp.repository.PortalMetadataRepository;
+import com.example.newsapp.service.crawler.PortalCrawler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/news-portal")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class PortalMetadataController {
+
+    private final PortalMetadataRepository metadataRepo;
+    private final PortalCrawler crawler;
+
+    // Что краулер нашёл на странице портала и жива ли ссылка
+    @GetMapping("/{id}/metadata")
+    public PortalMetadata getMetadata(@PathVariable Long id) {
+        return metadataRepo.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Metadata not found"));
+    }
+
+    // Внеочередной обход всех порталов (ADMIN)
+    @PostMapping("/crawl")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void crawl() {
+        if (!crawler.triggerCrawl()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Crawl is already running");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.newsapp.controller;
+
+import com.example.newsapp.dto.SyncResponse;
+import com.example.newsapp.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    // Изменения новостей и категорий после версии since (0 — полная выгрузка)
+    @GetMapping
+    public SyncResponse sync(@RequestParam(defaultValue = "0") long since) {
+        return syncService.changesSince(since);
+    }
+}
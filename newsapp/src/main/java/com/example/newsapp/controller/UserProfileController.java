@@ -1,15 +1,26 @@
 package com.example.newsapp.controller;
 
+import com.example.newsapp.dto.FieldSelection;
+import com.example.newsapp.dto.UserProfileView;
 import com.example.newsapp.entity.User;
+import com.example.newsapp.entity.UserAvatar;
 import com.example.newsapp.repository.UserRepository;
+import com.example.newsapp.service.AvatarService;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Base64;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/users")
@@ -21,41 +32,97 @@ public class UserProfileController {
     private static final int MAX_AVATAR_BASE64_LENGTH = 2_000_000;
 
     private final UserRepository userRepository;
+    private final AvatarService avatarService;
 
+    // avatarSize — сторона аватара в пикселях; без параметра отдаётся оригинал.
+    // Если ?fields= не включает avatarBase64, колонка аватара не читается вовсе
     @GetMapping("/me")
-    public UserProfileResponse getCurrentUserProfile(Authentication authentication) {
+    public UserProfileResponse getCurrentUserProfile(Authentication authentication,
+                                                     @RequestParam(required = false) Integer avatarSize,
+                                                     @RequestParam(required = false) String fields) {
+        if (!FieldSelection.parse(fields).includes("avatarBase64")) {
+            requireAuthenticated(authentication);
+            return userRepository.findProfileByEmail(authentication.getName())
+                    .map(UserProfileResponse::fromView)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        }
+        User user = resolveCurrentUser(authentication);
+        return toResponse(user, avatarSize);
+    }
+
+    @GetMapping("/me/avatar")
+    public ResponseEntity<byte[]> getCurrentUserAvatar(Authentication authentication,
+                                                       @RequestParam(defaultValue = "96") int size) {
         User user = resolveCurrentUser(authentication);
-        return UserProfileResponse.fromUser(user);
+        UserAvatar avatar = avatarService.findVariant(user.getId(), size)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Avatar not found"));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(avatar.getContentType()))
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePrivate())
+                .eTag(Long.toHexString(avatar.getId()))
+                .body(avatar.getBytes());
     }
 
     @PutMapping("/me")
     public UserProfileResponse updateCurrentUserProfile(
             Authentication authentication,
-            @RequestBody UpdateProfileRequest request
+            @RequestBody UpdateProfileRequest request,
+            @RequestParam(required = false) Integer avatarSize
     ) {
         User user = resolveCurrentUser(authentication);
 
         String username = normalizeUsername(request.getUsername());
         String themePreference = normalizeThemePreference(request.getThemePreference());
-        String avatarBase64 = normalizeAvatar(request.getAvatarBase64());
 
         user.setUsername(username);
         user.setThemePreference(themePreference);
-        user.setAvatarBase64(avatarBase64);
+
+        byte[] avatarData = null;
+        boolean avatarChanged = false;
+        if (!Boolean.TRUE.equals(request.getKeepAvatar())) {
+            String avatarBase64 = normalizeAvatar(request.getAvatarBase64());
+            avatarChanged = !Objects.equals(avatarBase64, user.getAvatarBase64());
+            if (avatarChanged && avatarBase64 != null) {
+                avatarData = avatarService.validate(avatarBase64);
+            }
+            user.setAvatarBase64(avatarBase64);
+        }
 
         User saved = userRepository.save(user);
-        return UserProfileResponse.fromUser(saved);
+        if (avatarChanged) {
+            if (avatarData != null) {
+                avatarService.scheduleVariants(saved.getId(), avatarData);
+            } else {
+                avatarService.removeVariants(saved.getId());
+            }
+        }
+        return toResponse(saved, avatarSize);
     }
 
-    private User resolveCurrentUser(Authentication authentication) {
-        if (authentication == null || authentication.getName() == null || authentication.getName().isBlank()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+    private UserProfileResponse toResponse(User user, Integer avatarSize) {
+        UserProfileResponse response = UserProfileResponse.fromUser(user);
+        if (avatarSize != null && user.getAvatarBase64() != null) {
+            // Пока копии не построены, остаётся оригинал
+            avatarService.findVariant(user.getId(), avatarSize).ifPresent(avatar -> {
+                response.setAvatarBase64(Base64.getEncoder().encodeToString(avatar.getBytes()));
+                response.setAvatarSize(avatar.getPixelSize());
+            });
         }
+        return response;
+    }
 
+    private User resolveCurrentUser(Authentication authentication) {
+        requireAuthenticated(authentication);
         return userRepository.findByEmail(authentication.getName())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
     }
 
+    private void requireAuthenticated(Authentication authentication) {
+        if (authentication == null || authentication.getName() == null || authentication.getName().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+    }
+
     private String normalizeUsername(String username) {
         if (username == null || username.trim().length() < 3) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Username must be at least 3 characters");
@@ -100,15 +167,20 @@ public class UserProfileController {
         private String username;
         private String avatarBase64;
         private String themePreference;
+        // true — аватар не менять (клиент мог получить уменьшенную копию и не должен слать её обратно)
+        private Boolean keepAvatar;
     }
 
     @Data
+    @JsonFilter(FieldSelection.FILTER_ID)
     public static class UserProfileResponse {
         private Long id;
         private String email;
         private String username;
         private String role;
         private String avatarBase64;
+        // Размер отданной копии; null — оригинал
+        private Integer avatarSize;
         private String themePreference;
 
         public static UserProfileResponse fromUser(User user) {
@@ -121,5 +193,15 @@ public class UserProfileController {
             response.setThemePreference(user.getThemePreference() == null ? "SYSTEM" : user.getThemePreference());
             return response;
         }
+
+        public static UserProfileResponse fromView(UserProfileView view) {
+            UserProfileResponse response = new UserProfileResponse();
+            response.setId(view.getId());
+            response.setEmail(view.getEmail());
+            response.setUsername(view.getUsername());
+            response.setRole(view.getRole());
+            response.setThemePreference(view.getThemePreference() == null ? "SYSTEM" : view.getThemePreference());
+            return response;
+        }
     }
 }
@@ -0,0 +1,24 @@
+package com.example.newsapp.dto;
+
+import com.example.newsapp.entity.AnalyticsDaily;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Ответ {@code /api/admin/stats}: итоги, дневные ряды и разбивка по
+ * категориям начиная с {@code from}, самые сохраняемые новости.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminStatsDto {
+    private LocalDate from;
+    private long totalUsers;
+    private List<AnalyticsDaily> daily;
+    private List<CategoryFavoritesDto> favoritesByCategory;
+    private List<RankedNewsDto> mostSaved;
+}
@@ -0,0 +1,15 @@
+package com.example.newsapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryFavoritesDto {
+    private Long categoryId;
+    private String categoryName;
+    private long added;
+    private long removed;
+}
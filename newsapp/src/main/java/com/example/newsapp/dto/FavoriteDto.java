@@ -0,0 +1,25 @@
+package com.example.newsapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Элемент избранного: сама новость без пользователя, которому она принадлежит.
+ * Формат {@code {id, newsPortal}} совместим с прежним ответом.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER_ID)
+public class FavoriteDto {
+    private Long id;
+    private NewsPortalDto newsPortal;
+
+    // Для JPQL-проекции
+    public FavoriteDto(Long id, Long newsId, String title, String url, String description,
+                       Long categoryId, String categoryName) {
+        this(id, new NewsPortalDto(newsId, title, url, description, categoryId, categoryName));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.newsapp.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Разбор параметра {@code fields}: список полей через запятую, вложенные
+ * поля через точку ({@code id,newsPortal.title}). Выбор объекта целиком
+ * ({@code newsPortal}) включает все его поля.
+ * <p>
+ * DTO, которые можно урезать, помечены {@code @JsonFilter(FieldSelection.FILTER_ID)}.
+ */
+public final class FieldSelection {
+
+    public static final String FILTER_ID = "fields";
+
+    private static final FieldSelection ALL = new FieldSelection(null);
+
+    // null — все поля
+    private final Set<String> paths;
+
+    private FieldSelection(Set<String> paths) {
+        this.paths = paths;
+    }
+
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> paths = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String path = field.trim();
+            if (!path.isEmpty()) {
+                paths.add(path);
+            }
+        }
+        return paths.isEmpty() ? ALL : new FieldSelection(Set.copyOf(paths));
+    }
+
+    /**
+     * Фильтр по умолчанию для общего ObjectMapper: без параметра
+     * {@code fields} помеченные DTO сериализуются целиком.
+     */
+    public static SimpleFilterProvider defaultFilters() {
+        return new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    public boolean isAll() {
+        return paths == null;
+    }
+
+    public boolean includes(String path) {
+        if (paths == null || paths.contains(path)) {
+            return true;
+        }
+        // Предок выбранного поля: newsPortal для newsPortal.title
+        for (String selected : paths) {
+            if (selected.startsWith(path) && selected.length() > path.length() && selected.charAt(path.length()) == '.') {
+                return true;
+            }
+        }
+        // Потомок выбранного объекта: newsPortal.title для newsPortal
+        for (int dot = path.indexOf('.'); dot > 0; dot = path.indexOf('.', dot + 1)) {
+            if (paths.contains(path.substring(0, dot))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public FilterProvider toFilterProvider() {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, new PathFilter(this));
+    }
+
+    private static final class PathFilter extends SimpleBeanPropertyFilter {
+
+        private final FieldSelection selection;
+
+        private PathFilter(FieldSelection selection) {
+            this.selection = selection;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (selection.includes(pathOf(gen, writer.getName()))) {
+                writer.serializeAsField(pojo, gen, provider);
+            } else if (!gen.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, gen, provider);
+            }
+        }
+
+        // Путь поля от корня ответа; индексы массивов пропускаются
+        private static String pathOf(JsonGenerator gen, String name) {
+            Deque<String> names = new ArrayDeque<>();
+            names.push(name);
+            for (JsonStreamContext context = gen.getOutputContext().getParent(); context != null; context = context.getParent()) {
+                if (context.inObject() && context.getCurrentName() != null) {
+                    names.push(context.getCurrentName());
+                }
+            }
+            return String.join(".", names);
+        }
+    }
+}
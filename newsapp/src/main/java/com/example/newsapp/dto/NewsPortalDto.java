@@ -0,0 +1,37 @@
+package com.example.newsapp.dto;
+
+import com.example.newsapp.entity.Category;
+import com.example.newsapp.entity.NewsPortal;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Плоское представление новости для списков: категория передаётся
+ * только id и названием, без вложенного графа сущностей.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER_ID)
+public class NewsPortalDto {
+    private Long id;
+    private String title;
+    private String url;
+    private String description;
+    private Long categoryId;
+    private String categoryName;
+
+    public static NewsPortalDto fromEntity(NewsPortal news) {
+        Category category = news.getCategory();
+        return new NewsPortalDto(
+                news.getId(),
+                news.getTitle(),
+                news.getUrl(),
+                news.getDescription(),
+                category == null ? null : category.getId(),
+                category == null ? null : category.getName()
+        );
+    }
+}
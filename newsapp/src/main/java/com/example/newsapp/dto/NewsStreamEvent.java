@@ -0,0 +1,30 @@
+package com.example.newsapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Событие SSE-потока новостей: без описания, только то, что нужно клиенту,
+ * чтобы показать новость в ленте (описание дозагружается по id).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewsStreamEvent {
+    private Long id;
+    private String title;
+    private String url;
+    private Long categoryId;
+    private String categoryName;
+
+    public static NewsStreamEvent from(NewsPortalDto news) {
+        return new NewsStreamEvent(
+                news.getId(),
+                news.getTitle(),
+                news.getUrl(),
+                news.getCategoryId(),
+                news.getCategoryName()
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.newsapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(FieldSelection.FILTER_ID)
+public class RankedNewsDto {
+    private NewsPortalDto news;
+    private double score;
+}
@@ -0,0 +1,17 @@
+package com.example.newsapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+
+    public enum Type { NEWS, CATEGORY }
+
+    private Type type;
+    private Long id;
+    private String text;
+}
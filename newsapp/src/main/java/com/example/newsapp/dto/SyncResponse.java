@@ -0,0 +1,22 @@
+package com.example.newsapp.dto;
+
+import com.example.newsapp.entity.Category;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ответ {@code GET /api/sync}. Если {@code fullResync} = true, клиент
+ * должен заменить локальные данные целиком, иначе применить дельту.
+ * {@code version} передаётся в следующий запрос как {@code since}.
+ */
+@Data
+public class SyncResponse {
+    private long version;
+    private boolean fullResync;
+    private List<NewsPortalDto> news = new ArrayList<>();
+    private List<Category> categories = new ArrayList<>();
+    private List<Long> deletedNewsIds = new ArrayList<>();
+    private List<Long> deletedCategoryIds = new ArrayList<>();
+}
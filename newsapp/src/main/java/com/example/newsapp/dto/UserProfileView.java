@@ -0,0 +1,16 @@
+package com.example.newsapp.dto;
+
+/**
+ * Проекция профиля без аватара: из users читаются только эти колонки.
+ */
+public interface UserProfileView {
+    Long getId();
+
+    String getEmail();
+
+    String getUsername();
+
+    String getRole();
+
+    String getThemePreference();
+}
@@ -0,0 +1,42 @@
+package com.example.newsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Добавления в избранное и удаления из него по категориям за день.
+ * Категория берётся на момент события, без внешнего ключа: перенос
+ * и удаление новостей прошлые дни не меняют.
+ */
+@Entity
+@Table(name = "analytics_category_daily")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AnalyticsCategoryDaily {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private long favoritesAdded;
+
+    @Column(nullable = false)
+    private long favoritesRemoved;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private Long categoryId;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.newsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Дневная сводка для {@code /api/admin/stats}: регистрации, избранное и
+ * сбросы пароля за день. Пополняется пакетно из {@code AnalyticsService}.
+ */
+@Entity
+@Table(name = "analytics_daily")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AnalyticsDaily {
+
+    @Id
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private long signups;
+
+    @Column(nullable = false)
+    private long favoritesAdded;
+
+    @Column(nullable = false)
+    private long favoritesRemoved;
+
+    @Column(nullable = false)
+    private long resetRequests;
+
+    @Column(nullable = false)
+    private long resetsCompleted;
+}
@@ -0,0 +1,29 @@
+package com.example.newsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Накопленные итоги для {@code /api/admin/stats} (например, число пользователей),
+ * чтобы не считать {@code count(*)} по большим таблицам на каждый запрос.
+ */
+@Entity
+@Table(name = "analytics_totals")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AnalyticsTotal {
+
+    public static final String USERS = "users";
+    // Номер последнего пересчёта сводок (AnalyticsService.rebuild), а не итог
+    public static final String REBUILD_EPOCH = "rebuild_epoch";
+
+    @Id
+    @Column(length = 32)
+    private String metric;
+
+    @Column(nullable = false)
+    private long value;
+}
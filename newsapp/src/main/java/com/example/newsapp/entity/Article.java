@@ -0,0 +1,53 @@
+package com.example.newsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Статья из RSS/Atom-фида портала. Дубликаты отсекаются по
+ * {@code dedupKey} — SHA-256 от id портала и GUID (или ссылки).
+ */
+@Entity
+@Table(
+        name = "articles",
+        indexes = {
+                @Index(name = "idx_articles_dedup_key", columnList = "dedupKey", unique = true),
+                @Index(name = "idx_articles_portal_published", columnList = "news_portal_id, publishedAt, id")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class Article {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "news_portal_id", nullable = false)
+    private Long newsPortalId;
+
+    @Column(nullable = false, length = 64)
+    private String dedupKey;
+
+    @Column(length = 1024)
+    private String guid;
+
+    @Column(length = 1024)
+    private String title;
+
+    @Column(length = 2048)
+    private String link;
+
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    private LocalDateTime publishedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime fetchedAt;
+}
@@ -2,9 +2,18 @@ package com.example.newsapp.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "favorites")
+@Table(
+        name = "favorites",
+        indexes = {
+                @Index(name = "idx_favorites_user_news", columnList = "user_id, news_portal_id", unique = true),
+                @Index(name = "idx_favorites_news", columnList = "news_portal_id")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,4 +30,9 @@ public class Favorite {
     @ManyToOne
     @JoinColumn(name = "news_portal_id")
     private NewsPortal newsPortal;
+
+    // Заполняется и в FavoriteRepository.insertIfAbsent; у записей до V5 пусто
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
 }
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "news_portals")
+@Table(name = "news_portals",
+        indexes = @Index(name = "idx_news_portals_category", columnList = "category_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,29 @@
+package com.example.newsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Накопленные счётчики просмотров и добавлений в избранное по новости.
+ * Обновляется пакетно из {@code NewsStatsService}, без внешнего ключа,
+ * чтобы запоздавший сброс счётчиков не мешал удалению новости.
+ */
+@Entity
+@Table(name = "news_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+public class NewsStats {
+
+    @Id
+    @Column(name = "news_portal_id")
+    private Long newsPortalId;
+
+    @Column(nullable = false)
+    private long viewCount;
+
+    @Column(nullable = false)
+    private long favoriteCount;
+}
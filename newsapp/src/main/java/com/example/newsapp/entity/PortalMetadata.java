@@ -0,0 +1,60 @@
+package com.example.newsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Метаданные, которые краулер получил со страницы портала, и состояние
+ * доступности ссылки. Введённые админом title/description в
+ * {@link NewsPortal} не перезаписываются.
+ */
+@Entity
+@Table(name = "portal_metadata")
+@Getter
+@Setter
+@NoArgsConstructor
+public class PortalMetadata {
+
+    public enum HealthStatus { UP, DOWN, UNREACHABLE }
+
+    @Id
+    @Column(name = "news_portal_id")
+    private Long newsPortalId;
+
+    @Column(length = 512)
+    private String fetchedTitle;
+
+    @Column(length = 2048)
+    private String fetchedDescription;
+
+    @Column(length = 2048)
+    private String faviconUrl;
+
+    @Column(length = 2048)
+    private String feedUrl;
+
+    @Column(length = 255)
+    private String etag;
+
+    @Column(length = 64)
+    private String lastModified;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private HealthStatus healthStatus;
+
+    private Integer httpStatus;
+
+    @Column(length = 512)
+    private String lastError;
+
+    private int consecutiveFailures;
+
+    private LocalDateTime lastCheckedAt;
+
+    private LocalDateTime lastSuccessAt;
+}
@@ -0,0 +1,53 @@
+package com.example.newsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись журнала изменений для дельта-синхронизации.
+ * Идентификатор служит версией: он монотонно растёт. На каждую сущность
+ * хранится только последняя запись; удаление оставляет tombstone.
+ */
+@Entity
+@Table(
+        name = "sync_changes",
+        indexes = {
+                @Index(name = "idx_sync_changes_entity", columnList = "entityType, entityId"),
+                @Index(name = "idx_sync_changes_tombstones", columnList = "deleted, changedAt")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class SyncChange {
+
+    public enum EntityType { NEWS, CATEGORY }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    public SyncChange(EntityType entityType, Long entityId, boolean deleted, LocalDateTime changedAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.deleted = deleted;
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.newsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Состояние журнала синхронизации: до какой версии включительно
+ * tombstone-записи уже удалены компактированием.
+ */
+@Entity
+@Table(name = "sync_state")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SyncState {
+
+    public static final Long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id = SINGLETON_ID;
+
+    @Column(nullable = false)
+    private long purgedThroughVersion;
+}
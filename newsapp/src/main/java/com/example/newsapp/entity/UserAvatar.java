@@ -0,0 +1,41 @@
+package com.example.newsapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Уменьшенная копия аватара пользователя одного из фиксированных размеров.
+ * Оригинал по-прежнему хранится в {@link User#getAvatarBase64()}.
+ * Строка с {@code pixelSize = 0} — отметка, что оригинал не удалось декодировать.
+ */
+@Entity
+@Table(name = "user_avatars",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_avatars_user_size", columnNames = {"user_id", "pixel_size"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserAvatar {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "pixel_size", nullable = false)
+    private int pixelSize;
+
+    @Column(nullable = false, length = 32)
+    private String contentType;
+
+    @Column(nullable = false)
+    private byte[] bytes;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
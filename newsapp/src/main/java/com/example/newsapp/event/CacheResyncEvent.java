@@ -0,0 +1,9 @@
+package com.example.newsapp.event;
+
+/**
+ * Локальные кэши могли пропустить изменения других экземпляров
+ * (подключение или обрыв соединения шины инвалидации, переполнение): каждый кэш
+ * перечитывает своё состояние из БД.
+ */
+public class CacheResyncEvent {
+}
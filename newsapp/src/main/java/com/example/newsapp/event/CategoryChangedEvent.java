@@ -0,0 +1,29 @@
+package com.example.newsapp.event;
+
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Публикуется после создания, переименования или удаления категории.
+ * Для удаления {@code name} равен null.
+ * {@code remote} — как в {@link NewsChangedEvent}.
+ */
+@Value
+public class CategoryChangedEvent {
+
+    public enum Type { SAVED, DELETED }
+
+    Type type;
+    Long categoryId;
+    String name;
+    @With
+    boolean remote;
+
+    public static CategoryChangedEvent saved(Long categoryId, String name) {
+        return new CategoryChangedEvent(Type.SAVED, categoryId, name, false);
+    }
+
+    public static CategoryChangedEvent deleted(Long categoryId) {
+        return new CategoryChangedEvent(Type.DELETED, categoryId, null, false);
+    }
+}
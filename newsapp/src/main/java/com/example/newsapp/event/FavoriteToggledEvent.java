@@ -0,0 +1,14 @@
+package com.example.newsapp.event;
+
+import lombok.Value;
+
+/**
+ * Публикуется после добавления ({@code added} = true) или удаления
+ * новости из избранного пользователя.
+ */
+@Value
+public class FavoriteToggledEvent {
+    Long userId;
+    Long newsPortalId;
+    boolean added;
+}
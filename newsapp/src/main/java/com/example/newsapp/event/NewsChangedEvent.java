@@ -0,0 +1,31 @@
+package com.example.newsapp.event;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Публикуется после создания, изменения или удаления новости.
+ * Для удаления {@code news} равен null.
+ * {@code remote} — изменение сделано другим экземпляром и пришло через
+ * шину инвалидации: БД уже обновлена, менять нужно только локальное состояние.
+ */
+@Value
+public class NewsChangedEvent {
+
+    public enum Type { SAVED, DELETED }
+
+    Type type;
+    Long newsId;
+    NewsPortalDto news;
+    @With
+    boolean remote;
+
+    public static NewsChangedEvent saved(NewsPortalDto news) {
+        return new NewsChangedEvent(Type.SAVED, news.getId(), news, false);
+    }
+
+    public static NewsChangedEvent deleted(Long newsId) {
+        return new NewsChangedEvent(Type.DELETED, newsId, null, false);
+    }
+}
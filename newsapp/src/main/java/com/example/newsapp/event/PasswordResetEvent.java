@@ -0,0 +1,16 @@
+package com.example.newsapp.event;
+
+import lombok.Value;
+
+/**
+ * Публикуется после выдачи токена сброса пароля ({@code REQUESTED})
+ * и после смены пароля по токену ({@code COMPLETED}).
+ */
+@Value
+public class PasswordResetEvent {
+
+    public enum Type { REQUESTED, COMPLETED }
+
+    Long userId;
+    Type type;
+}
@@ -0,0 +1,15 @@
+package com.example.newsapp.event;
+
+import lombok.Value;
+
+/**
+ * Публикуется после увеличения версии токенов пользователя:
+ * все JWT с меньшей версией больше не принимаются.
+ * {@code remote} — как в {@link NewsChangedEvent}.
+ */
+@Value
+public class TokenRevokedEvent {
+    Long userId;
+    int tokenVersion;
+    boolean remote;
+}
@@ -0,0 +1,11 @@
+package com.example.newsapp.event;
+
+import lombok.Value;
+
+/**
+ * Публикуется после регистрации нового пользователя.
+ */
+@Value
+public class UserRegisteredEvent {
+    Long userId;
+}
@@ -0,0 +1,26 @@
+package com.example.newsapp.repository;
+
+import com.example.newsapp.dto.CategoryFavoritesDto;
+import com.example.newsapp.entity.AnalyticsCategoryDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsCategoryDailyRepository
+        extends JpaRepository<AnalyticsCategoryDaily, AnalyticsCategoryDaily.Key> {
+
+    // Итоги по категориям за период; у удалённых категорий название null
+    @Query("""
+        SELECT new com.example.newsapp.dto.CategoryFavoritesDto(
+            a.id.categoryId, c.name, SUM(a.favoritesAdded), SUM(a.favoritesRemoved))
+        FROM AnalyticsCategoryDaily a
+        LEFT JOIN Category c ON c.id = a.id.categoryId
+        WHERE a.id.day >= :from
+        GROUP BY a.id.categoryId, c.name
+        ORDER BY SUM(a.favoritesAdded) - SUM(a.favoritesRemoved) DESC, a.id.categoryId
+    """)
+    List<CategoryFavoritesDto> sumByCategorySince(@Param("from") LocalDate from);
+}
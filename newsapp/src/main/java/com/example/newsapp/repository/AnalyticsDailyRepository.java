@@ -0,0 +1,12 @@
+package com.example.newsapp.repository;
+
+import com.example.newsapp.entity.AnalyticsDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsDailyRepository extends JpaRepository<AnalyticsDaily, LocalDate> {
+
+    List<AnalyticsDaily> findByDayGreaterThanEqualOrderByDay(LocalDate from);
+}
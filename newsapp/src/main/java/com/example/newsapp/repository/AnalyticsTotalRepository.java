@@ -0,0 +1,7 @@
+package com.example.newsapp.repository;
+
+import com.example.newsapp.entity.AnalyticsTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AnalyticsTotalRepository extends JpaRepository<AnalyticsTotal, String> {
+}
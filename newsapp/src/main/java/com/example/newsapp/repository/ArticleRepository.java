@@ -0,0 +1,20 @@
+package com.example.newsapp.repository;
+
+import com.example.newsapp.entity.Article;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ArticleRepository extends JpaRepository<Article, Long> {
+
+    List<Article> findByNewsPortalIdOrderByPublishedAtDescIdDesc(Long newsPortalId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Article a where a.newsPortalId in :newsPortalIds")
+    int deleteByNewsPortalIdIn(@Param("newsPortalIds") Collection<Long> newsPortalIds);
+}
@@ -1,17 +1,51 @@
 package com.example.newsapp.repository;
 
+import com.example.newsapp.dto.FavoriteDto;
 import com.example.newsapp.entity.Favorite;
 import com.example.newsapp.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     // Получить все избранные новости пользователя
     List<Favorite> findByUser(User user);
 
+    // Избранное для ответа API: колонки новости и категории, без пользователя
+    @Query("""
+        SELECT new com.example.newsapp.dto.FavoriteDto(f.id, n.id, n.title, n.url, n.description, c.id, c.name)
+        FROM Favorite f
+        JOIN f.newsPortal n
+        LEFT JOIN n.category c
+        WHERE f.user.id = :userId
+        ORDER BY f.id
+    """)
+    List<FavoriteDto> findViewsByUserId(@Param("userId") Long userId);
+
     // Проверить, добавлена ли новость в избранное
     boolean existsByUserIdAndNewsPortalId(Long userId, Long newsPortalId);
 
-    // Удалить новость из избранного
-    void deleteByUserIdAndNewsPortalId(Long userId, Long newsPortalId);
+    // Удалить новость из избранного одним запросом; 0 — записи уже нет
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.user.id = :userId AND f.newsPortal.id = :newsPortalId")
+    int deleteByUserIdAndNewsPortalId(@Param("userId") Long userId, @Param("newsPortalId") Long newsPortalId);
+
+    // Добавить, если ещё нет; 0 — запись уже есть (повтор отсекает уникальный idx_favorites_user_news).
+    // Цель конфликта указана явно: без этого индекса запрос падает, а не вставляет повтор,
+    // а ошибка по другим ограничениям (внешний ключ) не глушится
+    @Modifying
+    @Query(value = """
+        INSERT INTO favorites (user_id, news_portal_id, created_at) VALUES (:userId, :newsPortalId, now())
+        ON CONFLICT (user_id, news_portal_id) DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("newsPortalId") Long newsPortalId);
+
+    // Каскад при удалении новостей: одним запросом, без загрузки сущностей
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.newsPortal.id IN :newsIds")
+    int deleteByNewsPortalIdIn(@Param("newsIds") Collection<Long> newsIds);
 }
@@ -1,25 +1,79 @@
 package com.example.newsapp.repository;
 
-import com.example.newsapp.entity.NewsPortal;
+import com.example.newsapp.dto.NewsPortalDto;
 import com.example.newsapp.entity.Category;
+import com.example.newsapp.entity.NewsPortal;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface NewsPortalRepository extends JpaRepository<NewsPortal, Long> {
 
-    List<NewsPortal> findByCategory(Category category);
+    // Списки отдаются DTO-проекцией одним запросом с join категории
+    @Query("""
+        SELECT new com.example.newsapp.dto.NewsPortalDto(n.id, n.title, n.url, n.description, c.id, c.name)
+        FROM NewsPortal n
+        LEFT JOIN n.category c
+        ORDER BY n.id
+    """)
+    List<NewsPortalDto> findAllViews();
+
+    // То же без description — для ?fields=, где описание не запрошено
+    @Query("""
+        SELECT new com.example.newsapp.dto.NewsPortalDto(n.id, n.title, n.url, CAST(NULL AS string), c.id, c.name)
+        FROM NewsPortal n
+        LEFT JOIN n.category c
+        ORDER BY n.id
+    """)
+    List<NewsPortalDto> findAllSummaryViews();
+
+    @Query("""
+        SELECT new com.example.newsapp.dto.NewsPortalDto(n.id, n.title, n.url, n.description, c.id, c.name)
+        FROM NewsPortal n
+        JOIN n.category c
+        WHERE c.id = :categoryId
+        ORDER BY n.id
+    """)
+    List<NewsPortalDto> findViewsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("""
+        SELECT new com.example.newsapp.dto.NewsPortalDto(n.id, n.title, n.url, n.description, c.id, c.name)
+        FROM NewsPortal n
+        LEFT JOIN n.category c
+        WHERE n.id IN :ids
+        ORDER BY n.id
+    """)
+    List<NewsPortalDto> findViewsByIdIn(@Param("ids") Collection<Long> ids);
 
     // 🔍 Поиск по новостям + категории
     @Query("""
-        SELECT n FROM NewsPortal n
+        SELECT new com.example.newsapp.dto.NewsPortalDto(n.id, n.title, n.url, n.description, c.id, c.name)
+        FROM NewsPortal n
         LEFT JOIN n.category c
         WHERE LOWER(n.title) LIKE LOWER(CONCAT('%', :q, '%'))
            OR LOWER(n.description) LIKE LOWER(CONCAT('%', :q, '%'))
            OR LOWER(n.url) LIKE LOWER(CONCAT('%', :q, '%'))
            OR LOWER(c.name) LIKE LOWER(CONCAT('%', :q, '%'))
+        ORDER BY n.id
     """)
-    List<NewsPortal> search(@Param("q") String q);
+    List<NewsPortalDto> search(@Param("q") String q);
+
+    // Блокирует строки новостей (FOR UPDATE): параллельная вставка в избранное дождётся конца удаления
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n.id FROM NewsPortal n WHERE n.id IN :ids ORDER BY n.id")
+    List<Long> lockExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM NewsPortal n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE NewsPortal n SET n.category = :category WHERE n.id IN :ids")
+    int updateCategoryByIdIn(@Param("ids") Collection<Long> ids, @Param("category") Category category);
 }
@@ -0,0 +1,7 @@
+package com.example.newsapp.repository;
+
+import com.example.newsapp.entity.NewsStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface NewsStatsRepository extends JpaRepository<NewsStats, Long> {
+}
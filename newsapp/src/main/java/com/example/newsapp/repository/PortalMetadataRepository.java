@@ -0,0 +1,7 @@
+package com.example.newsapp.repository;
+
+import com.example.newsapp.entity.PortalMetadata;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PortalMetadataRepository extends JpaRepository<PortalMetadata, Long> {
+}
@@ -0,0 +1,29 @@
+package com.example.newsapp.repository;
+
+import com.example.newsapp.entity.SyncChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SyncChangeRepository extends JpaRepository<SyncChange, Long> {
+
+    List<SyncChange> findByIdGreaterThanOrderByIdAsc(Long version);
+
+    @Query("select coalesce(max(c.id), 0) from SyncChange c")
+    long findCurrentVersion();
+
+    @Modifying
+    @Query("delete from SyncChange c where c.entityType = :type and c.entityId = :entityId")
+    int deleteByEntity(@Param("type") SyncChange.EntityType type, @Param("entityId") Long entityId);
+
+    @Query("select coalesce(max(c.id), 0) from SyncChange c where c.deleted = true and c.changedAt < :before")
+    long findLastTombstoneVersionBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("delete from SyncChange c where c.deleted = true and c.id <= :version")
+    int deleteTombstonesThrough(@Param("version") long version);
+}
@@ -0,0 +1,7 @@
+package com.example.newsapp.repository;
+
+import com.example.newsapp.entity.SyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SyncStateRepository extends JpaRepository<SyncState, Long> {
+}
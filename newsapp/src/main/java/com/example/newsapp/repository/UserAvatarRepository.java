@@ -0,0 +1,23 @@
+package com.example.newsapp.repository;
+
+import com.example.newsapp.entity.UserAvatar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserAvatarRepository extends JpaRepository<UserAvatar, Long> {
+
+    Optional<UserAvatar> findByUserIdAndPixelSize(Long userId, int pixelSize);
+
+    @Modifying
+    @Query("delete from UserAvatar a where a.userId = :userId")
+    int deleteByUserId(Long userId);
+
+    // Пользователи с аватаром, для которых ещё нет уменьшенных копий
+    @Query("select u.id from User u where u.avatarBase64 is not null " +
+            "and not exists (select 1 from UserAvatar a where a.userId = u.id)")
+    List<Long> findUserIdsWithoutVariants();
+}
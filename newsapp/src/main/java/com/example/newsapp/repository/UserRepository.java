@@ -1,13 +1,32 @@
 package com.example.newsapp.repository;
 
+import com.example.newsapp.dto.UserProfileView;
 import com.example.newsapp.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-    Optional<User> findByEmailIgnoreCase(String email);
+    Optional<UserProfileView> findProfileByEmail(String email);
     boolean existsByEmail(String email);
-    boolean existsByEmailIgnoreCase(String email);
+
+    // Строка пользователя блокируется до конца транзакции (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.email = :email")
+    Optional<User> findByEmailForUpdate(@Param("email") String email);
     boolean existsByUsername(String username);
+
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    // Изменения сущностей текущей транзакции сбрасываются до UPDATE, иначе flush при коммите перезапишет версию
+    @Modifying(flushAutomatically = true)
+    @Query("update User u set u.tokenVersion = u.tokenVersion + 1 where u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
 }
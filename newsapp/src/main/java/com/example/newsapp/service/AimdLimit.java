@@ -0,0 +1,64 @@
+package com.example.newsapp.service;
+
+/**
+ * Адаптивный лимит одновременных запросов (AIMD, как в TCP).
+ * <p>
+ * Ответ быстрее порога при занятом лимите увеличивает его на единицу,
+ * ответ медленнее порога уменьшает в {@code backoff} раз. Уменьшение
+ * срабатывает не чаще раза за «круг»: медленные запросы, начатые до
+ * предыдущего уменьшения, его не повторяют, иначе одна волна медленных
+ * ответов обрушила бы лимит до минимума.
+ */
+final class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoff;
+
+    private int limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    AimdLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoff) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoff = backoff;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        this.lastDecreaseNanos = Long.MIN_VALUE;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (inFlight >= limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Освобождает место и учитывает задержку запроса, начатого в {@code startNanos}.
+     */
+    synchronized void release(long startNanos, long endNanos) {
+        int used = inFlight;
+        inFlight--;
+        if (endNanos - startNanos > latencyThresholdNanos) {
+            if (startNanos > lastDecreaseNanos) {
+                limit = Math.max(minLimit, (int) (limit * backoff));
+                lastDecreaseNanos = endNanos;
+            }
+        } else if (used * 2 >= limit) {
+            // Растём, только когда лимит действительно используется
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    synchronized int getLimit() {
+        return limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.newsapp.service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Проверка и масштабирование аватаров средствами ImageIO, без Spring.
+ */
+public final class AvatarImages {
+
+    // Защита от «бомб»: для копий до 256 px хватает фото с телефона (12 Мп), крупнее — только работа декодеру
+    private static final long MAX_PIXELS = 4096L * 4096L;
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private AvatarImages() {
+    }
+
+    public record Probe(String format, int width, int height) {
+    }
+
+    public record Variant(int size, String contentType, byte[] bytes) {
+    }
+
+    /**
+     * Читает только заголовок изображения: формат и размеры.
+     *
+     * @throws IllegalArgumentException если это не изображение поддерживаемого формата
+     */
+    public static Probe probe(byte[] data) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (!supported(width, height)) {
+                    throw new IllegalArgumentException("Unsupported image dimensions");
+                }
+                return new Probe(reader.getFormatName().toLowerCase(), width, height);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupted image", e);
+        }
+    }
+
+    /**
+     * Обрезает изображение по центру до квадрата и сохраняет его в каждом
+     * из размеров: JPEG для непрозрачных изображений, PNG для прозрачных.
+     */
+    public static Variant[] resize(byte[] data, int... sizes) throws IOException {
+        BufferedImage source = decode(data, 2 * Arrays.stream(sizes).max().orElse(1));
+
+        boolean alpha = source.getColorModel().hasAlpha();
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage square = source.getSubimage(
+                (source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+
+        Variant[] variants = new Variant[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            BufferedImage scaled = scale(square, Math.min(sizes[i], side), alpha);
+            variants[i] = alpha
+                    ? new Variant(sizes[i], "image/png", writePng(scaled))
+                    : new Variant(sizes[i], "image/jpeg", writeJpeg(scaled));
+        }
+        return variants;
+    }
+
+    /**
+     * Декодирует изображение целиком с прореживанием: меньшая сторона остаётся
+     * не меньше {@code minSide}, так что большое фото не разворачивается в памяти.
+     * Предупреждения декодера (обрезанный файл, битые данные) считаются ошибкой:
+     * иначе ImageIO молча дорисует недостающее серым.
+     */
+    static BufferedImage decode(byte[] data, int minSide) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (!supported(width, height)) {
+                    throw new IOException("Unsupported image dimensions");
+                }
+
+                List<String> warnings = new ArrayList<>();
+                reader.addIIOReadWarningListener((source, warning) -> warnings.add(warning));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.min(width, height) / Math.max(minSide, 1));
+                param.setSourceSubsampling(step, step, 0, 0);
+
+                BufferedImage image = reader.read(0, param);
+                if (!warnings.isEmpty()) {
+                    throw new IOException("Corrupted image: " + warnings.get(0));
+                }
+                return image;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static boolean supported(int width, int height) {
+        return width > 0 && height > 0 && (long) width * height <= MAX_PIXELS;
+    }
+
+    // Пошаговое уменьшение вдвое: билинейная интерполяция за один шаг даёт «лесенку»
+    private static BufferedImage scale(BufferedImage image, int target, boolean alpha) {
+        BufferedImage current = image;
+        int size = image.getWidth();
+        do {
+            size = Math.max(size / 2, target);
+            current = draw(current, size, alpha);
+        } while (size > target);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage image, int size, boolean alpha) {
+        BufferedImage result = new BufferedImage(size, size, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    private static byte[] writePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] writeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.entity.UserAvatar;
+import com.example.newsapp.repository.UserAvatarRepository;
+import com.example.newsapp.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Уменьшенные копии аватаров.
+ * <p>
+ * При загрузке в потоке запроса проверяется только заголовок изображения.
+ * Декодирование и масштабирование до {@link #SIZES} выполняются в фоновом
+ * пуле. Пока копии не готовы, клиент получает оригинал. Если пользователь
+ * успел загрузить новый аватар, результат устаревшей задачи отбрасывается.
+ * Оригинал, который не удалось декодировать (например, обрезанный файл),
+ * помечается строкой размера {@link #FAILED_SIZE}, чтобы backfill не повторял его
+ * при каждом запуске; новая загрузка удаляет отметку вместе с копиями.
+ */
+@Service
+@Slf4j
+public class AvatarService {
+
+    public static final int[] SIZES = {48, 96, 256};
+    // pixel_size отметки «оригинал не декодируется»; findVariant её не выбирает
+    static final int FAILED_SIZE = 0;
+
+    private final UserAvatarRepository avatarRepo;
+    private final UserRepository userRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ThreadPoolExecutor workers;
+    private final AtomicLong uploadSequence = new AtomicLong();
+    // userId -> номер последней загрузки; сохраняет копии только задача с этим номером
+    private final Map<Long, Long> latestUpload = new ConcurrentHashMap<>();
+    private final Object storeLock = new Object();
+
+    public AvatarService(UserAvatarRepository avatarRepo,
+                         UserRepository userRepo,
+                         PlatformTransactionManager transactionManager) {
+        this.avatarRepo = avatarRepo;
+        this.userRepo = userRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(256), r -> {
+            Thread thread = new Thread(r, "avatar-resize-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Проверяет, что строка — base64 изображения поддерживаемого формата.
+     *
+     * @return декодированные байты для {@link #scheduleVariants}
+     */
+    public byte[] validate(String avatarBase64) {
+        byte[] data;
+        try {
+            data = Base64.getMimeDecoder().decode(avatarBase64);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Avatar is not valid base64");
+        }
+        try {
+            AvatarImages.probe(data);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Avatar is not a supported image");
+        }
+        return data;
+    }
+
+    /**
+     * Ставит в очередь построение копий; старые копии удаляются сразу,
+     * чтобы клиент не получил прежний аватар.
+     */
+    public void scheduleVariants(Long userId, byte[] data) {
+        submit(userId, invalidate(userId), data);
+    }
+
+    public void removeVariants(Long userId) {
+        invalidate(userId);
+    }
+
+    private long invalidate(Long userId) {
+        // Под той же блокировкой, что и сохранение: устаревшая задача не запишет копии после удаления
+        synchronized (storeLock) {
+            long upload = uploadSequence.incrementAndGet();
+            latestUpload.put(userId, upload);
+            transactionTemplate.executeWithoutResult(status -> avatarRepo.deleteByUserId(userId));
+            return upload;
+        }
+    }
+
+    /**
+     * Копия наименьшего размера не меньше запрошенного (или наибольшая).
+     */
+    public Optional<UserAvatar> findVariant(Long userId, int requestedSize) {
+        return avatarRepo.findByUserIdAndPixelSize(userId, pickSize(requestedSize));
+    }
+
+    static int pickSize(int requestedSize) {
+        for (int size : SIZES) {
+            if (size >= requestedSize) {
+                return size;
+            }
+        }
+        return SIZES[SIZES.length - 1];
+    }
+
+    // Аватары, загруженные до появления копий (или потерянные при перезапуске)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<Long> userIds = avatarRepo.findUserIdsWithoutVariants();
+        if (userIds.isEmpty()) {
+            return;
+        }
+        log.info("Scheduling avatar variants for {} users", userIds.size());
+        for (Long userId : userIds) {
+            long upload = uploadSequence.incrementAndGet();
+            if (latestUpload.putIfAbsent(userId, upload) != null) {
+                continue;
+            }
+            try {
+                workers.execute(() -> userRepo.findById(userId)
+                        .filter(user -> user.getAvatarBase64() != null)
+                        .ifPresent(user -> {
+                            try {
+                                process(userId, upload, Base64.getMimeDecoder().decode(user.getAvatarBase64()));
+                            } catch (IllegalArgumentException e) {
+                                log.debug("Stored avatar of user {} is not valid base64", userId);
+                                markFailed(userId, upload);
+                            }
+                        }));
+            } catch (RejectedExecutionException e) {
+                latestUpload.remove(userId, upload);
+                log.warn("Avatar backfill queue is full, remaining users will be processed after restart");
+                return;
+            }
+        }
+    }
+
+    private void submit(Long userId, long upload, byte[] data) {
+        try {
+            workers.execute(() -> process(userId, upload, data));
+        } catch (RejectedExecutionException e) {
+            // Клиент получит оригинал; копии построятся при следующем запуске
+            latestUpload.remove(userId, upload);
+            log.warn("Avatar resize queue is full, skipping user {}", userId);
+        }
+    }
+
+    private void process(Long userId, long upload, byte[] data) {
+        AvatarImages.Variant[] variants;
+        try {
+            variants = AvatarImages.resize(data, SIZES);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to resize avatar of user {}: {}", userId, e.getMessage());
+            markFailed(userId, upload);
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        store(userId, upload, Arrays.stream(variants)
+                .map(variant -> avatar(userId, variant.size(), variant.contentType(), variant.bytes(), now))
+                .toList());
+    }
+
+    private void markFailed(Long userId, long upload) {
+        store(userId, upload, List.of(avatar(userId, FAILED_SIZE, "none", new byte[0], LocalDateTime.now())));
+    }
+
+    private void store(Long userId, long upload, List<UserAvatar> avatars) {
+        synchronized (storeLock) {
+            if (!latestUpload.remove(userId, upload)) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                avatarRepo.deleteByUserId(userId);
+                avatarRepo.saveAll(avatars);
+            });
+        }
+    }
+
+    private static UserAvatar avatar(Long userId, int size, String contentType, byte[] bytes, LocalDateTime now) {
+        UserAvatar avatar = new UserAvatar();
+        avatar.setUserId(userId);
+        avatar.setPixelSize(size);
+        avatar.setContentType(contentType);
+        avatar.setBytes(bytes);
+        avatar.setCreatedAt(now);
+        return avatar;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.newsapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Сброс нагрузки: отдельный адаптивный лимит одновременных запросов на
+ * каждый класс эндпоинтов.
+ * <p>
+ * Запрос сверх лимита сразу получает 503 с {@code Retry-After}, а не ждёт
+ * в очереди Tomcat, поэтому задержка принятых запросов остаётся ограниченной
+ * и при перегрузке. Классы независимы: медленный поиск или bcrypt при логине
+ * не занимают места дешёвых чтений списков. Лимит каждого класса подбирается
+ * по задержке ответов (см. {@link AimdLimit}).
+ * <p>
+ * Стоит в цепочке Spring Security перед {@link JwtAuthenticationFilter}:
+ * отклонённый запрос не тратит время на разбор токена и загрузку пользователя.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final int MIN_LIMIT = 2;
+    private static final int INITIAL_LIMIT = 20;
+    private static final double BACKOFF = 0.9;
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    public enum EndpointClass {
+        AUTH, SEARCH, LISTS, WRITES
+    }
+
+    private final boolean enabled;
+    private final List<String> excludedPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<EndpointClass, AimdLimit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> shed = new EnumMap<>(EndpointClass.class);
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${app.limiter.enabled:true}") boolean enabled,
+                                  @Value("${app.limiter.excluded-paths:}") List<String> excludedPaths,
+                                  @Value("${app.limiter.max-limit:200}") int maxLimit,
+                                  @Value("${app.limiter.auth.latency-ms:1000}") long authLatencyMs,
+                                  @Value("${app.limiter.search.latency-ms:500}") long searchLatencyMs,
+                                  @Value("${app.limiter.lists.latency-ms:250}") long listsLatencyMs,
+                                  @Value("${app.limiter.writes.latency-ms:1000}") long writesLatencyMs) {
+        this.enabled = enabled;
+        this.excludedPaths = List.copyOf(excludedPaths);
+        Map<EndpointClass, Long> thresholds = Map.of(
+                EndpointClass.AUTH, authLatencyMs,
+                EndpointClass.SEARCH, searchLatencyMs,
+                EndpointClass.LISTS, listsLatencyMs,
+                EndpointClass.WRITES, writesLatencyMs);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AimdLimit limit = new AimdLimit(INITIAL_LIMIT, MIN_LIMIT, maxLimit,
+                    thresholds.get(endpointClass) * 1_000_000, BACKOFF);
+            limits.put(endpointClass, limit);
+            register(meterRegistry, endpointClass, limit);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || "OPTIONS".equals(request.getMethod())) {
+            return true;
+        }
+        String path = path(request);
+        for (String pattern : excludedPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request.getMethod(), path(request));
+        AimdLimit limit = limits.get(endpointClass);
+        if (!limit.tryAcquire()) {
+            shed.get(endpointClass).increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limit.release(started, System.nanoTime());
+        }
+    }
+
+    static EndpointClass classify(String method, String path) {
+        if (path.startsWith("/api/auth/")) {
+            return EndpointClass.AUTH;
+        }
+        boolean read = "GET".equals(method) || "HEAD".equals(method);
+        if (!read) {
+            return EndpointClass.WRITES;
+        }
+        if (path.startsWith("/api/news-portal/search") || path.startsWith("/api/news-portal/suggest")) {
+            return EndpointClass.SEARCH;
+        }
+        return EndpointClass.LISTS;
+    }
+
+    int limit(EndpointClass endpointClass) {
+        return limits.get(endpointClass).getLimit();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void register(MeterRegistry registry, EndpointClass endpointClass, AimdLimit limit) {
+        String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+        Gauge.builder("http.server.requests.limit", limit, AimdLimit::getLimit)
+                .description("Current adaptive concurrency limit of the endpoint class")
+                .tag("class", tag)
+                .register(registry);
+        Gauge.builder("http.server.requests.inflight", limit, AimdLimit::getInFlight)
+                .description("Requests of the endpoint class being processed")
+                .tag("class", tag)
+                .register(registry);
+        shed.put(endpointClass, Counter.builder("http.server.requests.shed")
+                .description("Requests rejected with 503 because the endpoint class was at its limit")
+                .tag("class", tag)
+                .register(registry));
+    }
+}
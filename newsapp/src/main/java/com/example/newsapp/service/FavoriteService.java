@@ -1,14 +1,17 @@
 package com.example.newsapp.service;
 
-import com.example.newsapp.entity.Favorite;
-import com.example.newsapp.entity.NewsPortal;
-import com.example.newsapp.entity.User;
+import com.example.newsapp.dto.FavoriteDto;
+import com.example.newsapp.event.FavoriteToggledEvent;
 import com.example.newsapp.repository.FavoriteRepository;
 import com.example.newsapp.repository.NewsPortalRepository;
 import com.example.newsapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // 🔥 добавь это
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -16,38 +19,65 @@ import java.util.List;
 @RequiredArgsConstructor
 public class FavoriteService {
 
+    // Каждая неудачная попытка означает, что пару только что изменил другой запрос
+    private static final int MAX_TOGGLE_ATTEMPTS = 10;
+
     private final FavoriteRepository favoriteRepository;
     private final UserRepository userRepository;
     private final NewsPortalRepository newsPortalRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Добавляет или удаляет новость из избранного.
+     * <p>
+     * Без блокировок: удаление и вставка сами сообщают, изменили ли они строку,
+     * а повторную вставку отсекает уникальный индекс. Если другой запрос успел
+     * изменить ту же пару между ними, пробуем снова, поэтому каждый вызов
+     * переключает состояние ровно один раз.
      * @return true — если добавлено, false — если удалено.
      */
-    @Transactional // ✅ без этого удаление может не срабатывать
+    @Transactional
     public boolean toggleFavorite(Long userId, Long newsPortalId) {
-        boolean exists = favoriteRepository.existsByUserIdAndNewsPortalId(userId, newsPortalId);
-
-        if (exists) {
-            favoriteRepository.deleteByUserIdAndNewsPortalId(userId, newsPortalId);
-            return false; // ❌ удалено
-        } else {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
-            NewsPortal newsPortal = newsPortalRepository.findById(newsPortalId)
-                    .orElseThrow(() -> new RuntimeException("Новость не найдена"));
-
-            favoriteRepository.save(new Favorite(null, user, newsPortal));
-            return true; // ✅ добавлено
+        boolean checked = false;
+        for (int attempt = 0; attempt < MAX_TOGGLE_ATTEMPTS; attempt++) {
+            if (favoriteRepository.deleteByUserIdAndNewsPortalId(userId, newsPortalId) > 0) {
+                eventPublisher.publishEvent(new FavoriteToggledEvent(userId, newsPortalId, false));
+                return false; // ❌ удалено
+            }
+            if (!checked) {
+                if (!userRepository.existsById(userId)) {
+                    throw new RuntimeException("Пользователь не найден");
+                }
+                if (!newsPortalRepository.existsById(newsPortalId)) {
+                    throw new RuntimeException("Новость не найдена");
+                }
+                checked = true;
+            }
+            if (insertIfAbsent(userId, newsPortalId)) {
+                eventPublisher.publishEvent(new FavoriteToggledEvent(userId, newsPortalId, true));
+                return true; // ✅ добавлено
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "Favorite is being changed concurrently");
+    }
+
+    private boolean insertIfAbsent(Long userId, Long newsPortalId) {
+        try {
+            return favoriteRepository.insertIfAbsent(userId, newsPortalId) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Повтор пары гасит ON CONFLICT, так что это внешний ключ: новость
+            // (или пользователя) удалили после проверки выше
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "News portal no longer exists");
         }
     }
 
     /**
      * Возвращает все избранные новости пользователя.
      */
-    public List<Favorite> getFavorites(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Пользователь не найден"));
-        return favoriteRepository.findByUser(user);
+    public List<FavoriteDto> getFavorites(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("Пользователь не найден");
+        }
+        return favoriteRepository.findViewsByUserId(userId);
     }
 }
@@ -1,5 +1,8 @@
 package com.example.newsapp.service;
 
+import com.example.newsapp.service.profiling.JwtParseEvent;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,10 +24,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersions;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   TokenVersionCache tokenVersions) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenVersions = tokenVersions;
     }
 
     @Override
@@ -33,8 +40,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
         // если заголовка нет или не начинается с Bearer — пропускаем дальше
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -42,14 +47,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        // Подпись и срок действия проверяются один раз; неверный токен — запрос без аутентификации
+        JwtParseEvent parseEvent = new JwtParseEvent();
+        parseEvent.begin();
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(authHeader.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            parseEvent.commit();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        parseEvent.setValid(true);
+        parseEvent.commit();
+
+        String username = claims.getSubject();
 
-        // если пользователь ещё не аутентифицирован — проверяем токен
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // если пользователь ещё не аутентифицирован — проверяем токен;
+        // отозванный токен отсекается по версии из памяти, до загрузки пользователя
+        if (username != null
+                && SecurityContextHolder.getContext().getAuthentication() == null
+                && tokenVersions.isCurrent(jwtService.extractUserId(claims), jwtService.extractTokenVersion(claims))) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
+            // Токены, выданные до нормализации email, могут содержать другой регистр
+            if (username.equalsIgnoreCase(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
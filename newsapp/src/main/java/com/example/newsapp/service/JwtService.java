@@ -13,14 +13,19 @@ import java.util.Map;
 @Service
 public class JwtService {
 
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
     private static final String SECRET = "mySuperSecretKeyForJwtTokenGeneration1234567890";
     private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+    // Парсер неизменяемый и потокобезопасный — собирается один раз
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
 
     // теперь принимаем User и добавляем id в claims
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("id", user.getId());
         claims.put("role", user.getRole());
+        claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
 
         return Jwts.builder()
                 .setClaims(claims)
@@ -31,45 +36,35 @@ public class JwtService {
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * Проверяет подпись и срок действия и возвращает claims.
+     * Фильтр разбирает токен один раз и дальше работает с результатом.
+     *
+     * @throws JwtException если токен некорректен, подделан или истёк
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public String extractRole(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role", String.class);
+    public Long extractUserId(Claims claims) {
+        return claims.get("id", Long.class);
     }
 
-    public Integer extractId(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("id", Integer.class);
+    // Токены, выданные до появления версии, считаются версией 0
+    public int extractTokenVersion(Claims claims) {
+        Integer version = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return version == null ? 0 : version;
     }
 
-    public boolean isTokenValid(String token, String username) {
-        String extractedUsername = extractUsername(token);
-        return extractedUsername.equals(username) && !isTokenExpired(token);
+    public String extractUsername(String token) {
+        return parseClaims(token).getSubject();
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-        return expiration.before(new Date());
+    public String extractRole(String token) {
+        return parseClaims(token).get("role", String.class);
+    }
+
+    public Integer extractId(String token) {
+        return parseClaims(token).get("id", Integer.class);
     }
 }
@@ -0,0 +1,199 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.event.CacheResyncEvent;
+import com.example.newsapp.event.CategoryChangedEvent;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.repository.NewsPortalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Неизменяемый снимок новостей, сгруппированных по категориям.
+ * <p>
+ * Читатели получают снимок через одну volatile-ссылку без блокировок и без
+ * обращения к БД; группировка по категориям и индекс по id публикуются вместе,
+ * поэтому всегда согласованы. Писатель (события после коммита) под одной
+ * блокировкой копирует внешние карты и списки затронутых категорий, после чего
+ * публикует новый снимок.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NewsFeedSnapshot {
+
+    private static final Comparator<NewsPortalDto> BY_ID = Comparator.comparing(NewsPortalDto::getId);
+
+    private final NewsPortalRepository newsRepo;
+
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot;
+
+    public List<NewsPortalDto> byCategory(Long categoryId) {
+        return current().byCategory().getOrDefault(categoryId, List.of());
+    }
+
+    public Optional<NewsPortalDto> findById(Long newsId) {
+        return Optional.ofNullable(current().byId().get(newsId));
+    }
+
+    public List<NewsPortalDto> all() {
+        return List.copyOf(current().byId().values());
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CacheResyncEvent.class})
+    public void reload() {
+        synchronized (writeLock) {
+            List<NewsPortalDto> all = newsRepo.findAllViews();
+
+            Map<Long, List<NewsPortalDto>> grouped = new HashMap<>();
+            Map<Long, NewsPortalDto> byId = new HashMap<>();
+            for (NewsPortalDto news : all) {
+                byId.put(news.getId(), news);
+                if (news.getCategoryId() != null) {
+                    grouped.computeIfAbsent(news.getCategoryId(), k -> new ArrayList<>()).add(news);
+                }
+            }
+
+            Map<Long, List<NewsPortalDto>> next = new HashMap<>();
+            grouped.forEach((categoryId, list) -> {
+                list.sort(BY_ID);
+                next.put(categoryId, List.copyOf(list));
+            });
+            snapshot = new Snapshot(next, byId);
+            log.info("News feed snapshot loaded: {} news in {} categories", all.size(), next.size());
+        }
+    }
+
+    // Остальные кэши строятся поверх снимка, поэтому он обновляется первым
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsChanged(NewsChangedEvent event) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                // Снимок ещё не загружен; полная загрузка увидит это изменение
+                return;
+            }
+
+            // Слушатели после коммита идут не в порядке коммитов: вместо содержимого события
+            // под блокировкой читаем последнее закоммиченное состояние строки
+            NewsPortalDto news = event.getType() == NewsChangedEvent.Type.SAVED
+                    ? newsRepo.findViewsByIdIn(List.of(event.getNewsId())).stream().findFirst().orElse(null)
+                    : null;
+
+            Map<Long, List<NewsPortalDto>> next = new HashMap<>(current.byCategory());
+            Map<Long, NewsPortalDto> nextById = new HashMap<>(current.byId());
+            NewsPortalDto previous = nextById.get(event.getNewsId());
+            if (previous != null && previous.getCategoryId() != null) {
+                removeFromCategory(next, previous.getCategoryId(), event.getNewsId());
+            }
+
+            if (news != null) {
+                if (news.getCategoryId() != null) {
+                    addToCategory(next, news);
+                }
+                nextById.put(news.getId(), news);
+            } else {
+                nextById.remove(event.getNewsId());
+            }
+            snapshot = new Snapshot(next, nextById);
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+
+            List<NewsPortalDto> members = current.byCategory().get(event.getCategoryId());
+            if (members == null || members.isEmpty()) {
+                return;
+            }
+
+            Map<Long, List<NewsPortalDto>> next = new HashMap<>(current.byCategory());
+            Map<Long, NewsPortalDto> nextById = new HashMap<>(current.byId());
+
+            if (event.getType() == CategoryChangedEvent.Type.DELETED) {
+                // Внешний ключ не даёт удалить категорию с новостями: оставшиеся в ней записи
+                // снимка устарели (события о переносе или удалении не дошли) — убираем их целиком
+                next.remove(event.getCategoryId());
+                members.forEach(news -> nextById.remove(news.getId()));
+                log.warn("Category {} deleted while the snapshot still had {} news in it",
+                        event.getCategoryId(), members.size());
+                snapshot = new Snapshot(next, nextById);
+                return;
+            }
+
+            List<NewsPortalDto> renamed = new ArrayList<>(members.size());
+            for (NewsPortalDto news : members) {
+                NewsPortalDto copy = new NewsPortalDto(news.getId(), news.getTitle(), news.getUrl(),
+                        news.getDescription(), news.getCategoryId(), event.getName());
+                renamed.add(copy);
+                nextById.put(copy.getId(), copy);
+            }
+            next.put(event.getCategoryId(), List.copyOf(renamed));
+            snapshot = new Snapshot(next, nextById);
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private void removeFromCategory(Map<Long, List<NewsPortalDto>> target, Long categoryId, Long newsId) {
+        List<NewsPortalDto> list = target.get(categoryId);
+        if (list == null) {
+            return;
+        }
+        List<NewsPortalDto> copy = new ArrayList<>(list);
+        copy.removeIf(news -> news.getId().equals(newsId));
+        if (copy.isEmpty()) {
+            target.remove(categoryId);
+        } else {
+            target.put(categoryId, List.copyOf(copy));
+        }
+    }
+
+    private void addToCategory(Map<Long, List<NewsPortalDto>> target, NewsPortalDto news) {
+        List<NewsPortalDto> list = target.getOrDefault(news.getCategoryId(), List.of());
+        List<NewsPortalDto> copy = new ArrayList<>(list.size() + 1);
+        copy.addAll(list);
+        int index = Collections.binarySearch(copy, news, BY_ID);
+        copy.add(index < 0 ? -index - 1 : index, news);
+        target.put(news.getCategoryId(), List.copyOf(copy));
+    }
+
+    // categoryId -> новости категории (по возрастанию id) и индекс по id; карты и списки неизменяемые
+    private record Snapshot(Map<Long, List<NewsPortalDto>> byCategory, Map<Long, NewsPortalDto> byId) {
+
+        Snapshot {
+            byCategory = Collections.unmodifiableMap(byCategory);
+            byId = Collections.unmodifiableMap(byId);
+        }
+    }
+}
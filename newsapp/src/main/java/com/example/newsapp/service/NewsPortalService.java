@@ -0,0 +1,156 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.entity.Category;
+import com.example.newsapp.entity.NewsPortal;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.repository.ArticleRepository;
+import com.example.newsapp.repository.CategoryRepository;
+import com.example.newsapp.repository.FavoriteRepository;
+import com.example.newsapp.repository.NewsPortalRepository;
+import com.example.newsapp.repository.NewsStatsRepository;
+import com.example.newsapp.repository.PortalMetadataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Общие операции записи для {@code /api/news} и {@code /api/news-portal}.
+ * После каждой записи публикуется {@link NewsChangedEvent}.
+ * <p>
+ * Удаление и смена категории работают со списком id: несколько
+ * set-based запросов в одной транзакции независимо от размера списка.
+ */
+@Service
+@RequiredArgsConstructor
+public class NewsPortalService {
+
+    public static final int MAX_BULK_IDS = 1000;
+
+    private final NewsPortalRepository newsRepo;
+    private final CategoryRepository categoryRepo;
+    private final FavoriteRepository favoriteRepo;
+    private final ArticleRepository articleRepo;
+    private final PortalMetadataRepository metadataRepo;
+    private final NewsStatsRepository statsRepo;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value
+    public static class BulkResult {
+        int requested;
+        int affected;
+        int favoritesDeleted;
+    }
+
+    @Transactional
+    public NewsPortal create(NewsPortal portal) {
+        portal.setCategory(resolveCategory(portal.getCategory()));
+        NewsPortal saved = newsRepo.save(portal);
+        eventPublisher.publishEvent(NewsChangedEvent.saved(NewsPortalDto.fromEntity(saved)));
+        return saved;
+    }
+
+    @Transactional
+    public Optional<NewsPortal> update(Long id, NewsPortal updated) {
+        Optional<NewsPortal> optionalNews = newsRepo.findById(id);
+        if (optionalNews.isEmpty()) {
+            return Optional.empty();
+        }
+
+        NewsPortal existing = optionalNews.get();
+        existing.setTitle(updated.getTitle());
+        existing.setUrl(updated.getUrl());
+        existing.setDescription(updated.getDescription());
+        existing.setCategory(resolveCategory(updated.getCategory()));
+
+        NewsPortal saved = newsRepo.save(existing);
+        eventPublisher.publishEvent(NewsChangedEvent.saved(NewsPortalDto.fromEntity(saved)));
+        return Optional.of(saved);
+    }
+
+    @Transactional
+    public boolean delete(Long id) {
+        return deleteAll(List.of(id)).getAffected() > 0;
+    }
+
+    /**
+     * Удаляет новости вместе с избранным, статьями, метаданными и счётчиками.
+     * Несуществующие id пропускаются.
+     */
+    @Transactional
+    public BulkResult deleteAll(Collection<Long> ids) {
+        Set<Long> requested = normalizeIds(ids);
+        List<Long> existing = newsRepo.lockExistingIds(requested);
+        if (existing.isEmpty()) {
+            return new BulkResult(requested.size(), 0, 0);
+        }
+
+        int favoritesDeleted = favoriteRepo.deleteByNewsPortalIdIn(existing);
+        articleRepo.deleteByNewsPortalIdIn(existing);
+        metadataRepo.deleteAllByIdInBatch(existing);
+        statsRepo.deleteAllByIdInBatch(existing);
+        int deleted = newsRepo.deleteByIdIn(existing);
+
+        for (Long id : existing) {
+            eventPublisher.publishEvent(NewsChangedEvent.deleted(id));
+        }
+        return new BulkResult(requested.size(), deleted, favoritesDeleted);
+    }
+
+    /**
+     * Переносит новости в категорию ({@code null} — без категории).
+     */
+    @Transactional
+    public BulkResult reassignCategory(Collection<Long> ids, Long categoryId) {
+        Set<Long> requested = normalizeIds(ids);
+        Category category = null;
+        if (categoryId != null) {
+            if (!categoryRepo.existsById(categoryId)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Category not found");
+            }
+            category = categoryRepo.getReferenceById(categoryId);
+        }
+
+        int updated = newsRepo.updateCategoryByIdIn(requested, category);
+        if (updated > 0) {
+            // Одним запросом получаем новые представления для кэшей и журнала синхронизации
+            for (NewsPortalDto news : newsRepo.findViewsByIdIn(requested)) {
+                eventPublisher.publishEvent(NewsChangedEvent.saved(news));
+            }
+        }
+        return new BulkResult(requested.size(), updated, 0);
+    }
+
+    private Set<Long> normalizeIds(Collection<Long> ids) {
+        Set<Long> normalized = new TreeSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(normalized::add);
+        }
+        if (normalized.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not be empty");
+        }
+        if (normalized.size() > MAX_BULK_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BULK_IDS + " ids per request");
+        }
+        return normalized;
+    }
+
+    private Category resolveCategory(Category category) {
+        if (category == null || category.getId() == null) {
+            return null;
+        }
+        return categoryRepo.findById(category.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Category not found"));
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.dto.RankedNewsDto;
+import com.example.newsapp.entity.NewsStats;
+import com.example.newsapp.event.FavoriteToggledEvent;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.repository.NewsStatsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Счётчики просмотров и избранного и рейтинг «в тренде».
+ * <p>
+ * Инкременты копятся в полосатых счётчиках {@link LongAdder} и периодически
+ * сбрасываются в {@code news_stats} одним пакетным upsert. Рейтинги
+ * пересчитываются при сбросе и отдаются из памяти без агрегирующих запросов.
+ * <p>
+ * Тренд считается по схеме forward decay: вес события растёт как
+ * exp((t - landmark) / tau), поэтому старые очки не нужно пересчитывать
+ * при каждом событии — достаточно изредка сдвигать landmark.
+ * <p>
+ * {@code news_stats} дополняется только дельтами: экземпляры сбрасывают каждый свои.
+ * Избранное, появившееся до таблицы, переносится один раз, пока она пуста;
+ * повторный пересчёт при каждом старте затёр бы ещё не сброшенные дельты
+ * других экземпляров, и они бы учлись дважды.
+ */
+@Service
+@Slf4j
+public class NewsStatsService {
+
+    private static final String UPSERT_SQL = """
+            insert into news_stats (news_portal_id, view_count, favorite_count) values (?, ?, ?)
+            on conflict (news_portal_id) do update
+            set view_count = news_stats.view_count + excluded.view_count,
+                favorite_count = greatest(news_stats.favorite_count + excluded.favorite_count, 0)
+            """;
+
+    // Выполняется, только пока таблица пуста; одновременный старт нескольких экземпляров безопасен
+    private static final String BACKFILL_FAVORITES_SQL = """
+            insert into news_stats (news_portal_id, view_count, favorite_count)
+            select f.news_portal_id, 0, count(*) from favorites f
+            where f.news_portal_id is not null
+              and not exists (select 1 from news_stats)
+            group by f.news_portal_id
+            on conflict (news_portal_id) do nothing
+            """;
+
+    private static final double VIEW_WEIGHT = 1.0;
+    private static final double FAVORITE_WEIGHT = 5.0;
+    private static final int RANKING_SIZE = 100;
+    // Сдвигаем landmark задолго до переполнения exp()
+    private static final double MAX_EXPONENT = 40.0;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NewsStatsRepository statsRepo;
+    private final NewsFeedSnapshot feedSnapshot;
+    // Слушатели после коммита работают вне транзакции изменения — удалению нужна своя
+    private final TransactionTemplate cleanupTx;
+    private final double tauSeconds;
+    private final Clock clock;
+
+    // Дельты, ещё не записанные в БД
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> pendingFavorites = new ConcurrentHashMap<>();
+
+    // Текущие итоги и очки тренда в памяти
+    private final Map<Long, LongAdder> favoriteTotals = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> viewTotals = new ConcurrentHashMap<>();
+    private volatile Map<Long, DoubleAdder> trendScores = new ConcurrentHashMap<>();
+    private volatile long landmarkSeconds;
+
+    private volatile List<RankedId> trending = List.of();
+    private volatile List<RankedId> mostFavorited = List.of();
+
+    @Autowired
+    public NewsStatsService(JdbcTemplate jdbcTemplate,
+                            NewsStatsRepository statsRepo,
+                            NewsFeedSnapshot feedSnapshot,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.stats.trending-half-life-minutes:360}") long halfLifeMinutes) {
+        this(jdbcTemplate, statsRepo, feedSnapshot, transactionManager, halfLifeMinutes, Clock.systemUTC());
+    }
+
+    NewsStatsService(JdbcTemplate jdbcTemplate,
+                     NewsStatsRepository statsRepo,
+                     NewsFeedSnapshot feedSnapshot,
+                     PlatformTransactionManager transactionManager,
+                     long halfLifeMinutes,
+                     Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statsRepo = statsRepo;
+        this.feedSnapshot = feedSnapshot;
+        this.cleanupTx = new TransactionTemplate(transactionManager);
+        this.cleanupTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tauSeconds = Math.max(halfLifeMinutes, 1) * 60.0 / Math.log(2);
+        this.clock = clock;
+        this.landmarkSeconds = nowSeconds();
+    }
+
+    public void recordView(Long newsId) {
+        increment(pendingViews, newsId, 1);
+        increment(viewTotals, newsId, 1);
+        addTrendScore(newsId, VIEW_WEIGHT);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteToggled(FavoriteToggledEvent event) {
+        Long newsId = event.getNewsPortalId();
+        int delta = event.isAdded() ? 1 : -1;
+        increment(pendingFavorites, newsId, delta);
+        increment(favoriteTotals, newsId, delta);
+        if (event.isAdded()) {
+            addTrendScore(newsId, FAVORITE_WEIGHT);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsChanged(NewsChangedEvent event) {
+        if (event.getType() != NewsChangedEvent.Type.DELETED) {
+            return;
+        }
+        Long newsId = event.getNewsId();
+        pendingViews.remove(newsId);
+        pendingFavorites.remove(newsId);
+        favoriteTotals.remove(newsId);
+        viewTotals.remove(newsId);
+        trendScores.remove(newsId);
+        // Строку уже удалил NewsPortalService; повтор на случай сброса счётчиков между удалением и коммитом
+        if (!event.isRemote()) {
+            cleanupTx.executeWithoutResult(status -> statsRepo.deleteAllByIdInBatch(List.of(newsId)));
+        }
+    }
+
+    public List<RankedNewsDto> trending(int limit) {
+        return resolve(trending, limit, true);
+    }
+
+    public List<RankedNewsDto> mostFavorited(int limit) {
+        return resolve(mostFavorited, limit, false);
+    }
+
+    public long favoriteCount(Long newsId) {
+        LongAdder total = favoriteTotals.get(newsId);
+        return total == null ? 0 : total.sum();
+    }
+
+    public long viewCount(Long newsId) {
+        LongAdder total = viewTotals.get(newsId);
+        return total == null ? 0 : total.sum();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int backfilled = jdbcTemplate.update(BACKFILL_FAVORITES_SQL);
+        if (backfilled > 0) {
+            log.info("News stats backfilled favorite counts for {} news", backfilled);
+        }
+
+        for (NewsStats stats : statsRepo.findAll()) {
+            increment(favoriteTotals, stats.getNewsPortalId(), stats.getFavoriteCount());
+            increment(viewTotals, stats.getNewsPortalId(), stats.getViewCount());
+        }
+        recomputeRankings();
+        log.info("News stats loaded for {} news", favoriteTotals.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval-ms:5000}")
+    public void flush() {
+        Set<Long> ids = new HashSet<>(pendingViews.keySet());
+        ids.addAll(pendingFavorites.keySet());
+
+        List<Object[]> batch = new ArrayList<>();
+        for (Long id : ids) {
+            long views = drain(pendingViews, id);
+            long favorites = drain(pendingFavorites, id);
+            if (views != 0 || favorites != 0) {
+                batch.add(new Object[]{id, views, favorites});
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+            } catch (RuntimeException e) {
+                // Возвращаем дельты, чтобы не потерять их до следующей попытки
+                for (Object[] row : batch) {
+                    increment(pendingViews, (Long) row[0], (Long) row[1]);
+                    increment(pendingFavorites, (Long) row[0], (Long) row[2]);
+                }
+                log.warn("Failed to flush news stats ({} rows): {}", batch.size(), e.getMessage());
+            }
+        }
+
+        rescaleIfNeeded();
+        recomputeRankings();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void addTrendScore(Long newsId, double weight) {
+        double exponent = (nowSeconds() - landmarkSeconds) / tauSeconds;
+        trendScores.computeIfAbsent(newsId, k -> new DoubleAdder()).add(weight * Math.exp(exponent));
+    }
+
+    // Переносит landmark на «сейчас», умножая все очки на exp(-shift / tau).
+    // Инкременты, попавшие в старую карту во время переноса, теряются — для рейтинга это допустимо.
+    private void rescaleIfNeeded() {
+        long now = nowSeconds();
+        double exponent = (now - landmarkSeconds) / tauSeconds;
+        if (exponent < MAX_EXPONENT) {
+            return;
+        }
+
+        double factor = Math.exp(-exponent);
+        Map<Long, DoubleAdder> rescaled = new ConcurrentHashMap<>();
+        trendScores.forEach((id, score) -> {
+            double value = score.sum() * factor;
+            if (value > 1e-9) {
+                DoubleAdder adder = new DoubleAdder();
+                adder.add(value);
+                rescaled.put(id, adder);
+            }
+        });
+        landmarkSeconds = now;
+        trendScores = rescaled;
+    }
+
+    private void recomputeRankings() {
+        trending = topN(trendScores, DoubleAdder::sum);
+        mostFavorited = topN(favoriteTotals, adder -> adder.sum());
+    }
+
+    private <T> List<RankedId> topN(Map<Long, T> source, ToDoubleFunction<T> value) {
+        PriorityQueue<RankedId> heap = new PriorityQueue<>(Comparator.comparingDouble(RankedId::score));
+        source.forEach((id, counter) -> {
+            double score = value.applyAsDouble(counter);
+            if (score <= 0) {
+                return;
+            }
+            if (heap.size() < RANKING_SIZE) {
+                heap.add(new RankedId(id, score));
+            } else if (heap.peek().score() < score) {
+                heap.poll();
+                heap.add(new RankedId(id, score));
+            }
+        });
+
+        List<RankedId> result = new ArrayList<>(heap);
+        result.sort(Comparator.comparingDouble(RankedId::score).reversed());
+        return List.copyOf(result);
+    }
+
+    private List<RankedNewsDto> resolve(List<RankedId> ranking, int limit, boolean decayed) {
+        // Очки тренда приводим к текущему моменту, чтобы они были сопоставимы между запросами
+        double scale = Math.exp(-(nowSeconds() - landmarkSeconds) / tauSeconds);
+
+        List<RankedNewsDto> result = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (RankedId ranked : ranking) {
+            if (result.size() >= limit) {
+                break;
+            }
+            Optional<NewsPortalDto> news = feedSnapshot.findById(ranked.id());
+            news.ifPresent(dto -> result.add(new RankedNewsDto(dto, decayed ? ranked.score() * scale : ranked.score())));
+        }
+        return result;
+    }
+
+    private static void increment(Map<Long, LongAdder> counters, Long id, long delta) {
+        counters.computeIfAbsent(id, k -> new LongAdder()).add(delta);
+    }
+
+    private static long drain(Map<Long, LongAdder> counters, Long id) {
+        LongAdder adder = counters.get(id);
+        return adder == null ? 0 : adder.sumThenReset();
+    }
+
+    private long nowSeconds() {
+        return clock.millis() / 1000;
+    }
+
+    private record RankedId(Long id, double score) {
+    }
+}
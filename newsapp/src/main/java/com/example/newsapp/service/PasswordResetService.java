@@ -2,6 +2,7 @@ package com.example.newsapp.service;
 
 import com.example.newsapp.entity.PasswordResetToken;
 import com.example.newsapp.entity.User;
+import com.example.newsapp.event.PasswordResetEvent;
 import com.example.newsapp.repository.PasswordResetTokenRepository;
 import com.example.newsapp.repository.UserRepository;
 import jakarta.transaction.Transactional;
@@ -9,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -37,6 +39,8 @@ public class PasswordResetService {
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final ObjectProvider<JavaMailSender> mailSenderProvider;
+    private final TokenVersionCache tokenVersions;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.password-reset.token-expiration-minutes:30}")
     private long tokenExpirationMinutes;
@@ -60,7 +64,9 @@ public class PasswordResetService {
         }
 
         String email = emailRaw.trim().toLowerCase(Locale.ROOT);
-        var userOptional = userRepository.findByEmailIgnoreCase(email);
+        // Одновременные запросы одного пользователя идут по очереди: иначе оба погасят
+        // старые токены до вставки и останутся два действующих
+        var userOptional = userRepository.findByEmailForUpdate(email);
         if (userOptional.isEmpty()) {
             log.info("Password reset requested for unknown email: {}", email);
             return;
@@ -79,6 +85,7 @@ public class PasswordResetService {
         token.setRequestIp(trimToLength(requestIp, 64));
         token.setUserAgent(trimToLength(userAgent, 255));
         passwordResetTokenRepository.save(token);
+        eventPublisher.publishEvent(new PasswordResetEvent(user.getId(), PasswordResetEvent.Type.REQUESTED));
 
         String resetUrl = buildResetUrl(rawToken);
         sendResetEmail(user.getEmail(), user.getDisplayName(), resetUrl);
@@ -104,6 +111,10 @@ public class PasswordResetService {
         storedToken.setUsedAt(now);
         passwordResetTokenRepository.save(storedToken);
         passwordResetTokenRepository.invalidateAllActiveForUser(user.getId(), now);
+        eventPublisher.publishEvent(new PasswordResetEvent(user.getId(), PasswordResetEvent.Type.COMPLETED));
+
+        // JWT, выданные со старым паролем, больше не принимаются
+        tokenVersions.revoke(user.getId());
     }
 
     private String normalizeToken(String rawToken) {
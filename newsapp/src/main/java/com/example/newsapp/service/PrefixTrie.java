@@ -0,0 +1,198 @@
+package com.example.newsapp.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Неизменяемое префиксное дерево для подсказок.
+ * <p>
+ * Значения нумеруются по убыванию популярности, поэтому лучшие k значений
+ * поддерева — это k наименьших номеров. Каждый узел хранит заранее
+ * посчитанный top-k, и запрос сводится к спуску по префиксу.
+ * Дети узла лежат в отсортированном массиве символов (бинарный поиск).
+ */
+public final class PrefixTrie<T> {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Node root;
+    private final List<T> values;
+    private final int topK;
+
+    private PrefixTrie(Node root, List<T> values, int topK) {
+        this.root = root;
+        this.values = values;
+        this.topK = topK;
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String[] tokens = TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT).trim());
+        StringBuilder builder = new StringBuilder(text.length());
+        for (String token : tokens) {
+            if (token.isEmpty()) continue;
+            if (builder.length() > 0) builder.append(' ');
+            builder.append(token);
+        }
+        return builder.toString();
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public List<T> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+
+        int count = Math.min(limit, Math.min(topK, node.top.length));
+        List<T> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(values.get(node.top[i]));
+        }
+        return result;
+    }
+
+    public static <T> Builder<T> builder(int topK) {
+        return new Builder<>(topK);
+    }
+
+    private static final class Node {
+        private final char[] labels;
+        private final Node[] children;
+        private final int[] top;
+
+        private Node(char[] labels, Node[] children, int[] top) {
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index < 0 ? null : children[index];
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final int topK;
+        private final List<Entry<T>> entries = new ArrayList<>();
+
+        private Builder(int topK) {
+            this.topK = topK;
+        }
+
+        /**
+         * Добавляет значение, доступное по префиксу полного текста
+         * и по префиксу каждого его слова.
+         */
+        public Builder<T> add(String text, T value, double score) {
+            String normalized = normalize(text);
+            if (!normalized.isEmpty()) {
+                entries.add(new Entry<>(normalized, value, score));
+            }
+            return this;
+        }
+
+        public PrefixTrie<T> build() {
+            entries.sort((a, b) -> Double.compare(b.score, a.score));
+
+            List<T> values = new ArrayList<>(entries.size());
+            MutableNode root = new MutableNode();
+            for (int index = 0; index < entries.size(); index++) {
+                Entry<T> entry = entries.get(index);
+                values.add(entry.value);
+                insert(root, entry.text, index);
+                for (String token : entry.text.split(" ")) {
+                    if (token.length() != entry.text.length()) {
+                        insert(root, token, index);
+                    }
+                }
+            }
+            return new PrefixTrie<>(freeze(root), List.copyOf(values), topK);
+        }
+
+        private void insert(MutableNode root, String key, int index) {
+            MutableNode node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new MutableNode());
+            }
+            node.terminals.add(index);
+        }
+
+        private Node freeze(MutableNode node) {
+            int size = node.children.size();
+            char[] labels = new char[size];
+            Node[] children = new Node[size];
+
+            // Слияние отсортированных top-k детей и собственных значений узла
+            List<int[]> sources = new ArrayList<>(size + 1);
+            int i = 0;
+            for (Map.Entry<Character, MutableNode> child : node.children.entrySet()) {
+                labels[i] = child.getKey();
+                children[i] = freeze(child.getValue());
+                sources.add(children[i].top);
+                i++;
+            }
+            sources.add(node.terminals.stream().mapToInt(Integer::intValue).sorted().toArray());
+
+            return new Node(labels, children, mergeTop(sources));
+        }
+
+        private int[] mergeTop(List<int[]> sources) {
+            int[] result = new int[topK];
+            int[] positions = new int[sources.size()];
+            int count = 0;
+            int last = -1;
+
+            while (count < topK) {
+                int best = -1;
+                int bestValue = Integer.MAX_VALUE;
+                for (int s = 0; s < sources.size(); s++) {
+                    int[] source = sources.get(s);
+                    while (positions[s] < source.length && source[positions[s]] <= last) {
+                        positions[s]++;
+                    }
+                    if (positions[s] < source.length && source[positions[s]] < bestValue) {
+                        bestValue = source[positions[s]];
+                        best = s;
+                    }
+                }
+                if (best < 0) {
+                    break;
+                }
+                result[count++] = bestValue;
+                last = bestValue;
+                positions[best]++;
+            }
+            return Arrays.copyOf(result, count);
+        }
+    }
+
+    private static final class MutableNode {
+        // TreeMap даёт детей в порядке символов, как требует бинарный поиск
+        private final Map<Character, MutableNode> children = new TreeMap<>();
+        private final List<Integer> terminals = new ArrayList<>(1);
+    }
+
+    private record Entry<T>(String text, T value, double score) {
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.newsapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Объединяет одинаковые одновременные GET-запросы чтения (single-flight).
+ * <p>
+ * Первый запрос с данным ключом выполняется как обычно, его ответ
+ * запоминается; запросы, пришедшие, пока он выполняется, ждут и получают
+ * те же байты без своего запроса к БД и сериализации. После завершения
+ * ответ не хранится — это не кэш.
+ * <p>
+ * Фильтр стоит после Spring Security, поэтому неаутентифицированные запросы
+ * до него не доходят. Объединяются только пути из {@code app.coalescing.paths}:
+ * их ответ не зависит от пользователя. Если первый запрос завершился ошибкой
+ * или не уложился в таймаут, ожидающие выполняются самостоятельно.
+ */
+@Component
+@Slf4j
+public class RequestCoalescingFilter extends OncePerRequestFilter {
+
+    // Поиск нечувствителен к регистру и пробелам по краям (см. NewsPortalRepository.search)
+    private static final String SEARCH_PARAM = "q";
+    // Content-Type передаётся отдельно: Tomcat не отдаёт его через getHeaders()
+    private static final List<String> SHARED_HEADERS = List.of(HttpHeaders.VARY);
+
+    private final boolean enabled;
+    private final List<String> paths;
+    private final long timeoutMs;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter collapsed;
+    private final Counter timeouts;
+    private final Counter fallbacks;
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry,
+                                   @Value("${app.coalescing.enabled:true}") boolean enabled,
+                                   @Value("${app.coalescing.paths:}") List<String> paths,
+                                   @Value("${app.coalescing.timeout-ms:3000}") long timeoutMs) {
+        this.enabled = enabled;
+        this.paths = List.copyOf(paths);
+        this.timeoutMs = timeoutMs;
+        this.leaders = counter(meterRegistry, "leader");
+        this.collapsed = counter(meterRegistry, "collapsed");
+        this.timeouts = counter(meterRegistry, "timeout");
+        this.fallbacks = counter(meterRegistry, "fallback");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : paths) {
+            if (pathMatcher.match(pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = key(request);
+        CompletableFuture<SharedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> existing = inFlight.putIfAbsent(key, flight);
+
+        if (existing == null) {
+            lead(key, flight, request, response, filterChain);
+        } else {
+            follow(existing, request, response, filterChain);
+        }
+    }
+
+    private void lead(String key,
+                      CompletableFuture<SharedResponse> flight,
+                      HttpServletRequest request,
+                      HttpServletResponse response,
+                      FilterChain filterChain) throws ServletException, IOException {
+        leaders.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        SharedResponse shared = null;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && !wrapper.isCommitted()) {
+                shared = SharedResponse.capture(wrapper);
+            }
+        } finally {
+            // Сначала убираем из карты: пришедшие позже запустят свежий запрос, а не получат этот ответ
+            inFlight.remove(key, flight);
+            flight.complete(shared);
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private void follow(CompletableFuture<SharedResponse> flight,
+                        HttpServletRequest request,
+                        HttpServletResponse response,
+                        FilterChain filterChain) throws ServletException, IOException {
+        SharedResponse shared;
+        try {
+            shared = flight.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            log.debug("Coalesced request timed out after {} ms: {}", timeoutMs, request.getRequestURI());
+            shared = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while waiting for a coalesced request", e);
+        } catch (ExecutionException e) {
+            shared = null;
+        }
+
+        if (shared == null) {
+            fallbacks.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        collapsed.increment();
+        shared.writeTo(response);
+    }
+
+    /**
+     * Путь, параметры по имени (значения без пробелов по краям, {@code q} в нижнем
+     * регистре) и заголовки, от которых зависят формат и CORS-заголовки ответа.
+     */
+    static String key(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        Map<String, String[]> params = new TreeMap<>(request.getParameterMap());
+        char separator = '?';
+        for (Map.Entry<String, String[]> param : params.entrySet()) {
+            for (String value : param.getValue()) {
+                String normalized = value.trim();
+                if (SEARCH_PARAM.equals(param.getKey())) {
+                    normalized = normalized.toLowerCase(Locale.ROOT);
+                }
+                key.append(separator).append(encode(param.getKey())).append('=').append(encode(normalized));
+                separator = '&';
+            }
+        }
+        key.append('|').append(encode(request.getHeader(HttpHeaders.ACCEPT)));
+        key.append('|').append(encode(request.getHeader(HttpHeaders.ORIGIN)));
+        return key.toString();
+    }
+
+    // Экранирование, чтобы разные запросы не склеились в один ключ через '&', '=' или '|'
+    private static String encode(String value) {
+        return value == null ? "" : URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("http.server.requests.coalesced")
+                .description("Coalesced GET requests: leader ran the query, collapsed reused its response, "
+                        + "fallback ran on its own (timeout is counted in fallback too)")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private record SharedResponse(String contentType, List<String[]> headers, byte[] body) {
+
+        static SharedResponse capture(ContentCachingResponseWrapper response) {
+            List<String[]> headers = new ArrayList<>();
+            for (String name : SHARED_HEADERS) {
+                Collection<String> values = response.getHeaders(name);
+                for (String value : values) {
+                    headers.add(new String[]{name, value});
+                }
+            }
+            return new SharedResponse(response.getContentType(), headers, response.getContentAsByteArray());
+        }
+
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(HttpServletResponse.SC_OK);
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            for (String[] header : headers) {
+                response.addHeader(header[0], header[1]);
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.dto.SuggestionDto;
+import com.example.newsapp.entity.Category;
+import com.example.newsapp.event.CacheResyncEvent;
+import com.example.newsapp.event.CategoryChangedEvent;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.repository.CategoryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Подсказки для строки поиска по названиям новостей и категорий.
+ * <p>
+ * Запрос обслуживается из неизменяемого {@link PrefixTrie} без обращения к БД.
+ * Дерево перестраивается целиком в фоне: после изменений новостей и
+ * категорий (несколько изменений подряд схлопываются в одну перестройку)
+ * и периодически, чтобы учесть новую популярность.
+ */
+@Service
+@Slf4j
+public class SuggestService {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final NewsFeedSnapshot feedSnapshot;
+    private final CategoryRepository categoryRepo;
+    private final NewsStatsService statsService;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "suggest-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile PrefixTrie<SuggestionDto> trie = PrefixTrie.<SuggestionDto>builder(MAX_SUGGESTIONS).build();
+
+    public SuggestService(NewsFeedSnapshot feedSnapshot,
+                          CategoryRepository categoryRepo,
+                          NewsStatsService statsService) {
+        this.feedSnapshot = feedSnapshot;
+        this.categoryRepo = categoryRepo;
+        this.statsService = statsService;
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return trie.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CacheResyncEvent.class})
+    public void onReady() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsChanged(NewsChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.suggest.rebuild-interval-ms:300000}",
+            initialDelayString = "${app.suggest.rebuild-interval-ms:300000}")
+    public void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildScheduled.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("Suggest index rebuild failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        PrefixTrie.Builder<SuggestionDto> builder = PrefixTrie.builder(MAX_SUGGESTIONS);
+
+        // Популярность: избранное весит больше просмотров; категория — сумма своих новостей
+        Map<Long, Double> categoryScores = new HashMap<>();
+        for (NewsPortalDto news : feedSnapshot.all()) {
+            double score = 1 + statsService.viewCount(news.getId()) + 5.0 * statsService.favoriteCount(news.getId());
+            builder.add(news.getTitle(), new SuggestionDto(SuggestionDto.Type.NEWS, news.getId(), news.getTitle()), score);
+            if (news.getCategoryId() != null) {
+                categoryScores.merge(news.getCategoryId(), score, Double::sum);
+            }
+        }
+        for (Category category : categoryRepo.findAll()) {
+            double score = 1 + categoryScores.getOrDefault(category.getId(), 0.0);
+            builder.add(category.getName(),
+                    new SuggestionDto(SuggestionDto.Type.CATEGORY, category.getId(), category.getName()), score);
+        }
+
+        PrefixTrie<SuggestionDto> next = builder.build();
+        trie = next;
+        log.debug("Suggest index rebuilt: {} entries in {} ms", next.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
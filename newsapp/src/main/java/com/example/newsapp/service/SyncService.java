@@ -0,0 +1,158 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.dto.SyncResponse;
+import com.example.newsapp.entity.SyncChange;
+import com.example.newsapp.entity.SyncState;
+import com.example.newsapp.event.CategoryChangedEvent;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.repository.CategoryRepository;
+import com.example.newsapp.repository.NewsPortalRepository;
+import com.example.newsapp.repository.SyncChangeRepository;
+import com.example.newsapp.repository.SyncStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Журнал изменений новостей и категорий для {@code GET /api/sync}.
+ * <p>
+ * Изменение записывается в исходной транзакции перед коммитом, поэтому
+ * попадает в журнал тогда и только тогда, когда закоммичены сами данные.
+ * Запись идёт под транзакционной advisory-блокировкой, общей для всех
+ * экземпляров: версия (id) выдаётся и коммитится строго по очереди, так что
+ * клиент, прочитавший версию N, не пропустит закоммиченную позже версию меньше N.
+ */
+@Service
+@Slf4j
+public class SyncService {
+
+    // Ключ pg_advisory_xact_lock для записи в журнал ("sync")
+    private static final long LOG_LOCK_KEY = 0x73796e63L;
+
+    private final SyncChangeRepository changeRepo;
+    private final SyncStateRepository stateRepo;
+    private final NewsPortalRepository newsRepo;
+    private final CategoryRepository categoryRepo;
+    private final JdbcTemplate jdbcTemplate;
+    // Присоединяется к исходной транзакции; без неё (fallbackExecution) открывает свою
+    private final TransactionTemplate recordTx;
+
+    @Value("${app.sync.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+
+    public SyncService(SyncChangeRepository changeRepo,
+                       SyncStateRepository stateRepo,
+                       NewsPortalRepository newsRepo,
+                       CategoryRepository categoryRepo,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager) {
+        this.changeRepo = changeRepo;
+        this.stateRepo = stateRepo;
+        this.newsRepo = newsRepo;
+        this.categoryRepo = categoryRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.recordTx = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(readOnly = true)
+    public SyncResponse changesSince(long since) {
+        long purgedThrough = stateRepo.findById(SyncState.SINGLETON_ID)
+                .map(SyncState::getPurgedThroughVersion)
+                .orElse(0L);
+
+        SyncResponse response = new SyncResponse();
+        if (since <= 0 || since < purgedThrough) {
+            // Версию читаем до данных: всё, что попадёт в выборку позже, клиент получит повторно
+            response.setVersion(changeRepo.findCurrentVersion());
+            response.setFullResync(true);
+            response.setNews(newsRepo.findAllViews());
+            response.setCategories(categoryRepo.findAll());
+            return response;
+        }
+
+        List<SyncChange> changes = changeRepo.findByIdGreaterThanOrderByIdAsc(since);
+        Set<Long> newsIds = new LinkedHashSet<>();
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        long version = since;
+
+        for (SyncChange change : changes) {
+            version = change.getId();
+            boolean news = change.getEntityType() == SyncChange.EntityType.NEWS;
+            if (change.isDeleted()) {
+                (news ? response.getDeletedNewsIds() : response.getDeletedCategoryIds()).add(change.getEntityId());
+            } else {
+                (news ? newsIds : categoryIds).add(change.getEntityId());
+            }
+        }
+
+        response.setVersion(version);
+        if (!newsIds.isEmpty()) {
+            response.setNews(newsRepo.findViewsByIdIn(newsIds));
+        }
+        if (!categoryIds.isEmpty()) {
+            response.setCategories(categoryRepo.findAllById(categoryIds));
+        }
+        return response;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onNewsChanged(NewsChangedEvent event) {
+        // Журнал общий в БД: изменение другого экземпляра он уже записал
+        if (event.isRemote()) {
+            return;
+        }
+        record(SyncChange.EntityType.NEWS, event.getNewsId(), event.getType() == NewsChangedEvent.Type.DELETED);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        record(SyncChange.EntityType.CATEGORY, event.getCategoryId(),
+                event.getType() == CategoryChangedEvent.Type.DELETED);
+    }
+
+    // Tombstone-записи старше срока хранения удаляются; клиенты с более старой версией получат fullResync
+    @Scheduled(fixedDelayString = "${app.sync.compaction-interval-ms:3600000}",
+            initialDelayString = "${app.sync.compaction-interval-ms:3600000}")
+    public void compactTombstones() {
+        LocalDateTime before = LocalDateTime.now().minusDays(Math.max(tombstoneRetentionDays, 1));
+        Integer removed = recordTx.execute(status -> {
+            long through = changeRepo.findLastTombstoneVersionBefore(before);
+            if (through == 0) {
+                return 0;
+            }
+
+            SyncState state = stateRepo.findById(SyncState.SINGLETON_ID).orElseGet(SyncState::new);
+            state.setPurgedThroughVersion(Math.max(state.getPurgedThroughVersion(), through));
+            stateRepo.save(state);
+            return changeRepo.deleteTombstonesThrough(through);
+        });
+
+        if (removed != null && removed > 0) {
+            log.info("Sync log compaction removed {} tombstones", removed);
+        }
+    }
+
+    private void record(SyncChange.EntityType type, Long entityId, boolean deleted) {
+        recordTx.executeWithoutResult(status -> {
+            // Держится до коммита; повторный захват в той же транзакции не ждёт
+            jdbcTemplate.query("select pg_advisory_xact_lock(?)", rs -> null, LOG_LOCK_KEY);
+            changeRepo.deleteByEntity(type, entityId);
+            changeRepo.save(new SyncChange(type, entityId, deleted, LocalDateTime.now()));
+        });
+    }
+}
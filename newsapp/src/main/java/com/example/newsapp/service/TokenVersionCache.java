@@ -0,0 +1,104 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.event.CacheResyncEvent;
+import com.example.newsapp.event.TokenRevokedEvent;
+import com.example.newsapp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Текущие версии токенов пользователей для проверки JWT без обращения к БД.
+ * <p>
+ * Версия загружается при первом запросе пользователя и дальше берётся из
+ * карты. Версии только растут, поэтому запись идёт через {@code max}:
+ * запоздавшая загрузка старого значения не откатит отзыв. Размер карты
+ * ограничен; вытесненные записи просто загрузятся заново.
+ */
+@Service
+public class TokenVersionCache {
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxSize;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    public TokenVersionCache(UserRepository userRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${app.auth.token-version-cache-size:100000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxSize = Math.max(maxSize, 1);
+    }
+
+    /**
+     * @return false, если токен отозван или пользователь удалён
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        if (userId == null) {
+            return false;
+        }
+        Integer current = versions.get(userId);
+        if (current == null) {
+            current = userRepository.findTokenVersionById(userId).orElse(null);
+            if (current == null) {
+                return false;
+            }
+            current = remember(userId, current);
+        }
+        if (tokenVersion > current) {
+            // Токен выдан после отзыва, который этот экземпляр ещё не видел
+            remember(userId, tokenVersion);
+            return true;
+        }
+        return tokenVersion == current;
+    }
+
+    /**
+     * Отзывает все выданные пользователю токены. Выполняется в транзакции
+     * вызывающего кода; карта обновляется после коммита.
+     */
+    @Transactional
+    public void revoke(Long userId) {
+        if (userRepository.incrementTokenVersion(userId) == 0) {
+            return;
+        }
+        int version = userRepository.findTokenVersionById(userId).orElseThrow();
+        eventPublisher.publishEvent(new TokenRevokedEvent(userId, version, false));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        remember(event.getUserId(), event.getTokenVersion());
+    }
+
+    // Отзывы других экземпляров могли быть пропущены — версии загрузятся заново
+    @EventListener(CacheResyncEvent.class)
+    public void onResync() {
+        versions.clear();
+    }
+
+    private int remember(Long userId, int version) {
+        if (versions.size() >= maxSize && !versions.containsKey(userId)) {
+            evictOne();
+        }
+        return versions.merge(userId, version, Math::max);
+    }
+
+    // Вытесняется произвольная запись: порядок доступа не отслеживается, чтобы чтение оставалось одним get
+    private void evictOne() {
+        Iterator<Long> iterator = versions.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -2,11 +2,15 @@ package com.example.newsapp.service;
 
 import com.example.newsapp.entity.User;
 import com.example.newsapp.repository.UserRepository;
+import com.example.newsapp.service.profiling.UserLookupEvent;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
+import java.util.Optional;
+
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
@@ -16,9 +20,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         this.userRepository = userRepository;
     }
 
+    // Email хранится в нижнем регистре, поэтому поиск точный и идёт по уникальному индексу
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmailIgnoreCase(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        if (email == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+        UserLookupEvent event = new UserLookupEvent();
+        event.begin();
+        Optional<User> user = userRepository.findByEmail(email.trim().toLowerCase(Locale.ROOT));
+        event.setFound(user.isPresent());
+        event.commit();
+        return user.orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 }
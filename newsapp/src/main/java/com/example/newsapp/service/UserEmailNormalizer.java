@@ -0,0 +1,43 @@
+package com.example.newsapp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Приводит email, сохранённые до нормализации, к нижнему регистру, чтобы
+ * вход и сброс пароля работали через точный поиск по уникальному индексу.
+ * Если нормализованный адрес уже занят другой учётной записью, строка
+ * остаётся как есть — такие дубликаты нужно разобрать вручную.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserEmailNormalizer implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "select id, email from users where email is not null and email <> lower(trim(email))");
+        int normalized = 0;
+        for (Map<String, Object> row : rows) {
+            try {
+                normalized += jdbcTemplate.update("update users set email = lower(trim(email)) where id = ?", row.get("id"));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Cannot normalize email of user {}: {} is already taken", row.get("id"), row.get("email"));
+            }
+        }
+        if (!rows.isEmpty()) {
+            log.info("Normalized {} of {} user emails", normalized, rows.size());
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.example.newsapp.service.analytics;
+
+import com.example.newsapp.dto.AdminStatsDto;
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.entity.AnalyticsTotal;
+import com.example.newsapp.event.FavoriteToggledEvent;
+import com.example.newsapp.event.PasswordResetEvent;
+import com.example.newsapp.event.UserRegisteredEvent;
+import com.example.newsapp.repository.AnalyticsCategoryDailyRepository;
+import com.example.newsapp.repository.AnalyticsDailyRepository;
+import com.example.newsapp.repository.AnalyticsTotalRepository;
+import com.example.newsapp.service.NewsFeedSnapshot;
+import com.example.newsapp.service.NewsStatsService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сводки для админской аналитики без агрегирующих запросов по рабочим таблицам.
+ * <p>
+ * Регистрации, переключения избранного и сбросы пароля приходят событиями после
+ * коммита и копятся в памяти; раз в {@code app.analytics.flush-interval-ms}
+ * дельты одним пакетным upsert на таблицу прибавляются к {@code analytics_daily},
+ * {@code analytics_category_daily} и {@code analytics_totals} в одной транзакции.
+ * Экземпляры пишут только свои дельты, поэтому сводки складываются и при
+ * нескольких экземплярах.
+ * {@code /api/admin/stats} читает только сводки (и рейтинг из {@link NewsStatsService}),
+ * поэтому отстаёт от событий не больше чем на интервал сброса.
+ * <p>
+ * {@link #rebuild()} пересчитывает сводки с нуля по исходным таблицам. История
+ * удалений из избранного при этом теряется, а строки, созданные до появления
+ * {@code created_at} (V5), учитываются только в итогах. Пересчёт увеличивает
+ * {@link AnalyticsTotal#REBUILD_EPOCH}; каждый экземпляр, заметив новый номер при
+ * сбросе, отбрасывает накопленные дельты, а не прибавляет к пересчитанным сводкам
+ * события, которые уже есть в исходных таблицах. Цена — события между пересчётом
+ * и этим сбросом (не больше интервала сброса) в сводки не попадают.
+ */
+@Service
+@Slf4j
+public class AnalyticsService {
+
+    public static final int MAX_DAYS = 366;
+
+    private static final String DAILY_UPSERT_SQL = """
+            insert into analytics_daily
+                (day, signups, favorites_added, favorites_removed, reset_requests, resets_completed)
+            values (?, ?, ?, ?, ?, ?)
+            on conflict (day) do update
+            set signups = analytics_daily.signups + excluded.signups,
+                favorites_added = analytics_daily.favorites_added + excluded.favorites_added,
+                favorites_removed = analytics_daily.favorites_removed + excluded.favorites_removed,
+                reset_requests = analytics_daily.reset_requests + excluded.reset_requests,
+                resets_completed = analytics_daily.resets_completed + excluded.resets_completed
+            """;
+
+    private static final String CATEGORY_UPSERT_SQL = """
+            insert into analytics_category_daily (day, category_id, favorites_added, favorites_removed)
+            values (?, ?, ?, ?)
+            on conflict (day, category_id) do update
+            set favorites_added = analytics_category_daily.favorites_added + excluded.favorites_added,
+                favorites_removed = analytics_category_daily.favorites_removed + excluded.favorites_removed
+            """;
+
+    private static final String TOTAL_UPSERT_SQL = """
+            insert into analytics_totals (metric, value) values (?, ?)
+            on conflict (metric) do update set value = analytics_totals.value + excluded.value
+            """;
+
+    // FOR SHARE ждёт идущий пересчёт: он держит сводки в exclusive-блокировке
+    private static final String EPOCH_SQL =
+            "select value from analytics_totals where metric = '" + AnalyticsTotal.REBUILD_EPOCH + "' for share";
+
+    private static final String EXISTS_SQL =
+            "select exists (select 1 from analytics_totals where metric = '" + AnalyticsTotal.USERS + "')";
+
+    // Блокировка до первого запроса: снимок REPEATABLE READ берётся после ожидания идущих сбросов,
+    // а одновременный пересчёт на другом экземпляре ждёт этот
+    private static final String REBUILD_LOCK_SQL =
+            "lock table analytics_daily, analytics_category_daily, analytics_totals in exclusive mode";
+
+    // Токен гасится либо новым запросом (used_at = created_at следующего токена, см.
+    // PasswordResetService), либо миграцией V4 (used_at = created_at), либо сменой пароля
+    private static final List<String> REBUILD_SQL = List.of(
+            "delete from analytics_daily",
+            "delete from analytics_category_daily",
+            "delete from analytics_totals where metric <> '" + AnalyticsTotal.REBUILD_EPOCH + "'",
+            """
+            insert into analytics_daily
+                (day, signups, favorites_added, favorites_removed, reset_requests, resets_completed)
+            select day, sum(signups), sum(favorites_added), 0, sum(reset_requests), sum(resets_completed)
+            from (
+                select cast(created_at as date) as day, count(*) as signups, 0 as favorites_added,
+                       0 as reset_requests, 0 as resets_completed
+                from users where created_at is not null group by 1
+                union all
+                select cast(created_at as date), 0, count(*), 0, 0
+                from favorites where created_at is not null group by 1
+                union all
+                select cast(created_at as date), 0, 0, count(*), 0
+                from password_reset_tokens group by 1
+                union all
+                select cast(t.used_at as date), 0, 0, 0, count(*)
+                from password_reset_tokens t
+                where t.used_at is not null and t.used_at <> t.created_at
+                  and not exists (select 1 from password_reset_tokens n
+                                  where n.user_id = t.user_id and n.id > t.id and n.created_at = t.used_at)
+                group by 1
+            ) e
+            group by day
+            """,
+            """
+            insert into analytics_category_daily (day, category_id, favorites_added, favorites_removed)
+            select cast(f.created_at as date), n.category_id, count(*), 0
+            from favorites f join news_portals n on n.id = f.news_portal_id
+            where f.created_at is not null and n.category_id is not null
+            group by 1, 2
+            """,
+            "insert into analytics_totals (metric, value) select '" + AnalyticsTotal.USERS + "', count(*) from users",
+            "insert into analytics_totals (metric, value) values ('" + AnalyticsTotal.REBUILD_EPOCH + "', 1)"
+                    + " on conflict (metric) do update set value = analytics_totals.value + 1"
+    );
+
+    private static final int MOST_SAVED_SIZE = 20;
+
+    enum Metric { SIGNUPS, FAVORITES_ADDED, FAVORITES_REMOVED, RESET_REQUESTS, RESETS_COMPLETED }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnalyticsDailyRepository dailyRepo;
+    private final AnalyticsCategoryDailyRepository categoryRepo;
+    private final AnalyticsTotalRepository totalRepo;
+    private final NewsFeedSnapshot feedSnapshot;
+    private final NewsStatsService statsService;
+    // Все запросы пересчёта видят один снимок данных
+    private final TransactionTemplate rebuildTx;
+    private final TransactionTemplate flushTx;
+
+    // Дельты, ещё не записанные в БД
+    private final Map<LocalDate, LongAdder[]> pendingDaily = new ConcurrentHashMap<>();
+    private final Map<CategoryDay, LongAdder[]> pendingCategories = new ConcurrentHashMap<>();
+    private final LongAdder pendingUsers = new LongAdder();
+    // REBUILD_EPOCH на момент прошлого сброса; -1 — ещё не читали
+    private long knownEpoch = -1;
+
+    public AnalyticsService(JdbcTemplate jdbcTemplate,
+                            AnalyticsDailyRepository dailyRepo,
+                            AnalyticsCategoryDailyRepository categoryRepo,
+                            AnalyticsTotalRepository totalRepo,
+                            NewsFeedSnapshot feedSnapshot,
+                            NewsStatsService statsService,
+                            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dailyRepo = dailyRepo;
+        this.categoryRepo = categoryRepo;
+        this.totalRepo = totalRepo;
+        this.feedSnapshot = feedSnapshot;
+        this.statsService = statsService;
+        this.rebuildTx = new TransactionTemplate(transactionManager);
+        this.rebuildTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.flushTx = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        add(today(), Metric.SIGNUPS);
+        pendingUsers.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteToggled(FavoriteToggledEvent event) {
+        LocalDate day = today();
+        add(day, event.isAdded() ? Metric.FAVORITES_ADDED : Metric.FAVORITES_REMOVED);
+        // Категория — на момент события, из снимка в памяти
+        feedSnapshot.findById(event.getNewsPortalId())
+                .map(NewsPortalDto::getCategoryId)
+                .ifPresent(categoryId -> adders(pendingCategories, new CategoryDay(day, categoryId), 2)
+                        [event.isAdded() ? 0 : 1].increment());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPasswordReset(PasswordResetEvent event) {
+        add(today(), event.getType() == PasswordResetEvent.Type.REQUESTED
+                ? Metric.RESET_REQUESTS
+                : Metric.RESETS_COMPLETED);
+    }
+
+    /**
+     * Сводки начиная с {@code days - 1} дней назад (1..{@link #MAX_DAYS}).
+     */
+    public AdminStatsDto stats(int days) {
+        LocalDate from = today().minusDays(Math.max(1, Math.min(days, MAX_DAYS)) - 1L);
+        long totalUsers = totalRepo.findById(AnalyticsTotal.USERS).map(AnalyticsTotal::getValue).orElse(0L);
+        return new AdminStatsDto(
+                from,
+                totalUsers,
+                dailyRepo.findByDayGreaterThanEqualOrderByDay(from),
+                categoryRepo.sumByCategorySince(from),
+                statsService.mostFavorited(MOST_SAVED_SIZE));
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        List<Object[]> daily = new ArrayList<>();
+        pendingDaily.forEach((day, adders) -> {
+            long[] values = drain(adders);
+            if (nonZero(values)) {
+                daily.add(new Object[]{Date.valueOf(day), values[0], values[1], values[2], values[3], values[4]});
+            }
+        });
+        List<Object[]> categories = new ArrayList<>();
+        pendingCategories.forEach((key, adders) -> {
+            long[] values = drain(adders);
+            if (nonZero(values)) {
+                categories.add(new Object[]{Date.valueOf(key.day()), key.categoryId(), values[0], values[1]});
+            }
+        });
+        long users = pendingUsers.sumThenReset();
+
+        try {
+            // Номер читаем и без дельт, иначе дельты, накопленные уже после пересчёта, были бы отброшены
+            Long epoch = flushTx.execute(status -> {
+                long current = currentEpoch();
+                if (knownEpoch < 0 || current == knownEpoch) {
+                    if (!daily.isEmpty()) {
+                        jdbcTemplate.batchUpdate(DAILY_UPSERT_SQL, daily);
+                    }
+                    if (!categories.isEmpty()) {
+                        jdbcTemplate.batchUpdate(CATEGORY_UPSERT_SQL, categories);
+                    }
+                    if (users != 0) {
+                        jdbcTemplate.update(TOTAL_UPSERT_SQL, AnalyticsTotal.USERS, users);
+                    }
+                }
+                return current;
+            });
+            if (knownEpoch >= 0 && epoch != knownEpoch) {
+                log.info("Analytics rollups were rebuilt (epoch {}), dropped pending deltas", epoch);
+            }
+            knownEpoch = epoch;
+        } catch (RuntimeException e) {
+            // Upsert'ы в одной транзакции: при ошибке не записано ничего, дельты возвращаются целиком
+            restore(daily, categories, users);
+            log.warn("Failed to flush analytics rollups: {}", e.getMessage());
+        }
+        pruneIdleDays();
+    }
+
+    /**
+     * Пересчитывает сводки с нуля по {@code users}, {@code favorites} и
+     * {@code password_reset_tokens}. Накопленные дельты всех экземпляров
+     * отбрасываются при их следующем сбросе: их события уже есть в исходных таблицах.
+     */
+    public synchronized void rebuild() {
+        rebuild(false);
+    }
+
+    private synchronized void rebuild(boolean onlyIfEmpty) {
+        long started = System.nanoTime();
+        Boolean rebuilt = rebuildTx.execute(status -> {
+            jdbcTemplate.execute(REBUILD_LOCK_SQL);
+            // Пока ждали блокировку, сводки мог заполнить другой экземпляр
+            if (onlyIfEmpty && Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class))) {
+                return false;
+            }
+            REBUILD_SQL.forEach(jdbcTemplate::update);
+            return true;
+        });
+        if (Boolean.TRUE.equals(rebuilt)) {
+            log.info("Analytics rollups rebuilt in {} ms", (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    // Первый запуск после миграции: сводок ещё нет
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (totalRepo.existsById(AnalyticsTotal.USERS)) {
+            return;
+        }
+        try {
+            rebuild(true);
+        } catch (RuntimeException e) {
+            log.warn("Analytics rollups were not rebuilt on startup: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private long currentEpoch() {
+        List<Long> epoch = jdbcTemplate.queryForList(EPOCH_SQL, Long.class);
+        return epoch.isEmpty() ? 0 : epoch.get(0);
+    }
+
+    private void add(LocalDate day, Metric metric) {
+        adders(pendingDaily, day, Metric.values().length)[metric.ordinal()].increment();
+    }
+
+    private void restore(List<Object[]> daily, List<Object[]> categories, long users) {
+        for (Object[] row : daily) {
+            LongAdder[] adders = adders(pendingDaily, ((Date) row[0]).toLocalDate(), Metric.values().length);
+            for (int i = 0; i < adders.length; i++) {
+                adders[i].add((Long) row[i + 1]);
+            }
+        }
+        for (Object[] row : categories) {
+            LongAdder[] adders = adders(pendingCategories,
+                    new CategoryDay(((Date) row[0]).toLocalDate(), (Long) row[1]), 2);
+            adders[0].add((Long) row[2]);
+            adders[1].add((Long) row[3]);
+        }
+        pendingUsers.add(users);
+    }
+
+    // Ключи прошлых дней больше не пополняются; вчерашний оставляем на случай событий около полуночи
+    private void pruneIdleDays() {
+        LocalDate yesterday = today().minusDays(1);
+        pendingDaily.entrySet().removeIf(entry -> entry.getKey().isBefore(yesterday) && isZero(entry.getValue()));
+        pendingCategories.entrySet().removeIf(entry -> entry.getKey().day().isBefore(yesterday)
+                && isZero(entry.getValue()));
+    }
+
+    private static <K> LongAdder[] adders(Map<K, LongAdder[]> pending, K key, int size) {
+        return pending.computeIfAbsent(key, k -> {
+            LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        });
+    }
+
+    private static long[] drain(LongAdder[] adders) {
+        long[] values = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            values[i] = adders[i].sumThenReset();
+        }
+        return values;
+    }
+
+    private static boolean nonZero(long[] values) {
+        for (long value : values) {
+            if (value != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(LongAdder[] adders) {
+        for (LongAdder adder : adders) {
+            if (adder.sum() != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now();
+    }
+
+    private record CategoryDay(LocalDate day, Long categoryId) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.newsapp.service.crawler;
+
+import com.example.newsapp.entity.PortalMetadata;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class FetchResult {
+    Long newsPortalId;
+    PortalMetadata.HealthStatus health;
+    Integer httpStatus;
+    // true — сервер ответил 304, сохранённые метаданные актуальны
+    boolean notModified;
+    // true — запрос не делался (локальный лимит хоста), результат не сохраняется
+    boolean skipped;
+    String title;
+    String description;
+    String faviconUrl;
+    String feedUrl;
+    String etag;
+    String lastModified;
+    String error;
+}
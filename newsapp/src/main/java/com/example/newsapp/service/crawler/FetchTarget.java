@@ -0,0 +1,15 @@
+package com.example.newsapp.service.crawler;
+
+import lombok.Value;
+
+/**
+ * Портал для обхода вместе с валидаторами прошлого ответа
+ * для условного запроса.
+ */
+@Value
+public class FetchTarget {
+    Long newsPortalId;
+    String url;
+    String etag;
+    String lastModified;
+}
@@ -0,0 +1,77 @@
+package com.example.newsapp.service.crawler;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничения на один хост: не больше {@code maxConcurrent} запросов
+ * одновременно и не чаще одного старта запроса в {@code minIntervalMillis}.
+ */
+public class HostLimiter {
+
+    private final int maxConcurrent;
+    private final long minIntervalMillis;
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    public HostLimiter(int maxConcurrent, long minIntervalMillis) {
+        this.maxConcurrent = Math.max(maxConcurrent, 1);
+        this.minIntervalMillis = Math.max(minIntervalMillis, 0);
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public static String hostOf(URI uri) {
+        String host = uri.getHost();
+        return host == null ? "" : host.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Ждёт свободный слот хоста и очередь по частоте.
+     * @return false, если слот не освободился за {@code timeoutMillis}
+     */
+    public boolean acquire(String host, long timeoutMillis) throws InterruptedException {
+        HostState state = hosts.computeIfAbsent(host, h -> new HostState(maxConcurrent));
+        if (!state.permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+
+        long wait;
+        synchronized (state) {
+            long now = System.currentTimeMillis();
+            long startAt = Math.max(now, state.nextStartAt);
+            state.nextStartAt = startAt + minIntervalMillis;
+            wait = startAt - now;
+        }
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                state.permits.release();
+                throw e;
+            }
+        }
+        return true;
+    }
+
+    public void release(String host) {
+        HostState state = hosts.get(host);
+        if (state != null) {
+            state.permits.release();
+        }
+    }
+
+    private static final class HostState {
+        private final Semaphore permits;
+        private long nextStartAt;
+
+        private HostState(int permits) {
+            this.permits = new Semaphore(permits);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.newsapp.service.crawler;
+
+import lombok.Value;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Достаёт из начала HTML-страницы заголовок, описание, favicon и ссылку
+ * на RSS/Atom. Полный DOM не строится: достаточно тегов в {@code <head>}.
+ */
+public final class HtmlMetadataParser {
+
+    private static final Pattern TITLE = Pattern.compile("<title[^>]*>(.*?)</title>",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern META = Pattern.compile("<meta\\s[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LINK = Pattern.compile("<link\\s[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ATTRIBUTE = Pattern.compile(
+            "([a-zA-Z:-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private HtmlMetadataParser() {
+    }
+
+    @Value
+    public static class Metadata {
+        String title;
+        String description;
+        String faviconUrl;
+        String feedUrl;
+    }
+
+    public static Metadata parse(String html, URI baseUri) {
+        String title = null;
+        String ogTitle = null;
+        String description = null;
+        String ogDescription = null;
+        String favicon = null;
+        String feed = null;
+
+        Matcher titleMatcher = TITLE.matcher(html);
+        if (titleMatcher.find()) {
+            title = clean(titleMatcher.group(1));
+        }
+
+        Matcher metaMatcher = META.matcher(html);
+        while (metaMatcher.find()) {
+            Map<String, String> attributes = attributes(metaMatcher.group());
+            String name = attributes.getOrDefault("name", attributes.get("property"));
+            String content = attributes.get("content");
+            if (name == null || content == null) continue;
+
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "description" -> description = clean(content);
+                case "og:description" -> ogDescription = clean(content);
+                case "og:title" -> ogTitle = clean(content);
+                default -> { }
+            }
+        }
+
+        Matcher linkMatcher = LINK.matcher(html);
+        while (linkMatcher.find()) {
+            Map<String, String> attributes = attributes(linkMatcher.group());
+            String rel = attributes.getOrDefault("rel", "").toLowerCase(Locale.ROOT);
+            String href = attributes.get("href");
+            if (href == null || href.isBlank()) continue;
+
+            if (favicon == null && (rel.equals("icon") || rel.equals("shortcut icon") || rel.equals("apple-touch-icon"))) {
+                favicon = resolve(baseUri, href);
+            } else if (feed == null && rel.equals("alternate")) {
+                String type = attributes.getOrDefault("type", "").toLowerCase(Locale.ROOT);
+                if (type.contains("rss") || type.contains("atom")) {
+                    feed = resolve(baseUri, href);
+                }
+            }
+        }
+
+        if (favicon == null) {
+            favicon = resolve(baseUri, "/favicon.ico");
+        }
+
+        return new Metadata(
+                title != null ? title : ogTitle,
+                description != null ? description : ogDescription,
+                favicon,
+                feed
+        );
+    }
+
+    private static Map<String, String> attributes(String tag) {
+        Map<String, String> attributes = new HashMap<>();
+        Matcher matcher = ATTRIBUTE.matcher(tag);
+        while (matcher.find()) {
+            String value = matcher.group(2) != null ? matcher.group(2)
+                    : matcher.group(3) != null ? matcher.group(3) : matcher.group(4);
+            attributes.putIfAbsent(matcher.group(1).toLowerCase(Locale.ROOT), value);
+        }
+        return attributes;
+    }
+
+    private static String resolve(URI baseUri, String href) {
+        try {
+            return baseUri.resolve(href.trim()).toString();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String clean(String value) {
+        String text = WHITESPACE.matcher(unescape(value)).replaceAll(" ").trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&amp;", "&")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&#39;", "'")
+                .replace("&nbsp;", " ");
+    }
+}
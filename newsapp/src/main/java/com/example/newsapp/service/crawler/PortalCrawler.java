@@ -0,0 +1,235 @@
+package com.example.newsapp.service.crawler;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.entity.PortalMetadata;
+import com.example.newsapp.repository.PortalMetadataRepository;
+import com.example.newsapp.service.NewsFeedSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Периодический обход порталов: обновляет {@code portal_metadata}
+ * (заголовок, описание, favicon, ссылку на фид и доступность).
+ * Результаты пишутся пакетными upsert по {@code app.crawler.batch-size} строк.
+ */
+@Service
+@Slf4j
+public class PortalCrawler {
+
+    private static final String UPSERT_FETCHED_SQL = """
+            insert into portal_metadata (news_portal_id, fetched_title, fetched_description, favicon_url, feed_url,
+                                         etag, last_modified, health_status, http_status, last_error,
+                                         consecutive_failures, last_checked_at, last_success_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, null, 0, ?, ?)
+            on conflict (news_portal_id) do update set
+                fetched_title = excluded.fetched_title,
+                fetched_description = excluded.fetched_description,
+                favicon_url = excluded.favicon_url,
+                feed_url = excluded.feed_url,
+                etag = excluded.etag,
+                last_modified = excluded.last_modified,
+                health_status = excluded.health_status,
+                http_status = excluded.http_status,
+                last_error = null,
+                consecutive_failures = 0,
+                last_checked_at = excluded.last_checked_at,
+                last_success_at = excluded.last_success_at
+            """;
+
+    // 304 и ошибки не трогают сохранённые метаданные
+    private static final String UPSERT_STATUS_SQL = """
+            insert into portal_metadata (news_portal_id, etag, last_modified, health_status, http_status, last_error,
+                                         consecutive_failures, last_checked_at, last_success_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict (news_portal_id) do update set
+                etag = excluded.etag,
+                last_modified = excluded.last_modified,
+                health_status = excluded.health_status,
+                http_status = excluded.http_status,
+                last_error = excluded.last_error,
+                consecutive_failures = case when excluded.consecutive_failures = 0 then 0
+                                            else portal_metadata.consecutive_failures + 1 end,
+                last_checked_at = excluded.last_checked_at,
+                last_success_at = coalesce(excluded.last_success_at, portal_metadata.last_success_at)
+            """;
+
+    private final NewsFeedSnapshot feedSnapshot;
+    private final PortalMetadataRepository metadataRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final PortalFetcher fetcher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Внеочередные обходы: один поток без очереди, повторный запрос отклоняется
+    private final ThreadPoolExecutor triggerExecutor = new ThreadPoolExecutor(
+            1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), r -> {
+                Thread thread = new Thread(r, "portal-crawl-trigger");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public PortalCrawler(NewsFeedSnapshot feedSnapshot,
+                         PortalMetadataRepository metadataRepo,
+                         JdbcTemplate jdbcTemplate,
+                         @Value("${app.crawler.enabled:false}") boolean enabled,
+                         @Value("${app.crawler.concurrency:16}") int concurrency,
+                         @Value("${app.crawler.per-host-concurrency:2}") int perHostConcurrency,
+                         @Value("${app.crawler.per-host-min-interval-ms:1000}") long perHostMinIntervalMs,
+                         @Value("${app.crawler.timeout-ms:10000}") long timeoutMs,
+                         @Value("${app.crawler.max-body-bytes:262144}") int maxBodyBytes,
+                         @Value("${app.crawler.batch-size:100}") int batchSize,
+                         @Value("${app.crawler.user-agent:InfoHubCrawler/1.0}") String userAgent) {
+        this.feedSnapshot = feedSnapshot;
+        this.metadataRepo = metadataRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = Math.max(batchSize, 1);
+        this.fetcher = new PortalFetcher(
+                concurrency,
+                new HostLimiter(perHostConcurrency, perHostMinIntervalMs),
+                Duration.ofMillis(timeoutMs),
+                maxBodyBytes,
+                userAgent
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${app.crawler.interval-ms:3600000}",
+            initialDelayString = "${app.crawler.initial-delay-ms:60000}")
+    public void scheduledCrawl() {
+        if (enabled) {
+            crawl();
+        }
+    }
+
+    /**
+     * Запускает обход в фоне.
+     * @return false, если обход уже идёт
+     */
+    public boolean triggerCrawl() {
+        if (running.get()) {
+            return false;
+        }
+        try {
+            triggerExecutor.execute(this::crawl);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public void crawl() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Portal crawl is already running, skipping");
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            List<FetchResult> results = fetcher.fetchAll(targets());
+            store(results);
+
+            long up = results.stream().filter(r -> r.getHealth() == PortalMetadata.HealthStatus.UP).count();
+            long skipped = results.stream().filter(FetchResult::isSkipped).count();
+            log.info("Portal crawl finished: {} portals, {} up, {} skipped, {} ms",
+                    results.size(), up, skipped, System.currentTimeMillis() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<FetchTarget> targets() {
+        Map<Long, PortalMetadata> known = metadataRepo.findAll().stream()
+                .collect(Collectors.toMap(PortalMetadata::getNewsPortalId, Function.identity()));
+
+        List<FetchTarget> targets = new ArrayList<>();
+        for (NewsPortalDto news : feedSnapshot.all()) {
+            if (news.getUrl() == null || news.getUrl().isBlank()) continue;
+            PortalMetadata metadata = known.get(news.getId());
+            targets.add(new FetchTarget(
+                    news.getId(),
+                    news.getUrl(),
+                    metadata == null ? null : metadata.getEtag(),
+                    metadata == null ? null : metadata.getLastModified()
+            ));
+        }
+        return targets;
+    }
+
+    private void store(List<FetchResult> results) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> fetched = new ArrayList<>();
+        List<Object[]> statuses = new ArrayList<>();
+
+        for (FetchResult result : results) {
+            if (result.isSkipped()) continue;
+            boolean up = result.getHealth() == PortalMetadata.HealthStatus.UP;
+            if (up && !result.isNotModified()) {
+                fetched.add(new Object[]{
+                        result.getNewsPortalId(),
+                        truncate(result.getTitle(), 512),
+                        truncate(result.getDescription(), 2048),
+                        truncate(result.getFaviconUrl(), 2048),
+                        truncate(result.getFeedUrl(), 2048),
+                        truncate(result.getEtag(), 255),
+                        truncate(result.getLastModified(), 64),
+                        result.getHealth().name(),
+                        result.getHttpStatus(),
+                        now,
+                        now
+                });
+            } else {
+                statuses.add(new Object[]{
+                        result.getNewsPortalId(),
+                        truncate(result.getEtag(), 255),
+                        truncate(result.getLastModified(), 64),
+                        result.getHealth().name(),
+                        result.getHttpStatus(),
+                        truncate(result.getError(), 512),
+                        up ? 0 : 1,
+                        now,
+                        up ? now : null
+                });
+            }
+        }
+
+        batchUpdate(UPSERT_FETCHED_SQL, fetched);
+        batchUpdate(UPSERT_STATUS_SQL, statuses);
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) return value;
+        return value.substring(0, maxLength);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        triggerExecutor.shutdownNow();
+        fetcher.close();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.newsapp.service.crawler;
+
+import com.example.newsapp.entity.PortalMetadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Параллельно загружает страницы порталов через {@link HttpClient}.
+ * <p>
+ * Общая параллельность ограничена пулом потоков, на каждый хост действуют
+ * лимиты {@link HostLimiter}; цели одного хоста обходятся не больше чем в
+ * {@link HostLimiter#maxConcurrent()} потоков. Запросы условные (If-None-Match /
+ * If-Modified-Since), тело читается не дальше {@code maxBodyBytes}.
+ * Класс не зависит от Spring и БД, поэтому тестируется на локальном сервере.
+ */
+public class PortalFetcher implements AutoCloseable {
+
+    private final HttpClient httpClient;
+    private final ExecutorService workers;
+    private final HostLimiter hostLimiter;
+    private final Duration timeout;
+    private final int maxBodyBytes;
+    private final String userAgent;
+
+    public PortalFetcher(int concurrency, HostLimiter hostLimiter, Duration timeout, int maxBodyBytes, String userAgent) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(concurrency, 1), r -> {
+            Thread thread = new Thread(r, "portal-crawler-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(timeout)
+                .build();
+        this.hostLimiter = hostLimiter;
+        this.timeout = timeout;
+        this.maxBodyBytes = maxBodyBytes;
+        this.userAgent = userAgent;
+    }
+
+    public List<FetchResult> fetchAll(List<FetchTarget> targets) throws InterruptedException {
+        // На хост — не больше полос, чем его слотов: потоки пула не ждут чужой семафор,
+        // а цели занятого хоста стоят в его очереди, а не выпадают по таймауту
+        List<Queue<FetchTarget>> hostQueues = new ArrayList<>(groupByHost(targets).values());
+        int[] lanes = hostQueues.stream()
+                .mapToInt(queue -> Math.min(queue.size(), hostLimiter.maxConcurrent()))
+                .toArray();
+
+        List<Future<List<FetchResult>>> futures = new ArrayList<>();
+        for (int lane = 0; lane < hostLimiter.maxConcurrent(); lane++) {
+            for (int i = 0; i < hostQueues.size(); i++) {
+                if (lane < lanes[i]) {
+                    Queue<FetchTarget> queue = hostQueues.get(i);
+                    futures.add(workers.submit(() -> drain(queue)));
+                }
+            }
+        }
+
+        List<FetchResult> results = new ArrayList<>(targets.size());
+        for (Future<List<FetchResult>> future : futures) {
+            try {
+                results.addAll(future.get());
+            } catch (ExecutionException e) {
+                // fetch() сам превращает ошибки в результат; сюда попадают только непредвиденные
+                throw new IllegalStateException("Portal fetch failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private List<FetchResult> drain(Queue<FetchTarget> queue) {
+        List<FetchResult> results = new ArrayList<>();
+        FetchTarget target;
+        while ((target = queue.poll()) != null) {
+            results.add(fetch(target));
+        }
+        return results;
+    }
+
+    public FetchResult fetch(FetchTarget target) {
+        URI uri;
+        try {
+            uri = URI.create(target.getUrl().trim());
+            if (uri.getScheme() == null || !uri.getScheme().toLowerCase(Locale.ROOT).startsWith("http")) {
+                return failure(target, PortalMetadata.HealthStatus.UNREACHABLE, null, "Unsupported URL");
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return failure(target, PortalMetadata.HealthStatus.UNREACHABLE, null, "Invalid URL");
+        }
+
+        String host = HostLimiter.hostOf(uri);
+        try {
+            if (!hostLimiter.acquire(host, timeout.toMillis() * 2)) {
+                // Портал не виноват, что хост занят нашими же запросами
+                return skipped(target);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return skipped(target);
+        }
+
+        try {
+            return doFetch(target, uri);
+        } finally {
+            hostLimiter.release(host);
+        }
+    }
+
+    private FetchResult doFetch(FetchTarget target, URI uri) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("User-Agent", userAgent)
+                .header("Accept", "text/html,application/xhtml+xml;q=0.9,*/*;q=0.5")
+                .GET();
+        if (target.getEtag() != null) {
+            request.header("If-None-Match", target.getEtag());
+        }
+        if (target.getLastModified() != null) {
+            request.header("If-Modified-Since", target.getLastModified());
+        }
+
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            int status = response.statusCode();
+            String etag = response.headers().firstValue("ETag").orElse(target.getEtag());
+            String lastModified = response.headers().firstValue("Last-Modified").orElse(target.getLastModified());
+
+            try (InputStream body = response.body()) {
+                if (status == 304) {
+                    return FetchResult.builder()
+                            .newsPortalId(target.getNewsPortalId())
+                            .health(PortalMetadata.HealthStatus.UP)
+                            .httpStatus(status)
+                            .notModified(true)
+                            .etag(etag)
+                            .lastModified(lastModified)
+                            .build();
+                }
+                if (status >= 400) {
+                    return failure(target, PortalMetadata.HealthStatus.DOWN, status, "HTTP " + status);
+                }
+
+                String html = new String(body.readNBytes(maxBodyBytes), charsetOf(response));
+                HtmlMetadataParser.Metadata metadata = HtmlMetadataParser.parse(html, response.uri());
+                return FetchResult.builder()
+                        .newsPortalId(target.getNewsPortalId())
+                        .health(PortalMetadata.HealthStatus.UP)
+                        .httpStatus(status)
+                        .title(metadata.getTitle())
+                        .description(metadata.getDescription())
+                        .faviconUrl(metadata.getFaviconUrl())
+                        .feedUrl(metadata.getFeedUrl())
+                        .etag(etag)
+                        .lastModified(lastModified)
+                        .build();
+            }
+        } catch (IOException e) {
+            return failure(target, PortalMetadata.HealthStatus.UNREACHABLE, null, e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failure(target, PortalMetadata.HealthStatus.UNREACHABLE, null, "Interrupted");
+        }
+    }
+
+    private static Charset charsetOf(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index >= 0) {
+            String name = contentType.substring(index + 8).replace("\"", "").split(";")[0].trim();
+            try {
+                return Charset.forName(name);
+            } catch (IllegalArgumentException ignored) {
+                // неизвестная кодировка — читаем как UTF-8
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static FetchResult failure(FetchTarget target, PortalMetadata.HealthStatus health, Integer status, String error) {
+        return FetchResult.builder()
+                .newsPortalId(target.getNewsPortalId())
+                .health(health)
+                .httpStatus(status)
+                .etag(target.getEtag())
+                .lastModified(target.getLastModified())
+                .error(error)
+                .build();
+    }
+
+    private static FetchResult skipped(FetchTarget target) {
+        return FetchResult.builder()
+                .newsPortalId(target.getNewsPortalId())
+                .skipped(true)
+                .etag(target.getEtag())
+                .lastModified(target.getLastModified())
+                .build();
+    }
+
+    private static Map<String, Queue<FetchTarget>> groupByHost(List<FetchTarget> targets) {
+        Map<String, Queue<FetchTarget>> byHost = new LinkedHashMap<>();
+        for (FetchTarget target : targets) {
+            String host;
+            try {
+                host = HostLimiter.hostOf(URI.create(target.getUrl().trim()));
+            } catch (RuntimeException e) {
+                host = "";
+            }
+            byHost.computeIfAbsent(host, h -> new ConcurrentLinkedQueue<>()).add(target);
+        }
+        return byHost;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
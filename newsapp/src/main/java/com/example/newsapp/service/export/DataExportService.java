@@ -0,0 +1,199 @@
+package com.example.newsapp.service.export;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Полная выгрузка таблиц для аналитики через {@code COPY ... TO STDOUT}.
+ * <p>
+ * Строки идут из PostgreSQL прямо в поток ответа кусками по мере чтения:
+ * ни сущностей, ни списка в памяти, расход памяти не зависит от размера
+ * таблицы. Каждая выгрузка держит одно соединение из пула до конца
+ * передачи, поэтому одновременных выгрузок не больше
+ * {@code app.export.max-concurrent}.
+ */
+@Service
+@Slf4j
+public class DataExportService {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Выгружаемые таблицы и их столбцы. Список закрытый: пользователи
+     * (пароли, e-mail) не выгружаются.
+     */
+    public enum Table {
+        NEWS("news_portals", "id, title, url, description, category_id"),
+        CATEGORIES("categories", "id, name"),
+        FAVORITES("favorites", "id, user_id, news_portal_id, created_at");
+
+        private final String tableName;
+        private final String columns;
+
+        Table(String tableName, String columns) {
+            this.tableName = tableName;
+            this.columns = columns;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public static Table of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown export table: " + name);
+            }
+        }
+    }
+
+    public enum Format {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + name);
+            }
+        }
+    }
+
+    /** Место под выгрузку, освобождается в close(). */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final DataSource dataSource;
+    private final Semaphore permits;
+
+    public DataExportService(DataSource dataSource,
+                             @Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        this.dataSource = dataSource;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Занимает место под выгрузку; вызывать до записи заголовков ответа,
+     * чтобы отказ ушёл обычным кодом 429.
+     */
+    public Permit acquire() {
+        if (!permits.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many exports in progress");
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+    }
+
+    /**
+     * Пишет таблицу в {@code out}, при {@code gzip} — со сжатием.
+     * Возвращает число строк.
+     */
+    public long export(Table table, Format format, boolean gzip, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            OutputStream target = gzip ? new FastGzipOutputStream(out) : out;
+            // При обрыве соединения клиентом драйвер сам отменяет COPY
+            long rows = connection.unwrap(PGConnection.class).getCopyAPI().copyOut(copySql(table, format), target);
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            target.flush();
+            log.info("Exported {} rows of {} as {} in {} ms", rows, table.tableName, format.extension,
+                    (System.nanoTime() - started) / 1_000_000);
+            return rows;
+        } catch (SQLException e) {
+            throw new IOException("Export of " + table.tableName + " failed", e);
+        }
+    }
+
+    static String copySql(Table table, Format format) {
+        return switch (format) {
+            case CSV -> "copy " + table.tableName + " (" + table.columns + ") to stdout with (format csv, header)";
+            // JSON строится в базе. В текстовом формате COPY удвоил бы обратные слэши экранирования,
+            // поэтому CSV с кавычками и разделителем из управляющих символов: row_to_json их экранирует,
+            // значит строка JSON никогда не берётся в кавычки и выходит как есть.
+            case NDJSON -> "copy (select row_to_json(t) from (select " + table.columns + " from " + table.tableName
+                    + ") t) to stdout with (format csv, quote e'\\x01', delimiter e'\\x02')";
+        };
+    }
+
+    /**
+     * Поддерживает ли клиент gzip по заголовку {@code Accept-Encoding} (с учётом {@code q=0}).
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals("gzip") && !coding.equals("x-gzip")) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim().replace(" ", "");
+                if (param.startsWith("q=") && isZero(param.substring(2))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Быстрейший уровень сжатия: при уровне по умолчанию узким местом становится процессор, а не сеть
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, GZIP_BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
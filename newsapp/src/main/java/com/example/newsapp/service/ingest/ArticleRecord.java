@@ -0,0 +1,14 @@
+package com.example.newsapp.service.ingest;
+
+import lombok.Value;
+
+/**
+ * Статья, готовая к записи: запись фида, привязанная к порталу,
+ * с вычисленным ключом дедупликации.
+ */
+@Value
+public class ArticleRecord {
+    Long newsPortalId;
+    String dedupKey;
+    FeedItem item;
+}
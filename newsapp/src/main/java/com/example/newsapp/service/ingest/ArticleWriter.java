@@ -0,0 +1,15 @@
+package com.example.newsapp.service.ingest;
+
+import java.util.List;
+
+/**
+ * Последняя стадия конвейера: записывает пачку статей.
+ * Вызывается из одного потока.
+ */
+public interface ArticleWriter {
+
+    /**
+     * @return число вставленных или изменённых строк
+     */
+    int write(List<ArticleRecord> batch);
+}
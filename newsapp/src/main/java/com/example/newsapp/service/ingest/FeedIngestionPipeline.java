@@ -0,0 +1,284 @@
+package com.example.newsapp.service.ingest;
+
+import com.example.newsapp.service.crawler.HostLimiter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Конвейер загрузки фидов из трёх стадий:
+ * <ol>
+ *     <li>загрузка — пул из {@code fetchConcurrency} потоков с лимитами на хост;</li>
+ *     <li>разбор — {@code parseConcurrency} потоков со {@link StaxFeedParser};</li>
+ *     <li>запись — один поток, пачки по {@code batchSize} в {@link ArticleWriter}.</li>
+ * </ol>
+ * Стадии связаны ограниченными очередями: если запись не успевает, разбор
+ * блокируется на {@code put}, а за ним и загрузка (backpressure).
+ */
+@Slf4j
+public class FeedIngestionPipeline {
+
+    private static final FetchedFeed END_OF_FEEDS = new FetchedFeed(null, null);
+    private static final ArticleRecord END_OF_ARTICLES = new ArticleRecord(null, null, null);
+
+    private final HttpClient httpClient;
+    private final HostLimiter hostLimiter;
+    private final StaxFeedParser parser = new StaxFeedParser();
+    private final ArticleWriter writer;
+    private final int fetchConcurrency;
+    private final int parseConcurrency;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxFeedBytes;
+    private final Duration timeout;
+
+    public FeedIngestionPipeline(ArticleWriter writer,
+                                 HostLimiter hostLimiter,
+                                 int fetchConcurrency,
+                                 int parseConcurrency,
+                                 int batchSize,
+                                 int queueCapacity,
+                                 int maxFeedBytes,
+                                 Duration timeout) {
+        this.writer = writer;
+        this.hostLimiter = hostLimiter;
+        this.fetchConcurrency = Math.max(fetchConcurrency, 1);
+        this.parseConcurrency = Math.max(parseConcurrency, 1);
+        this.batchSize = Math.max(batchSize, 1);
+        this.queueCapacity = Math.max(queueCapacity, 1);
+        this.maxFeedBytes = maxFeedBytes;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Value
+    public static class Result {
+        int feeds;
+        int failedFeeds;
+        long articles;
+        long written;
+        long elapsedMillis;
+
+        public double articlesPerSecond() {
+            return elapsedMillis == 0 ? articles : articles * 1000.0 / elapsedMillis;
+        }
+    }
+
+    public Result run(List<FeedSource> sources) throws InterruptedException {
+        long started = System.currentTimeMillis();
+        BlockingQueue<FetchedFeed> fetched = new ArrayBlockingQueue<>(Math.max(parseConcurrency * 2, 2));
+        BlockingQueue<ArticleRecord> articles = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger failedFeeds = new AtomicInteger();
+        AtomicLong parsed = new AtomicLong();
+        AtomicLong written = new AtomicLong();
+
+        ExecutorService fetchers = Executors.newFixedThreadPool(fetchConcurrency, named("feed-fetch"));
+        ExecutorService parsers = Executors.newFixedThreadPool(parseConcurrency, named("feed-parse"));
+        Thread writerThread = named("feed-write").newThread(() -> writeLoop(articles, written));
+
+        try {
+            writerThread.start();
+            List<Future<?>> parseTasks = new ArrayList<>();
+            for (int i = 0; i < parseConcurrency; i++) {
+                parseTasks.add(parsers.submit(() -> parseLoop(fetched, articles, parsed, failedFeeds)));
+            }
+
+            List<Future<?>> fetchTasks = new ArrayList<>();
+            for (FeedSource source : sources) {
+                fetchTasks.add(fetchers.submit(() -> {
+                    byte[] body = fetch(source);
+                    if (body == null) {
+                        failedFeeds.incrementAndGet();
+                    } else {
+                        fetched.put(new FetchedFeed(source, body));
+                    }
+                    return null;
+                }));
+            }
+
+            awaitAll(fetchTasks);
+            for (int i = 0; i < parseConcurrency; i++) {
+                fetched.put(END_OF_FEEDS);
+            }
+            awaitAll(parseTasks);
+            articles.put(END_OF_ARTICLES);
+            writerThread.join();
+        } finally {
+            fetchers.shutdownNow();
+            parsers.shutdownNow();
+            if (writerThread.isAlive()) {
+                writerThread.interrupt();
+            }
+        }
+
+        return new Result(sources.size(), failedFeeds.get(), parsed.get(), written.get(),
+                System.currentTimeMillis() - started);
+    }
+
+    private byte[] fetch(FeedSource source) throws InterruptedException {
+        URI uri;
+        try {
+            uri = URI.create(source.getFeedUrl().trim());
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+        String host = HostLimiter.hostOf(uri);
+        if (!hostLimiter.acquire(host, timeout.toMillis() * 2)) {
+            return null;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(timeout)
+                    .header("Accept", "application/rss+xml, application/atom+xml, application/xml;q=0.9, */*;q=0.5")
+                    .GET()
+                    .build();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() >= 300) {
+                    log.debug("Feed {} returned HTTP {}", uri, response.statusCode());
+                    return null;
+                }
+                return body.readNBytes(maxFeedBytes);
+            }
+        } catch (IOException e) {
+            log.debug("Feed {} fetch failed: {}", uri, e.getMessage());
+            return null;
+        } finally {
+            hostLimiter.release(host);
+        }
+    }
+
+    private Void parseLoop(BlockingQueue<FetchedFeed> fetched,
+                           BlockingQueue<ArticleRecord> articles,
+                           AtomicLong parsed,
+                           AtomicInteger failedFeeds) throws InterruptedException {
+        while (true) {
+            FetchedFeed feed = fetched.take();
+            if (feed == END_OF_FEEDS) {
+                return null;
+            }
+
+            Long portalId = feed.source.getNewsPortalId();
+            Set<String> seen = new HashSet<>();
+            try {
+                parser.parse(new ByteArrayInputStream(feed.body), item -> {
+                    String key = dedupKey(portalId, item);
+                    if (key == null || !seen.add(key)) {
+                        return;
+                    }
+                    try {
+                        articles.put(new ArticleRecord(portalId, key, item));
+                        parsed.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while queueing articles", e);
+                    }
+                });
+            } catch (Exception e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                failedFeeds.incrementAndGet();
+                log.debug("Feed {} parse failed: {}", feed.source.getFeedUrl(), e.getMessage());
+            }
+        }
+    }
+
+    private void writeLoop(BlockingQueue<ArticleRecord> articles, AtomicLong written) {
+        List<ArticleRecord> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                ArticleRecord record = articles.poll(200, TimeUnit.MILLISECONDS);
+                boolean finished = record == END_OF_ARTICLES;
+                if (record != null && !finished) {
+                    batch.add(record);
+                }
+                // Неполная пачка пишется, если очередь опустела, чтобы не держать статьи
+                if (batch.size() >= batchSize || (!batch.isEmpty() && (record == null || finished))) {
+                    written.addAndGet(writeBatch(batch));
+                    batch.clear();
+                }
+                if (finished) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int writeBatch(List<ArticleRecord> batch) {
+        try {
+            return writer.write(List.copyOf(batch));
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} articles: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    static String dedupKey(Long portalId, FeedItem item) {
+        String identity = item.getGuid() != null ? item.getGuid() : item.getLink();
+        if (identity == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((portalId + ":" + identity).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> futures) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.warn("Feed ingestion task failed: {}", e.getCause().getMessage());
+            }
+        }
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger number = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record FetchedFeed(FeedSource source, byte[] body) {
+    }
+}
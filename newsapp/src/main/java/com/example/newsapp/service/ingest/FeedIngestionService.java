@@ -0,0 +1,145 @@
+package com.example.newsapp.service.ingest;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.entity.PortalMetadata;
+import com.example.newsapp.repository.PortalMetadataRepository;
+import com.example.newsapp.service.NewsFeedSnapshot;
+import com.example.newsapp.service.crawler.HostLimiter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Периодически загружает RSS/Atom-фиды порталов в таблицу {@code articles}.
+ * Адрес фида берётся из найденного краулером {@code <link rel="alternate">},
+ * а если его нет — из URL портала, когда он похож на фид.
+ */
+@Service
+@Slf4j
+public class FeedIngestionService {
+
+    private final NewsFeedSnapshot feedSnapshot;
+    private final PortalMetadataRepository metadataRepo;
+    private final FeedIngestionPipeline pipeline;
+    private final boolean enabled;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Внеочередные загрузки: один поток без очереди, повторный запрос отклоняется
+    private final ThreadPoolExecutor triggerExecutor = new ThreadPoolExecutor(
+            1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), r -> {
+                Thread thread = new Thread(r, "feed-ingest-trigger");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public FeedIngestionService(NewsFeedSnapshot feedSnapshot,
+                                PortalMetadataRepository metadataRepo,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${app.ingest.enabled:false}") boolean enabled,
+                                @Value("${app.ingest.fetch-concurrency:8}") int fetchConcurrency,
+                                @Value("${app.ingest.parse-concurrency:2}") int parseConcurrency,
+                                @Value("${app.ingest.batch-size:500}") int batchSize,
+                                @Value("${app.ingest.queue-capacity:5000}") int queueCapacity,
+                                @Value("${app.ingest.max-feed-bytes:5242880}") int maxFeedBytes,
+                                @Value("${app.crawler.per-host-concurrency:2}") int perHostConcurrency,
+                                @Value("${app.crawler.per-host-min-interval-ms:1000}") long perHostMinIntervalMs,
+                                @Value("${app.crawler.timeout-ms:10000}") long timeoutMs) {
+        this.feedSnapshot = feedSnapshot;
+        this.metadataRepo = metadataRepo;
+        this.enabled = enabled;
+        this.pipeline = new FeedIngestionPipeline(
+                new JdbcArticleWriter(jdbcTemplate),
+                new HostLimiter(perHostConcurrency, perHostMinIntervalMs),
+                fetchConcurrency,
+                parseConcurrency,
+                batchSize,
+                queueCapacity,
+                maxFeedBytes,
+                Duration.ofMillis(timeoutMs)
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${app.ingest.interval-ms:900000}",
+            initialDelayString = "${app.ingest.initial-delay-ms:120000}")
+    public void scheduledIngest() {
+        if (enabled) {
+            ingest();
+        }
+    }
+
+    /**
+     * Запускает загрузку в фоне.
+     * @return false, если загрузка уже идёт
+     */
+    public boolean triggerIngest() {
+        if (running.get()) {
+            return false;
+        }
+        try {
+            triggerExecutor.execute(this::ingest);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public void ingest() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Feed ingestion is already running, skipping");
+            return;
+        }
+        try {
+            FeedIngestionPipeline.Result result = pipeline.run(sources());
+            log.info("Feed ingestion finished: {} feeds ({} failed), {} articles parsed, {} written, {} ms ({} articles/s)",
+                    result.getFeeds(), result.getFailedFeeds(), result.getArticles(), result.getWritten(),
+                    result.getElapsedMillis(), Math.round(result.articlesPerSecond()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        triggerExecutor.shutdownNow();
+    }
+
+    private List<FeedSource> sources() {
+        Map<Long, PortalMetadata> metadata = metadataRepo.findAll().stream()
+                .collect(Collectors.toMap(PortalMetadata::getNewsPortalId, Function.identity()));
+
+        List<FeedSource> sources = new ArrayList<>();
+        for (NewsPortalDto news : feedSnapshot.all()) {
+            PortalMetadata known = metadata.get(news.getId());
+            if (known != null && known.getFeedUrl() != null) {
+                sources.add(new FeedSource(news.getId(), known.getFeedUrl()));
+            } else if (looksLikeFeed(news.getUrl())) {
+                sources.add(new FeedSource(news.getId(), news.getUrl()));
+            }
+        }
+        return sources;
+    }
+
+    private static boolean looksLikeFeed(String url) {
+        if (url == null) return false;
+        String lower = url.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".xml") || lower.contains("rss") || lower.contains("atom") || lower.contains("/feed");
+    }
+}
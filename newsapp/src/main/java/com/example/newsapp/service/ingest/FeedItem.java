@@ -0,0 +1,17 @@
+package com.example.newsapp.service.ingest;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Одна запись фида: {@code <item>} в RSS или {@code <entry>} в Atom.
+ */
+@Value
+public class FeedItem {
+    String guid;
+    String link;
+    String title;
+    String summary;
+    LocalDateTime publishedAt;
+}
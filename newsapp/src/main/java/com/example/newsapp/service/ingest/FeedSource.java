@@ -0,0 +1,9 @@
+package com.example.newsapp.service.ingest;
+
+import lombok.Value;
+
+@Value
+public class FeedSource {
+    Long newsPortalId;
+    String feedUrl;
+}
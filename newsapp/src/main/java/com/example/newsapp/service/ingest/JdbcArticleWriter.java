@@ -0,0 +1,66 @@
+package com.example.newsapp.service.ingest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пишет статьи одним JDBC-батчем на пачку. Существующие статьи
+ * обновляются только если что-то действительно изменилось.
+ */
+public class JdbcArticleWriter implements ArticleWriter {
+
+    private static final String UPSERT_SQL = """
+            insert into articles (news_portal_id, dedup_key, guid, title, link, summary, published_at, fetched_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            on conflict (dedup_key) do update set
+                title = excluded.title,
+                link = excluded.link,
+                summary = excluded.summary,
+                published_at = coalesce(excluded.published_at, articles.published_at),
+                fetched_at = excluded.fetched_at
+            where articles.title is distinct from excluded.title
+               or articles.link is distinct from excluded.link
+               or articles.summary is distinct from excluded.summary
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcArticleWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int write(List<ArticleRecord> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (ArticleRecord record : batch) {
+            FeedItem item = record.getItem();
+            rows.add(new Object[]{
+                    record.getNewsPortalId(),
+                    record.getDedupKey(),
+                    truncate(item.getGuid(), 1024),
+                    truncate(item.getTitle(), 1024),
+                    truncate(item.getLink(), 2048),
+                    item.getSummary(),
+                    item.getPublishedAt() == null ? null : Timestamp.valueOf(item.getPublishedAt()),
+                    now
+            });
+        }
+
+        int changed = 0;
+        for (int count : jdbcTemplate.batchUpdate(UPSERT_SQL, rows)) {
+            // драйвер может вернуть SUCCESS_NO_INFO (-2) вместо числа строк
+            changed += Math.max(count, 0);
+        }
+        return changed;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) return value;
+        return value.substring(0, maxLength);
+    }
+}
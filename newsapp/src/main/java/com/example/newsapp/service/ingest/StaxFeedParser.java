@@ -0,0 +1,141 @@
+package com.example.newsapp.service.ingest;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Потоковый разбор RSS 2.0 и Atom через StAX: DOM не строится,
+ * каждая запись отдаётся потребителю сразу после закрывающего тега.
+ * DTD и внешние сущности отключены.
+ */
+public class StaxFeedParser {
+
+    private static final int MAX_TEXT_LENGTH = 64 * 1024;
+
+    private final XMLInputFactory factory;
+
+    public StaxFeedParser() {
+        factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * @return число разобранных записей
+     */
+    public int parse(InputStream input, Consumer<FeedItem> consumer) throws XMLStreamException {
+        XMLStreamReader reader = factory.createXMLStreamReader(input);
+        try {
+            int count = 0;
+            ItemBuilder item = null;
+            String field = null;
+            StringBuilder text = new StringBuilder();
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (item == null) {
+                        if (name.equals("item") || name.equals("entry")) {
+                            item = new ItemBuilder();
+                        }
+                    } else if (name.equals("link") && reader.getAttributeValue(null, "href") != null) {
+                        // Atom: <link rel="alternate" href="..."/>
+                        String rel = reader.getAttributeValue(null, "rel");
+                        if (item.link == null && (rel == null || rel.equals("alternate"))) {
+                            item.link = reader.getAttributeValue(null, "href").trim();
+                        }
+                    } else if (field == null) {
+                        field = name;
+                        text.setLength(0);
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    if (field != null && text.length() < MAX_TEXT_LENGTH) {
+                        text.append(reader.getText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (item == null) {
+                        continue;
+                    }
+                    if (name.equals("item") || name.equals("entry")) {
+                        consumer.accept(item.build());
+                        count++;
+                        item = null;
+                        field = null;
+                    } else if (name.equals(field)) {
+                        item.set(field, text.toString().trim());
+                        field = null;
+                    }
+                }
+            }
+            return count;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static final class ItemBuilder {
+        private String guid;
+        private String link;
+        private String title;
+        private String summary;
+        private LocalDateTime publishedAt;
+
+        private void set(String field, String value) {
+            if (value.isEmpty()) {
+                return;
+            }
+            switch (field) {
+                case "guid", "id" -> guid = value;
+                case "link" -> {
+                    if (link == null) link = value;
+                }
+                case "title" -> title = value;
+                case "description", "summary", "content", "encoded" -> {
+                    if (summary == null) summary = value;
+                }
+                case "pubDate", "published", "updated", "date" -> {
+                    if (publishedAt == null) publishedAt = parseDate(value);
+                }
+                default -> { }
+            }
+        }
+
+        private FeedItem build() {
+            return new FeedItem(guid, link, title, summary, publishedAt);
+        }
+    }
+
+    static LocalDateTime parseDate(String value) {
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        } catch (DateTimeParseException ignored) {
+            // не RFC 822 — пробуем ISO 8601
+        }
+        try {
+            return OffsetDateTime.parse(value).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        } catch (DateTimeParseException ignored) {
+            // нераспознанная дата
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.ofPattern("EEE, d MMM yyyy HH:mm:ss zzz", Locale.ENGLISH))
+                    .withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+        } catch (DateTimeParseException ignored) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.newsapp.service.invalidation;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.entity.Category;
+import com.example.newsapp.event.CacheResyncEvent;
+import com.example.newsapp.event.CategoryChangedEvent;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.event.TokenRevokedEvent;
+import com.example.newsapp.repository.CategoryRepository;
+import com.example.newsapp.repository.NewsPortalRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Шина инвалидации локальных кэшей между экземплярами через PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * Отправка: сообщения копятся до конца транзакции изменения и уходят перед коммитом
+ * несколькими {@code pg_notify} (по многу сообщений в payload). PostgreSQL доставит их
+ * только после коммита, откат их отменит. Вне транзакции сообщение уходит сразу.
+ * <p>
+ * Приём: отдельное соединение вне пула слушает канал в своём потоке. Пачка
+ * уведомлений превращается в те же события с {@code remote = true}, новые данные
+ * читаются одним запросом на пачку. После каждого успешного LISTEN (уведомления
+ * до подключения или за время обрыва потеряны) и при переполнении публикуется
+ * {@link CacheResyncEvent}.
+ */
+@Service
+@Slf4j
+public class InvalidationBus {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int POLL_MILLIS = 500;
+    private static final long MIN_BACKOFF_MILLIS = 1000;
+    // Больше изменений за раз дешевле перечитать целиком, чем патчить по одному
+    private static final int MAX_PATCH_BATCH = 1000;
+    // Лимит payload NOTIFY — 8000 байт, сообщения ASCII
+    private static final int MAX_PAYLOAD_CHARS = 7900;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final NewsPortalRepository newsRepo;
+    private final CategoryRepository categoryRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String channel;
+    private final long heartbeatMillis;
+    private final long maxBackoffMillis;
+
+    private final String origin = UUID.randomUUID().toString().substring(0, 8);
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listener;
+
+    public InvalidationBus(JdbcTemplate jdbcTemplate,
+                           DataSourceProperties dataSourceProperties,
+                           NewsPortalRepository newsRepo,
+                           CategoryRepository categoryRepo,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${app.invalidation.enabled:true}") boolean enabled,
+                           @Value("${app.invalidation.channel:newsapp_invalidation}") String channel,
+                           @Value("${app.invalidation.heartbeat-ms:30000}") long heartbeatMillis,
+                           @Value("${app.invalidation.max-backoff-ms:30000}") long maxBackoffMillis) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid invalidation channel name: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.newsRepo = newsRepo;
+        this.categoryRepo = categoryRepo;
+        this.eventPublisher = eventPublisher;
+        // LISTEN/NOTIFY есть только в PostgreSQL
+        String url = dataSourceProperties.determineUrl();
+        this.enabled = enabled && url != null && url.startsWith("jdbc:postgresql:");
+        this.channel = channel;
+        this.heartbeatMillis = Math.max(heartbeatMillis, POLL_MILLIS);
+        this.maxBackoffMillis = Math.max(maxBackoffMillis, MIN_BACKOFF_MILLIS);
+    }
+
+    @EventListener
+    public void onNewsChanged(NewsChangedEvent event) {
+        if (!event.isRemote()) {
+            send(event.getType() == NewsChangedEvent.Type.DELETED
+                    ? InvalidationMessage.Kind.NEWS_DELETED
+                    : InvalidationMessage.Kind.NEWS_SAVED, event.getNewsId(), 0);
+        }
+    }
+
+    @EventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (!event.isRemote()) {
+            send(event.getType() == CategoryChangedEvent.Type.DELETED
+                    ? InvalidationMessage.Kind.CATEGORY_DELETED
+                    : InvalidationMessage.Kind.CATEGORY_SAVED, event.getCategoryId(), 0);
+        }
+    }
+
+    @EventListener
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        if (!event.isRemote()) {
+            send(InvalidationMessage.Kind.TOKEN_REVOKED, event.getUserId(), event.getTokenVersion());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listenLoop, "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        closeQuietly(connection);
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void send(InvalidationMessage.Kind kind, Long id, int version) {
+        if (!enabled || id == null) {
+            return;
+        }
+        String message = new InvalidationMessage(origin, kind, id, version).encode();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishNotifications(List.of(message));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<String> pending = (List<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<String> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    publishNotifications(buffer);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InvalidationBus.this);
+                }
+            });
+            pending = buffer;
+        }
+        pending.add(message);
+    }
+
+    private void publishNotifications(List<String> messages) {
+        StringBuilder payload = new StringBuilder();
+        for (String message : messages) {
+            if (payload.length() > 0 && payload.length() + 1 + message.length() > MAX_PAYLOAD_CHARS) {
+                jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, channel, payload.toString());
+                payload.setLength(0);
+            }
+            if (payload.length() > 0) {
+                payload.append('\n');
+            }
+            payload.append(message);
+        }
+        if (payload.length() > 0) {
+            jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, channel, payload.toString());
+        }
+    }
+
+    private void listenLoop() {
+        long backoff = MIN_BACKOFF_MILLIS;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection = conn;
+                execute(conn, "LISTEN " + channel);
+                log.info("Invalidation bus listening on channel {} (instance {})", channel, origin);
+                // Кэши читаются при старте параллельно с подключением: всё, что закоммитили
+                // до LISTEN (или за время обрыва), без перечитывания было бы потеряно
+                resync(connectedBefore ? "reconnected" : "listening started");
+                connectedBefore = true;
+                backoff = MIN_BACKOFF_MILLIS;
+                poll(conn);
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Invalidation bus connection failed: {}; retrying in {} ms", e.getMessage(), backoff);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void poll(Connection conn) throws SQLException {
+        PGConnection pgConnection = conn.unwrap(PGConnection.class);
+        long lastActivity = System.currentTimeMillis();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+            long now = System.currentTimeMillis();
+            if (notifications != null && notifications.length > 0) {
+                dispatch(notifications);
+                lastActivity = now;
+            } else if (now - lastActivity >= heartbeatMillis) {
+                // Молча оборванное соединение обнаружится только на запросе
+                execute(conn, "select 1");
+                lastActivity = now;
+            }
+        }
+    }
+
+    private void dispatch(PGNotification[] notifications) {
+        List<InvalidationMessage> messages = new ArrayList<>();
+        for (PGNotification notification : notifications) {
+            for (String line : notification.getParameter().split("\n")) {
+                InvalidationMessage.decode(line)
+                        .filter(message -> !message.getOrigin().equals(origin))
+                        .ifPresent(messages::add);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        if (messages.size() > MAX_PATCH_BATCH) {
+            resync(messages.size() + " changes in one batch");
+            return;
+        }
+
+        try {
+            apply(messages);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply {} invalidation messages: {}", messages.size(), e.getMessage());
+            resync("apply failed");
+        }
+    }
+
+    private void apply(List<InvalidationMessage> messages) {
+        Set<Long> newsIds = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (InvalidationMessage message : messages) {
+            if (message.getKind() == InvalidationMessage.Kind.NEWS_SAVED) {
+                newsIds.add(message.getId());
+            } else if (message.getKind() == InvalidationMessage.Kind.CATEGORY_SAVED) {
+                categoryIds.add(message.getId());
+            }
+        }
+
+        Map<Long, NewsPortalDto> news = new HashMap<>();
+        if (!newsIds.isEmpty()) {
+            newsRepo.findViewsByIdIn(newsIds).forEach(dto -> news.put(dto.getId(), dto));
+        }
+        Map<Long, String> categoryNames = new HashMap<>();
+        if (!categoryIds.isEmpty()) {
+            for (Category category : categoryRepo.findAllById(categoryIds)) {
+                categoryNames.put(category.getId(), category.getName());
+            }
+        }
+
+        // Не найдена при чтении — значит, уже удалена
+        for (InvalidationMessage message : messages) {
+            long id = message.getId();
+            switch (message.getKind()) {
+                case NEWS_SAVED -> eventPublisher.publishEvent(news.containsKey(id)
+                        ? NewsChangedEvent.saved(news.get(id)).withRemote(true)
+                        : NewsChangedEvent.deleted(id).withRemote(true));
+                case NEWS_DELETED -> eventPublisher.publishEvent(NewsChangedEvent.deleted(id).withRemote(true));
+                case CATEGORY_SAVED -> eventPublisher.publishEvent(categoryNames.containsKey(id)
+                        ? CategoryChangedEvent.saved(id, categoryNames.get(id)).withRemote(true)
+                        : CategoryChangedEvent.deleted(id).withRemote(true));
+                case CATEGORY_DELETED -> eventPublisher.publishEvent(CategoryChangedEvent.deleted(id).withRemote(true));
+                case TOKEN_REVOKED -> eventPublisher.publishEvent(new TokenRevokedEvent(id, message.getVersion(), true));
+            }
+        }
+    }
+
+    private void resync(String reason) {
+        log.info("Invalidation bus full resync: {}", reason);
+        try {
+            eventPublisher.publishEvent(new CacheResyncEvent());
+        } catch (RuntimeException e) {
+            log.warn("Cache resync failed: {}", e.getMessage());
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement statement = conn.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+            // соединение уже закрыто
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.newsapp.service.invalidation;
+
+import lombok.Value;
+
+import java.util.Optional;
+
+/**
+ * Сообщение шины инвалидации: строка {@code origin|kind|id|version},
+ * в одном payload NOTIFY — несколько строк через перевод строки.
+ * Несёт только идентификаторы — получатель сам читает актуальные данные из БД,
+ * поэтому сообщение занимает десятки байт (лимит payload — 8000).
+ */
+@Value
+public class InvalidationMessage {
+
+    public enum Kind {
+        NEWS_SAVED("ns"),
+        NEWS_DELETED("nd"),
+        CATEGORY_SAVED("cs"),
+        CATEGORY_DELETED("cd"),
+        TOKEN_REVOKED("tr");
+
+        private final String code;
+
+        Kind(String code) {
+            this.code = code;
+        }
+
+        private static Kind of(String code) {
+            for (Kind kind : values()) {
+                if (kind.code.equals(code)) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Экземпляр-отправитель: свои уведомления получатель пропускает
+    String origin;
+    Kind kind;
+    long id;
+    // Только для TOKEN_REVOKED
+    int version;
+
+    public String encode() {
+        return origin + '|' + kind.code + '|' + id + '|' + version;
+    }
+
+    /**
+     * @return пусто, если payload не распознан (другая версия приложения, чужой NOTIFY)
+     */
+    public static Optional<InvalidationMessage> decode(String payload) {
+        if (payload == null) {
+            return Optional.empty();
+        }
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 4 || parts[0].isEmpty()) {
+            return Optional.empty();
+        }
+        Kind kind = Kind.of(parts[1]);
+        if (kind == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new InvalidationMessage(parts[0], kind, Long.parseLong(parts[2]), Integer.parseInt(parts[3])));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.newsapp.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Логин или регистрация целиком; фазы внутри — отдельные события
+ * {@link UserLookupEvent}, {@link PasswordHashEvent}, {@link RepositoryQueryEvent}.
+ */
+@Name("newsapp.Authentication")
+@Label("Authentication")
+@Category({"Newsapp", "Auth"})
+@Description("Login or registration request in AuthController")
+@StackTrace(false)
+@Setter
+public class AuthenticationEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Success")
+    private boolean success;
+}
@@ -0,0 +1,24 @@
+package com.example.newsapp.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Проверка подписи и разбор claims JWT в {@code JwtAuthenticationFilter}.
+ */
+@Name("newsapp.JwtParse")
+@Label("JWT Parse")
+@Category({"Newsapp", "Auth"})
+@Description("Signature check and claims parsing of the bearer token")
+@StackTrace(false)
+@Setter
+public class JwtParseEvent extends Event {
+
+    @Label("Valid")
+    private boolean valid;
+}
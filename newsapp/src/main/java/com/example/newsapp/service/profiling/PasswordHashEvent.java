@@ -0,0 +1,27 @@
+package com.example.newsapp.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Хеширование или проверка пароля (bcrypt), см. {@link ProfiledPasswordEncoder}.
+ */
+@Name("newsapp.PasswordHash")
+@Label("Password Hash")
+@Category({"Newsapp", "Auth"})
+@Description("bcrypt encode or match")
+@StackTrace(false)
+@Setter
+public class PasswordHashEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Matched")
+    private boolean matched;
+}
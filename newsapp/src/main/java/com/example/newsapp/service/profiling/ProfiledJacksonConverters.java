@@ -0,0 +1,130 @@
+package com.example.newsapp.service.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Jackson-конвертеры, которые пишут {@link ResponseWriteEvent} вокруг сериализации
+ * ответа. Наследуются от стандартных, поэтому {@code ?fields=} (FieldSelectionAdvice)
+ * и выбор формата по Accept работают как прежде.
+ */
+public final class ProfiledJacksonConverters {
+
+    private ProfiledJacksonConverters() {
+    }
+
+    public static MappingJackson2HttpMessageConverter json(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                profiled("json", object, outputMessage, counted -> super.writeInternal(object, type, counted));
+            }
+        };
+    }
+
+    public static MappingJackson2CborHttpMessageConverter cbor(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                profiled("cbor", object, outputMessage, counted -> super.writeInternal(object, type, counted));
+            }
+        };
+    }
+
+    public static MappingJackson2SmileHttpMessageConverter smile(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                profiled("smile", object, outputMessage, counted -> super.writeInternal(object, type, counted));
+            }
+        };
+    }
+
+    private interface Writer {
+        void write(HttpOutputMessage outputMessage) throws IOException;
+    }
+
+    private static void profiled(String format, Object object, HttpOutputMessage outputMessage, Writer writer)
+            throws IOException {
+        ResponseWriteEvent event = new ResponseWriteEvent();
+        if (!event.isEnabled()) {
+            writer.write(outputMessage);
+            return;
+        }
+
+        CountingMessage counted = new CountingMessage(outputMessage);
+        event.begin();
+        try {
+            writer.write(counted);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object value = object instanceof MappingJacksonValue container ? container.getValue() : object;
+                event.setFormat(format);
+                event.setValueType(value == null ? "null" : value.getClass().getName());
+                event.setElements(value instanceof Collection<?> collection ? collection.size() : -1);
+                event.setBytes(counted.bytes());
+                event.commit();
+            }
+        }
+    }
+
+    private static final class CountingMessage implements HttpOutputMessage {
+
+        private final HttpOutputMessage delegate;
+        private CountingStream body;
+
+        CountingMessage(HttpOutputMessage delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        long bytes() {
+            return body == null ? 0 : body.count;
+        }
+    }
+
+    private static final class CountingStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.newsapp.service.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Запись JFR на живом экземпляре без перезапуска.
+ * <p>
+ * Одновременно идёт не больше одной записи, длительность ограничена
+ * {@code app.profiling.max-duration-seconds}. Настройки — встроенные профили
+ * JDK: {@code default} (порядка 1% накладных расходов) или {@code profile}
+ * (подробнее, с сэмплированием чаще). События приложения ({@code newsapp.*})
+ * включаются всегда, без стеков.
+ */
+@Service
+@Slf4j
+public class ProfilingService {
+
+    public static final List<String> SETTINGS = List.of("default", "profile");
+
+    static final List<Class<? extends jdk.jfr.Event>> EVENTS = List.of(
+            JwtParseEvent.class, UserLookupEvent.class, PasswordHashEvent.class,
+            AuthenticationEvent.class, RepositoryQueryEvent.class, ResponseWriteEvent.class);
+
+    private final Duration maxDuration;
+    private final AtomicBoolean recording = new AtomicBoolean();
+
+    public ProfilingService(@Value("${app.profiling.max-duration-seconds:300}") long maxDurationSeconds) {
+        this.maxDuration = Duration.ofSeconds(Math.max(maxDurationSeconds, 1));
+    }
+
+    /**
+     * Пишет JFR заданное время (блокирует вызывающий поток) и возвращает временный
+     * файл; удалить его после отправки должен вызывающий код.
+     */
+    public Path record(Duration duration, String settings) throws IOException {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Duration must be between 1 and " + maxDuration.toSeconds() + " seconds");
+        }
+        if (!SETTINGS.contains(settings)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Settings must be one of " + SETTINGS);
+        }
+        if (!recording.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Another recording is in progress");
+        }
+
+        Path file = Files.createTempFile("newsapp-", ".jfr");
+        try (Recording jfr = new Recording(Configuration.getConfiguration(settings))) {
+            jfr.setName("newsapp-on-demand");
+            for (Class<? extends jdk.jfr.Event> event : EVENTS) {
+                jfr.enable(event).withoutStackTrace().withThreshold(Duration.ZERO);
+            }
+            log.info("JFR recording started: {} s, settings={}", duration.toSeconds(), settings);
+            jfr.start();
+            Thread.sleep(duration.toMillis());
+            jfr.stop();
+            jfr.dump(file);
+            log.info("JFR recording finished: {} KB", Files.size(file) / 1024);
+            return file;
+        } catch (ParseException e) {
+            Files.deleteIfExists(file);
+            throw new IllegalStateException("Broken JFR settings: " + settings, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Files.deleteIfExists(file);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Recording interrupted");
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        } finally {
+            recording.set(false);
+        }
+    }
+}
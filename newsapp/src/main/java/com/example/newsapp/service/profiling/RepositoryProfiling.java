@@ -0,0 +1,58 @@
+package com.example.newsapp.service.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Добавляет в прокси каждого Spring Data репозитория перехватчик,
+ * который пишет {@link RepositoryQueryEvent} вокруг вызова метода.
+ * <p>
+ * Пока запись JFR не идёт, событие выключено и перехватчик сразу
+ * вызывает метод — накладные расходы сводятся к одной проверке.
+ */
+public class RepositoryProfiling implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> proxyFactory.addAdvice(
+                            new Interceptor(information.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    static final class Interceptor implements MethodInterceptor {
+
+        private final String repository;
+
+        Interceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RepositoryQueryEvent event = new RepositoryQueryEvent();
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+            event.begin();
+            boolean failed = true;
+            try {
+                Object result = invocation.proceed();
+                failed = false;
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.setRepository(repository);
+                    event.setMethod(invocation.getMethod().getName());
+                    event.setFailed(failed);
+                    event.commit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.newsapp.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Вызов метода Spring Data репозитория, см. {@link RepositoryProfiling}.
+ */
+@Name("newsapp.RepositoryQuery")
+@Label("Repository Query")
+@Category({"Newsapp", "Database"})
+@Description("Spring Data repository method invocation")
+@StackTrace(false)
+@Setter
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Repository")
+    private String repository;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Failed")
+    private boolean failed;
+}
@@ -0,0 +1,36 @@
+package com.example.newsapp.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Сериализация тела ответа Jackson (JSON, CBOR, Smile), см. {@link ProfiledJacksonConverters}.
+ */
+@Name("newsapp.ResponseWrite")
+@Label("Response Write")
+@Category({"Newsapp", "Web"})
+@Description("Jackson serialization of a response body, including the write to the socket buffer")
+@StackTrace(false)
+@Setter
+public class ResponseWriteEvent extends Event {
+
+    @Label("Format")
+    private String format;
+
+    @Label("Value Type")
+    private String valueType;
+
+    @Label("Elements")
+    @Description("Collection size, -1 for a single object")
+    private int elements;
+
+    @Label("Size")
+    @DataAmount
+    private long bytes;
+}
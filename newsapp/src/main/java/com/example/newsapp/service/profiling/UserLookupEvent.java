@@ -0,0 +1,24 @@
+package com.example.newsapp.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Загрузка пользователя по email: при каждом запросе с JWT и при логине.
+ */
+@Name("newsapp.UserLookup")
+@Label("User Lookup")
+@Category({"Newsapp", "Auth"})
+@Description("Loading the user for authentication by email")
+@StackTrace(false)
+@Setter
+public class UserLookupEvent extends Event {
+
+    @Label("Found")
+    private boolean found;
+}
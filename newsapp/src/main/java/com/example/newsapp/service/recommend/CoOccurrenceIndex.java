@@ -0,0 +1,545 @@
+package com.example.newsapp.service.recommend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Разреженная матрица совместной встречаемости новостей в избранном.
+ * <p>
+ * Новости и пользователи получают плотные int-индексы. Строка матрицы —
+ * хеш-таблица с линейным пробированием на двух массивах (индекс соседа,
+ * число общих пользователей); пустая ячейка — нулевой счётчик. Матрица
+ * симметрична, каждая пара хранится в обеих строках.
+ * <p>
+ * Вклад пользователя в пары квадратичен по числу его избранных, поэтому
+ * в матрице участвуют только первые {@code maxItemsPerUser} его новостей;
+ * при удалении одной из них её место занимает следующая.
+ * <p>
+ * Похожесть — косинусная: {@code c(i, j) / sqrt(n(i) * n(j))}, где n — число
+ * пользователей новости. Так популярные новости не попадают в каждую выдачу.
+ * <p>
+ * Потокобезопасен: запросы выполняются под read-lock, изменения под write-lock.
+ */
+public final class CoOccurrenceIndex {
+
+    private static final int INITIAL_ROW_CAPACITY = 4;
+
+    private final int maxItemsPerUser;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongIntHashMap itemIndex = new LongIntHashMap();
+    private long[] itemIds = new long[64];
+    private int[] itemUsers = new int[64];
+    private boolean[] hidden = new boolean[64];
+    private int[][] rowItems = new int[64][];
+    private int[][] rowCounts = new int[64][];
+    private int[] rowSizes = new int[64];
+    private int itemCount;
+
+    private final LongIntHashMap userIndex = new LongIntHashMap();
+    // Новости пользователя в порядке добавления
+    private int[][] userItems = new int[64][];
+    private int[] userSizes = new int[64];
+    private int userCount;
+
+    private long favoriteCount;
+    private long pairCount;
+
+    private final ThreadLocal<Accumulator> accumulators = ThreadLocal.withInitial(Accumulator::new);
+
+    public CoOccurrenceIndex(int maxItemsPerUser) {
+        this.maxItemsPerUser = Math.max(maxItemsPerUser, 1);
+    }
+
+    public record Recommendation(long newsId, double score) {
+    }
+
+    /**
+     * @return false, если новость уже была в избранном пользователя
+     */
+    public boolean add(long userId, long newsId) {
+        lock.writeLock().lock();
+        try {
+            int user = userSlot(userId);
+            int item = itemSlot(newsId);
+            int size = userSizes[user];
+            int[] items = userItems[user];
+            if (indexOf(items, size, item) >= 0) {
+                return false;
+            }
+            if (items == null || size == items.length) {
+                items = userItems[user] = items == null ? new int[4] : Arrays.copyOf(items, size * 2);
+            }
+            items[size] = item;
+            userSizes[user] = size + 1;
+            itemUsers[item]++;
+            favoriteCount++;
+
+            if (size < maxItemsPerUser) {
+                for (int k = 0; k < size; k++) {
+                    addPair(items[k], item, 1);
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return false, если новости не было в избранном пользователя
+     */
+    public boolean remove(long userId, long newsId) {
+        lock.writeLock().lock();
+        try {
+            int user = userIndex.get(userId);
+            int item = itemIndex.get(newsId);
+            if (user == LongIntHashMap.MISSING || item == LongIntHashMap.MISSING) {
+                return false;
+            }
+            int size = userSizes[user];
+            int[] items = userItems[user];
+            int position = indexOf(items, size, item);
+            if (position < 0) {
+                return false;
+            }
+
+            if (position < maxItemsPerUser) {
+                int participants = Math.min(size, maxItemsPerUser);
+                for (int k = 0; k < participants; k++) {
+                    if (k != position) {
+                        addPair(items[k], item, -1);
+                    }
+                }
+            }
+            System.arraycopy(items, position + 1, items, position, size - position - 1);
+            size--;
+            userSizes[user] = size;
+            itemUsers[item]--;
+            favoriteCount--;
+
+            if (position < maxItemsPerUser && size >= maxItemsPerUser) {
+                // Следующая по порядку новость входит в число участвующих
+                int promoted = items[maxItemsPerUser - 1];
+                for (int k = 0; k < maxItemsPerUser - 1; k++) {
+                    addPair(items[k], promoted, 1);
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Исключает новость из выдачи. Её пары остаются в матрице до следующей
+     * полной перестройки: обратного индекса «новость -> пользователи» нет.
+     */
+    public void hide(long newsId) {
+        lock.writeLock().lock();
+        try {
+            int item = itemIndex.get(newsId);
+            if (item != LongIntHashMap.MISSING) {
+                hidden[item] = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Новости, чаще всего сохраняемые вместе с данной.
+     */
+    public List<Recommendation> related(long newsId, int limit) {
+        lock.readLock().lock();
+        try {
+            int item = itemIndex.get(newsId);
+            if (item == LongIntHashMap.MISSING || limit <= 0) {
+                return List.of();
+            }
+            TopK top = new TopK(limit);
+            int[] neighbours = rowItems[item];
+            int[] counts = rowCounts[item];
+            if (neighbours == null) {
+                return List.of();
+            }
+            for (int slot = 0; slot < counts.length; slot++) {
+                int other = neighbours[slot];
+                if (counts[slot] > 0 && !hidden[other]) {
+                    top.offer(other, similarity(item, other, counts[slot]));
+                }
+            }
+            return top.toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Персональная подборка: сумма похожестей с последними {@code profileSize}
+     * новостями избранного, без уже сохранённых.
+     */
+    public List<Recommendation> forUser(long userId, int profileSize, int limit) {
+        lock.readLock().lock();
+        try {
+            int user = userIndex.get(userId);
+            if (user == LongIntHashMap.MISSING || limit <= 0 || userSizes[user] == 0) {
+                return List.of();
+            }
+            int size = userSizes[user];
+            int[] items = userItems[user];
+
+            Accumulator scores = accumulators.get();
+            scores.reset(itemCount);
+            try {
+                for (int k = 0; k < size; k++) {
+                    scores.exclude(items[k]);
+                }
+                for (int k = Math.max(0, size - profileSize); k < size; k++) {
+                    int item = items[k];
+                    int[] neighbours = rowItems[item];
+                    if (neighbours == null) {
+                        continue;
+                    }
+                    int[] counts = rowCounts[item];
+                    for (int slot = 0; slot < counts.length; slot++) {
+                        int other = neighbours[slot];
+                        if (counts[slot] > 0 && !hidden[other]) {
+                            scores.add(other, similarity(item, other, counts[slot]));
+                        }
+                    }
+                }
+
+                TopK top = new TopK(limit);
+                for (int k = 0; k < scores.touchedCount; k++) {
+                    int item = scores.touched[k];
+                    if (scores.values[item] > 0) {
+                        top.offer(item, scores.values[item]);
+                    }
+                }
+                return top.toList();
+            } finally {
+                scores.clear();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long favoriteCount() {
+        lock.readLock().lock();
+        try {
+            return favoriteCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Число ненулевых ячеек матрицы (каждая пара учитывается дважды).
+     */
+    public long pairCount() {
+        lock.readLock().lock();
+        try {
+            return pairCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Оценка занимаемой памяти по длинам массивов (заголовок массива — 16 байт).
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = itemIndex.memoryBytes() + userIndex.memoryBytes();
+            bytes += array(8, itemIds.length) + array(4, itemUsers.length) + array(1, hidden.length)
+                    + array(4, rowItems.length) * 2 + array(4, rowSizes.length)
+                    + array(4, userItems.length) + array(4, userSizes.length);
+            for (int item = 0; item < itemCount; item++) {
+                if (rowItems[item] != null) {
+                    bytes += array(4, rowItems[item].length) * 2;
+                }
+            }
+            for (int user = 0; user < userCount; user++) {
+                if (userItems[user] != null) {
+                    bytes += array(4, userItems[user].length);
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double similarity(int item, int other, int count) {
+        return count / Math.sqrt((double) Math.max(itemUsers[item], 1) * Math.max(itemUsers[other], 1));
+    }
+
+    private void addPair(int first, int second, int delta) {
+        increment(first, second, delta);
+        increment(second, first, delta);
+    }
+
+    private void increment(int row, int column, int delta) {
+        int[] keys = rowItems[row];
+        int[] counts = rowCounts[row];
+        if (keys == null) {
+            if (delta <= 0) {
+                return;
+            }
+            keys = rowItems[row] = new int[INITIAL_ROW_CAPACITY];
+            counts = rowCounts[row] = new int[INITIAL_ROW_CAPACITY];
+        }
+
+        int mask = keys.length - 1;
+        int slot = hash(column) & mask;
+        while (counts[slot] != 0 && keys[slot] != column) {
+            slot = (slot + 1) & mask;
+        }
+
+        if (counts[slot] != 0) {
+            counts[slot] += delta;
+            if (counts[slot] <= 0) {
+                deleteSlot(keys, counts, slot);
+                rowSizes[row]--;
+                pairCount--;
+            }
+        } else if (delta > 0) {
+            keys[slot] = column;
+            counts[slot] = delta;
+            rowSizes[row]++;
+            pairCount++;
+            if (rowSizes[row] * 4 > keys.length * 3) {
+                resizeRow(row, keys.length * 2);
+            }
+        }
+    }
+
+    // Удаление со сдвигом назад: цепочки пробирования остаются непрерывными без надгробий
+    private static void deleteSlot(int[] keys, int[] counts, int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; counts[next] != 0; next = (next + 1) & mask) {
+            int ideal = hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                counts[gap] = counts[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        counts[gap] = 0;
+    }
+
+    private void resizeRow(int row, int capacity) {
+        int[] keys = rowItems[row];
+        int[] counts = rowCounts[row];
+        int[] nextKeys = new int[capacity];
+        int[] nextCounts = new int[capacity];
+        int mask = capacity - 1;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (counts[slot] != 0) {
+                int target = hash(keys[slot]) & mask;
+                while (nextCounts[target] != 0) {
+                    target = (target + 1) & mask;
+                }
+                nextKeys[target] = keys[slot];
+                nextCounts[target] = counts[slot];
+            }
+        }
+        rowItems[row] = nextKeys;
+        rowCounts[row] = nextCounts;
+    }
+
+    private int itemSlot(long newsId) {
+        int item = itemIndex.get(newsId);
+        if (item != LongIntHashMap.MISSING) {
+            return item;
+        }
+        if (itemCount == itemIds.length) {
+            int capacity = itemCount * 2;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            itemUsers = Arrays.copyOf(itemUsers, capacity);
+            hidden = Arrays.copyOf(hidden, capacity);
+            rowItems = Arrays.copyOf(rowItems, capacity);
+            rowCounts = Arrays.copyOf(rowCounts, capacity);
+            rowSizes = Arrays.copyOf(rowSizes, capacity);
+        }
+        item = itemCount++;
+        itemIds[item] = newsId;
+        itemIndex.put(newsId, item);
+        return item;
+    }
+
+    private int userSlot(long userId) {
+        int user = userIndex.get(userId);
+        if (user != LongIntHashMap.MISSING) {
+            return user;
+        }
+        if (userCount == userItems.length) {
+            int capacity = userCount * 2;
+            userItems = Arrays.copyOf(userItems, capacity);
+            userSizes = Arrays.copyOf(userSizes, capacity);
+        }
+        user = userCount++;
+        userIndex.put(userId, user);
+        return user;
+    }
+
+    private static int indexOf(int[] items, int size, int item) {
+        for (int k = 0; k < size; k++) {
+            if (items[k] == item) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static long array(int elementBytes, int length) {
+        return 16L + (long) elementBytes * length;
+    }
+
+    /**
+     * Лучшие k кандидатов: min-куча на примитивных массивах. При равных
+     * очках выше новость с меньшим id, чтобы выдача была стабильной.
+     */
+    private final class TopK {
+        private final int[] items;
+        private final double[] scores;
+        private int size;
+
+        TopK(int capacity) {
+            items = new int[capacity];
+            scores = new double[capacity];
+        }
+
+        void offer(int item, double score) {
+            if (size < items.length) {
+                items[size] = item;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (worse(items[0], scores[0], item, score)) {
+                items[0] = item;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        List<Recommendation> toList() {
+            List<Recommendation> result = new ArrayList<>(size);
+            while (size > 0) {
+                result.add(new Recommendation(itemIds[items[0]], scores[0]));
+                size--;
+                items[0] = items[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        // true, если (a, sa) хуже (b, sb)
+        private boolean worse(int a, double sa, int b, double sb) {
+            return sa < sb || (sa == sb && itemIds[a] > itemIds[b]);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(items[index], scores[index], items[parent], scores[parent])) {
+                    break;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= size) {
+                    return;
+                }
+                int right = left + 1;
+                int smallest = right < size && worse(items[right], scores[right], items[left], scores[left])
+                        ? right : left;
+                if (!worse(items[smallest], scores[smallest], items[index], scores[index])) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int item = items[a];
+            items[a] = items[b];
+            items[b] = item;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+
+    /**
+     * Плотный массив очков потока-читателя; после запроса обнуляются только
+     * затронутые ячейки, поэтому стоимость не зависит от числа новостей.
+     */
+    private static final class Accumulator {
+        private static final double EXCLUDED = Double.NEGATIVE_INFINITY;
+
+        double[] values = new double[0];
+        int[] touched = new int[16];
+        int touchedCount;
+
+        void reset(int capacity) {
+            if (values.length < capacity) {
+                values = new double[capacity];
+            }
+            touchedCount = 0;
+        }
+
+        void exclude(int item) {
+            if (values[item] == 0) {
+                touch(item);
+            }
+            values[item] = EXCLUDED;
+        }
+
+        void add(int item, double score) {
+            double current = values[item];
+            if (current == EXCLUDED) {
+                return;
+            }
+            if (current == 0) {
+                touch(item);
+            }
+            values[item] = current + score;
+        }
+
+        void clear() {
+            for (int k = 0; k < touchedCount; k++) {
+                values[touched[k]] = 0;
+            }
+            touchedCount = 0;
+        }
+
+        private void touch(int item) {
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touchedCount * 2);
+            }
+            touched[touchedCount++] = item;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.newsapp.service.recommend;
+
+import java.util.Arrays;
+
+/**
+ * Отображение long -> int на открытой адресации без упаковки ключей.
+ * Удаление не поддерживается: индексы новостей и пользователей только добавляются.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntHashMap() {
+        keys = new long[16];
+        values = new int[16];
+        Arrays.fill(values, MISSING);
+    }
+
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (values[slot] == MISSING) {
+                return MISSING;
+            }
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+    }
+
+    // value должен быть неотрицательным
+    void put(long key, int value) {
+        if ((size + 1) * 4L > keys.length * 3L) {
+            resize(keys.length * 2);
+        }
+        if (insert(keys, values, key, value)) {
+            size++;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long memoryBytes() {
+        return 16L + 8L * keys.length + 16L + 4L * values.length;
+    }
+
+    private void resize(int capacity) {
+        long[] nextKeys = new long[capacity];
+        int[] nextValues = new int[capacity];
+        Arrays.fill(nextValues, MISSING);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (values[slot] != MISSING) {
+                insert(nextKeys, nextValues, keys[slot], values[slot]);
+            }
+        }
+        keys = nextKeys;
+        values = nextValues;
+    }
+
+    private static boolean insert(long[] keys, int[] values, long key, int value) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (values[slot] == MISSING) {
+                keys[slot] = key;
+                values[slot] = value;
+                return true;
+            }
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return false;
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.newsapp.service.recommend;
+
+import com.example.newsapp.dto.RankedNewsDto;
+import com.example.newsapp.event.CacheResyncEvent;
+import com.example.newsapp.event.FavoriteToggledEvent;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.service.NewsFeedSnapshot;
+import com.example.newsapp.service.NewsStatsService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Рекомендации «сохранившие эту новость сохранили также» и персональная
+ * подборка по избранному.
+ * <p>
+ * Матрица {@link CoOccurrenceIndex} строится в фоне при старте, дальше
+ * обновляется инкрементально по событиям избранного и удаления новостей.
+ * Изменения, пришедшие во время перестройки, доигрываются на новом индексе:
+ * операции идемпотентны, поэтому повтор уже загруженного изменения безвреден.
+ * Избранное других экземпляров учитывается периодической перестройкой.
+ */
+@Service
+@Slf4j
+public class RecommendationService {
+
+    // Персональная подборка строится по последним сохранённым новостям
+    static final int PROFILE_SIZE = 50;
+
+    private static final String LOAD_SQL = """
+            select f.user_id, f.news_portal_id from favorites f
+            where f.user_id is not null and f.news_portal_id is not null
+            order by f.id
+            """;
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    // Загрузка курсором: драйвер PostgreSQL учитывает fetch size только внутри транзакции
+    private final JdbcTemplate loadTemplate;
+    private final TransactionTemplate loadTx;
+    private final NewsFeedSnapshot feedSnapshot;
+    private final NewsStatsService statsService;
+    private final int maxItemsPerUser;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "recommend-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private final Object updateLock = new Object();
+    private volatile CoOccurrenceIndex index;
+    // Не null, пока идёт перестройка
+    private List<Consumer<CoOccurrenceIndex>> pendingUpdates;
+
+    public RecommendationService(JdbcTemplate jdbcTemplate,
+                                 NewsFeedSnapshot feedSnapshot,
+                                 NewsStatsService statsService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.recommend.max-favorites-per-user:200}") int maxItemsPerUser) {
+        this.loadTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.loadTemplate.setFetchSize(LOAD_FETCH_SIZE);
+        this.loadTx = new TransactionTemplate(transactionManager);
+        this.loadTx.setReadOnly(true);
+        this.feedSnapshot = feedSnapshot;
+        this.statsService = statsService;
+        this.maxItemsPerUser = maxItemsPerUser;
+        this.index = new CoOccurrenceIndex(maxItemsPerUser);
+    }
+
+    public List<RankedNewsDto> related(Long newsId, int limit) {
+        return resolve(index.related(newsId, limit));
+    }
+
+    /**
+     * Без избранного (или пока индекс строится) — общий рейтинг «в тренде».
+     */
+    public List<RankedNewsDto> forUser(Long userId, int limit) {
+        List<RankedNewsDto> result = resolve(index.forUser(userId, PROFILE_SIZE, limit));
+        return result.isEmpty() ? statsService.trending(limit) : result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteToggled(FavoriteToggledEvent event) {
+        long userId = event.getUserId();
+        long newsId = event.getNewsPortalId();
+        apply(event.isAdded() ? target -> target.add(userId, newsId) : target -> target.remove(userId, newsId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsChanged(NewsChangedEvent event) {
+        if (event.getType() == NewsChangedEvent.Type.DELETED) {
+            long newsId = event.getNewsId();
+            apply(target -> target.hide(newsId));
+        }
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CacheResyncEvent.class})
+    public void onReady() {
+        scheduleRebuild();
+    }
+
+    // Убирает пары скрытых новостей и подтягивает избранное других экземпляров
+    @Scheduled(fixedDelayString = "${app.recommend.rebuild-interval-ms:21600000}",
+            initialDelayString = "${app.recommend.rebuild-interval-ms:21600000}")
+    public void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildScheduled.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    synchronized (updateLock) {
+                        pendingUpdates = null;
+                    }
+                    log.warn("Recommendation index rebuild failed: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        synchronized (updateLock) {
+            pendingUpdates = new ArrayList<>();
+        }
+
+        CoOccurrenceIndex next = new CoOccurrenceIndex(maxItemsPerUser);
+        loadTx.executeWithoutResult(status -> loadTemplate.query(LOAD_SQL,
+                rs -> {
+                    next.add(rs.getLong(1), rs.getLong(2));
+                }));
+
+        synchronized (updateLock) {
+            pendingUpdates.forEach(update -> update.accept(next));
+            pendingUpdates = null;
+            index = next;
+        }
+        log.info("Recommendation index built: {} favorites, {} pairs, ~{} KB in {} ms",
+                next.favoriteCount(), next.pairCount() / 2, next.memoryBytes() / 1024,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void apply(Consumer<CoOccurrenceIndex> update) {
+        synchronized (updateLock) {
+            update.accept(index);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        }
+    }
+
+    private List<RankedNewsDto> resolve(List<CoOccurrenceIndex.Recommendation> recommendations) {
+        List<RankedNewsDto> result = new ArrayList<>(recommendations.size());
+        for (CoOccurrenceIndex.Recommendation recommendation : recommendations) {
+            feedSnapshot.findById(recommendation.newsId())
+                    .ifPresent(news -> result.add(new RankedNewsDto(news, recommendation.score())));
+        }
+        return result;
+    }
+}
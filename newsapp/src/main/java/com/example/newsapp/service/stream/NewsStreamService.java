@@ -0,0 +1,300 @@
+package com.example.newsapp.service.stream;
+
+import com.example.newsapp.dto.NewsStreamEvent;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.event.TokenRevokedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SSE-поток новых и изменённых новостей для подписчиков категорий.
+ * <p>
+ * Соединения асинхронные и неблокирующие (см. {@link StreamSubscriber}):
+ * пока событий нет, соединение не занимает поток, только сокет и очередь.
+ * Все рассылки идут через один поток-диспетчер: событие сериализуется один
+ * раз и раздаётся подписчикам категории без ожидания медленных клиентов.
+ * События приходят и от других экземпляров (через шину инвалидации), поэтому
+ * каждый экземпляр обслуживает своих подписчиков сам. Пачку событий, которую
+ * клиент не успел забрать, заменяет один кадр {@code resync}.
+ * <p>
+ * Удаления не рассылаются: клиент узнаёт о них при обычной синхронизации.
+ */
+@Service
+@Slf4j
+public class NewsStreamService {
+
+    public static final int MAX_CATEGORIES = 50;
+
+    private static final int DISPATCH_QUEUE_CAPACITY = 10_000;
+    // Разброс задержки переподключения: после остановки экземпляра клиенты не приходят все разом
+    private static final int MIN_RETRY_MS = 2_000;
+    private static final int MAX_RETRY_MS = 10_000;
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final int maxPendingEvents;
+    private final long maxDurationMs;
+
+    private final Set<StreamSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<StreamSubscriber>> byCategory = new ConcurrentHashMap<>();
+    private final BlockingQueue<Runnable> tasks = new ArrayBlockingQueue<>(DISPATCH_QUEUE_CAPACITY);
+
+    private final Counter slowConsumers;
+    private final Counter droppedEvents;
+    private final Counter resyncs;
+
+    private volatile boolean accepting = true;
+    private Thread dispatcher;
+
+    public NewsStreamService(ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.stream.max-subscribers:25000}") int maxSubscribers,
+                             @Value("${app.stream.max-pending-events:64}") int maxPendingEvents,
+                             @Value("${app.stream.max-duration-ms:1800000}") long maxDurationMs) {
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPendingEvents = Math.max(maxPendingEvents, 1);
+        this.maxDurationMs = maxDurationMs;
+        Gauge.builder("news.stream.subscribers", subscribers, Set::size)
+                .description("Open news stream connections")
+                .register(meterRegistry);
+        this.slowConsumers = dropped(meterRegistry, "slow-consumer");
+        this.droppedEvents = dropped(meterRegistry, "queue-full");
+        this.resyncs = dropped(meterRegistry, "resync");
+    }
+
+    /**
+     * Переводит запрос в асинхронный режим и подписывает его на категории.
+     * Ответ остаётся открытым до отключения клиента, остановки чтения,
+     * отзыва токена пользователя или {@code app.stream.max-duration-ms}.
+     */
+    public void subscribe(Long userId,
+                          Collection<Long> categoryIds,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        Set<Long> categories = normalizeCategories(categoryIds);
+        if (!accepting || subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many news streams");
+        }
+
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // Прокси вроде nginx не должны буферизовать поток
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(maxDurationMs);
+        StreamSubscriber subscriber = new StreamSubscriber(this, userId, categories, asyncContext,
+                response.getOutputStream(), maxPendingEvents, preamble());
+        asyncContext.addListener(subscriber);
+
+        subscribers.add(subscriber);
+        for (Long categoryId : categories) {
+            byCategory.compute(categoryId, (id, set) -> {
+                Set<StreamSubscriber> next = set != null ? set : ConcurrentHashMap.newKeySet();
+                next.add(subscriber);
+                return next;
+            });
+        }
+        subscriber.start();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsChanged(NewsChangedEvent event) {
+        if (event.getType() != NewsChangedEvent.Type.SAVED) {
+            return;
+        }
+        Long categoryId = event.getNews().getCategoryId();
+        if (categoryId == null || !byCategory.containsKey(categoryId)) {
+            return;
+        }
+        NewsStreamEvent payload = NewsStreamEvent.from(event.getNews());
+        submit(() -> broadcast(categoryId, frame(payload)));
+    }
+
+    // Отозванный токен больше не принимается — его потоки закрываются, переподключение потребует новый
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        submit(() -> {
+            for (StreamSubscriber subscriber : subscribers) {
+                if (subscriber.getUserId().equals(event.getUserId())) {
+                    subscriber.close();
+                }
+            }
+        });
+    }
+
+    // Комментарий SSE: держит соединение через прокси и находит ушедших клиентов
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        submit(() -> {
+            for (StreamSubscriber subscriber : subscribers) {
+                if (!subscriber.ping(HEARTBEAT)) {
+                    slowConsumers.increment();
+                }
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (dispatcher != null) {
+            return;
+        }
+        dispatcher = new Thread(this::dispatchLoop, "news-stream-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    // ContextClosedEvent приходит до graceful shutdown веб-сервера, который иначе ждал бы открытые потоки
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        accepting = false;
+        for (StreamSubscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+
+    void unregister(StreamSubscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (Long categoryId : subscriber.getCategoryIds()) {
+            byCategory.computeIfPresent(categoryId, (id, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    // Выполняет накопленные задачи в вызывающем потоке (для тестов без диспетчера)
+    void runPendingTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                tasks.take().run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("News stream dispatch failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Вызывается из потоков запросов после коммита, поэтому никогда не ждёт
+    private void submit(Runnable task) {
+        if (!tasks.offer(task)) {
+            droppedEvents.increment();
+        }
+    }
+
+    private void broadcast(Long categoryId, byte[] frame) {
+        Set<StreamSubscriber> targets = byCategory.get(categoryId);
+        if (targets == null) {
+            return;
+        }
+        for (StreamSubscriber subscriber : targets) {
+            deliver(subscriber, frame);
+        }
+    }
+
+    private void deliver(StreamSubscriber subscriber, byte[] frame) {
+        if (!subscriber.offer(frame)) {
+            resyncs.increment();
+        }
+    }
+
+    private byte[] frame(NewsStreamEvent payload) {
+        try {
+            String data = objectMapper.writeValueAsString(payload);
+            return ("event: news\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize news stream event", e);
+        }
+    }
+
+    private static byte[] preamble() {
+        int retryMs = ThreadLocalRandom.current().nextInt(MIN_RETRY_MS, MAX_RETRY_MS + 1);
+        return ("retry: " + retryMs + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Set<Long> normalizeCategories(Collection<Long> categoryIds) {
+        Set<Long> normalized = new TreeSet<>();
+        if (categoryIds != null) {
+            categoryIds.stream().filter(Objects::nonNull).forEach(normalized::add);
+        }
+        if (normalized.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "categories must not be empty");
+        }
+        if (normalized.size() > MAX_CATEGORIES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_CATEGORIES + " categories per stream");
+        }
+        return normalized;
+    }
+
+    private static Counter dropped(MeterRegistry registry, String reason) {
+        return Counter.builder("news.stream.dropped")
+                .description("News stream drops: resync replaced pending events of a client with one resync "
+                        + "frame, slow-consumer closed a client that did not read that frame until the next "
+                        + "heartbeat, queue-full skipped an event because the dispatcher queue was full")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.newsapp.service.stream;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Set;
+
+/**
+ * Одно SSE-соединение в неблокирующем режиме сервлета.
+ * <p>
+ * Пишет только пока {@link ServletOutputStream#isReady()}: ни диспетчер, ни
+ * поток контейнера не ждут медленный сокет. Неотправленные кадры копятся в
+ * очереди не длиннее {@code maxPending}. При переполнении (пачка событий вроде
+ * массовой смены категории) очередь заменяется одним кадром {@code resync}:
+ * клиент перечитает ленту синхронизацией. Клиент, не забравший этот кадр
+ * до следующего heartbeat, не читает поток и отключается.
+ */
+final class StreamSubscriber implements WriteListener, AsyncListener {
+
+    static final byte[] RESYNC = "event: resync\ndata: {}\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final NewsStreamService owner;
+    private final Long userId;
+    private final Set<Long> categoryIds;
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final int maxPending;
+
+    private final ArrayDeque<byte[]> pending = new ArrayDeque<>();
+    private boolean started;
+    private boolean flushNeeded;
+    private boolean closed;
+    // RESYNC в очереди: новые кадры не нужны, клиент всё равно перечитает ленту
+    private boolean resyncQueued;
+    private boolean resyncStalled;
+
+    StreamSubscriber(NewsStreamService owner,
+                     Long userId,
+                     Set<Long> categoryIds,
+                     AsyncContext asyncContext,
+                     ServletOutputStream out,
+                     int maxPending,
+                     byte[] preamble) {
+        this.owner = owner;
+        this.userId = userId;
+        this.categoryIds = Set.copyOf(categoryIds);
+        this.asyncContext = asyncContext;
+        this.out = out;
+        this.maxPending = maxPending;
+        this.pending.add(preamble);
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    /**
+     * Включает неблокирующую запись; до этого кадры только копятся
+     * (isReady() вне неблокирующего режима недоступен).
+     */
+    synchronized void start() {
+        if (closed) {
+            return;
+        }
+        started = true;
+        try {
+            out.setWriteListener(this);
+        } catch (IllegalStateException e) {
+            close();
+        }
+    }
+
+    /**
+     * Ставит кадр в очередь и пишет, сколько сокет примет сейчас.
+     * {@code false} — очередь переполнена и заменена кадром {@code resync}.
+     */
+    synchronized boolean offer(byte[] frame) {
+        if (closed || resyncQueued) {
+            return true;
+        }
+        if (pending.size() >= maxPending) {
+            pending.clear();
+            pending.add(RESYNC);
+            resyncQueued = true;
+            resyncStalled = false;
+            drain();
+            return false;
+        }
+        pending.add(frame);
+        drain();
+        return true;
+    }
+
+    /**
+     * Heartbeat: как {@link #offer}, но если {@code resync} не ушёл с прошлого
+     * heartbeat, клиент отключается. {@code false} — клиент отключён.
+     */
+    synchronized boolean ping(byte[] frame) {
+        if (closed) {
+            return true;
+        }
+        if (resyncQueued) {
+            if (resyncStalled) {
+                close();
+                return false;
+            }
+            resyncStalled = true;
+            return true;
+        }
+        offer(frame);
+        return true;
+    }
+
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.clear();
+        owner.unregister(this);
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            // Контейнер уже завершил запрос (клиент ушёл)
+        }
+    }
+
+    @Override
+    public synchronized void onWritePossible() {
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        close();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        synchronized (this) {
+            closed = true;
+            pending.clear();
+        }
+        owner.unregister(this);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    // Вызывается под блокировкой; если сокет занят, контейнер позовёт onWritePossible
+    private void drain() {
+        if (!started || closed) {
+            return;
+        }
+        try {
+            while (out.isReady()) {
+                byte[] frame = pending.poll();
+                if (frame != null) {
+                    out.write(frame);
+                    flushNeeded = true;
+                    if (frame == RESYNC) {
+                        resyncQueued = false;
+                    }
+                } else if (flushNeeded) {
+                    flushNeeded = false;
+                    out.flush();
+                } else {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            close();
+        }
+    }
+}
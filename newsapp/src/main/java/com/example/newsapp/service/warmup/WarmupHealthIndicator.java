@@ -0,0 +1,28 @@
+package com.example.newsapp.service.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Компонент {@code warmup} группы readiness: OUT_OF_SERVICE, пока идёт прогрев.
+ * В liveness не входит — прогрев не повод перезапускать экземпляр.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupService warmupService;
+
+    public WarmupHealthIndicator(WarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmupService.isComplete() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("iterations", warmupService.getCompletedIterations())
+                .withDetail("durationMs", warmupService.getDurationMillis())
+                .build();
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.newsapp.service.warmup;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.entity.Category;
+import com.example.newsapp.entity.User;
+import com.example.newsapp.repository.CategoryRepository;
+import com.example.newsapp.repository.NewsPortalRepository;
+import com.example.newsapp.service.JwtService;
+import com.example.newsapp.service.NewsFeedSnapshot;
+import com.example.newsapp.service.NewsStatsService;
+import com.example.newsapp.service.SuggestService;
+import com.example.newsapp.service.recommend.RecommendationService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Прогрев только что запущенного экземпляра: пул соединений, запросы
+ * репозиториев и планы Hibernate, разбор JWT, сериализаторы Jackson для
+ * всех форматов ответа и JIT на этих путях.
+ * <p>
+ * Стартует, когда Spring Boot объявляет готовность (к этому моменту
+ * кэши, загружаемые при старте, уже заполнены), и идёт в отдельном потоке.
+ * Пока прогрев не закончен, {@link WarmupHealthIndicator} держит
+ * {@code /actuator/health/readiness} в OUT_OF_SERVICE. Ошибка прогрева
+ * не оставляет экземпляр неготовым: это только оптимизация.
+ */
+@Service
+@Slf4j
+public class WarmupService {
+
+    private static final List<MediaType> RESPONSE_FORMATS = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.valueOf("application/cbor"),
+            MediaType.valueOf("application/x-jackson-smile"));
+    private static final int SAMPLE_LIMIT = 20;
+    // Только для выпуска и разбора токена, в БД не сохраняется
+    private static final User WARMUP_USER = User.builder()
+            .id(0L)
+            .email("warmup@newsapp.local")
+            .role("USER")
+            .build();
+
+    private final DataSource dataSource;
+    private final NewsPortalRepository newsRepo;
+    private final CategoryRepository categoryRepo;
+    private final JwtService jwtService;
+    private final NewsFeedSnapshot feedSnapshot;
+    private final SuggestService suggestService;
+    private final NewsStatsService statsService;
+    private final RecommendationService recommendationService;
+    private final RequestMappingHandlerAdapter handlerAdapter;
+    private final boolean enabled;
+    private final int iterations;
+    private final long maxDurationNanos;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean complete;
+    private volatile long durationMillis;
+    private volatile int completedIterations;
+
+    public WarmupService(DataSource dataSource,
+                         NewsPortalRepository newsRepo,
+                         CategoryRepository categoryRepo,
+                         JwtService jwtService,
+                         NewsFeedSnapshot feedSnapshot,
+                         SuggestService suggestService,
+                         NewsStatsService statsService,
+                         RecommendationService recommendationService,
+                         RequestMappingHandlerAdapter handlerAdapter,
+                         @Value("${app.warmup.enabled:true}") boolean enabled,
+                         @Value("${app.warmup.iterations:200}") int iterations,
+                         @Value("${app.warmup.max-duration-seconds:30}") long maxDurationSeconds) {
+        this.dataSource = dataSource;
+        this.newsRepo = newsRepo;
+        this.categoryRepo = categoryRepo;
+        this.jwtService = jwtService;
+        this.feedSnapshot = feedSnapshot;
+        this.suggestService = suggestService;
+        this.statsService = statsService;
+        this.recommendationService = recommendationService;
+        this.handlerAdapter = handlerAdapter;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDurationNanos = maxDurationSeconds * 1_000_000_000L;
+        this.complete = !enabled;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public int getCompletedIterations() {
+        return completedIterations;
+    }
+
+    // ACCEPTING_TRAFFIC публикуется после всех слушателей ApplicationReadyEvent
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (enabled && event.getState() == ReadinessState.ACCEPTING_TRAFFIC && started.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::run, "warmup");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    void run() {
+        long started = System.nanoTime();
+        try {
+            primePool();
+            long deadline = started + maxDurationNanos;
+            int done = 0;
+            while (done < iterations && System.nanoTime() < deadline) {
+                runIteration();
+                completedIterations = ++done;
+            }
+            log.info("Warm-up finished: {} iterations in {} ms", done, (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException | IOException | SQLException e) {
+            log.warn("Warm-up failed after {} ms: {}", (System.nanoTime() - started) / 1_000_000, e.getMessage());
+        } finally {
+            durationMillis = (System.nanoTime() - started) / 1_000_000;
+            complete = true;
+        }
+    }
+
+    // Соединения открываются сразу до minimumIdle, а не по одному на первых запросах
+    private void primePool() throws SQLException {
+        int size = dataSource instanceof HikariDataSource hikari
+                ? Math.max(hikari.getMinimumIdle(), 1)
+                : 1;
+        List<Connection> connections = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                connection.isValid(5);
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    private void runIteration() throws IOException {
+        // Те же запросы, что у списков, поиска и категорий
+        List<NewsPortalDto> news = newsRepo.findAllViews();
+        newsRepo.findAllSummaryViews();
+        newsRepo.search("news");
+        List<Category> categories = categoryRepo.findAll();
+        if (!categories.isEmpty()) {
+            newsRepo.findViewsByCategoryId(categories.get(0).getId());
+        }
+
+        // Выпуск и проверка токена, как в логине и JwtAuthenticationFilter
+        String token = jwtService.generateToken(WARMUP_USER);
+        Claims claims = jwtService.parseClaims(token);
+        jwtService.extractUserId(claims);
+        jwtService.extractTokenVersion(claims);
+
+        // Кэши в памяти и ответы в каждом формате
+        Long firstNewsId = news.isEmpty() ? 0L : news.get(0).getId();
+        write(feedSnapshot.all());
+        write(categories);
+        write(statsService.trending(SAMPLE_LIMIT));
+        write(recommendationService.related(firstNewsId, SAMPLE_LIMIT));
+        write(suggestService.suggest("n", SuggestService.MAX_SUGGESTIONS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(Object value) throws IOException {
+        for (MediaType mediaType : RESPONSE_FORMATS) {
+            for (HttpMessageConverter<?> converter : handlerAdapter.getMessageConverters()) {
+                if (converter.canWrite(value.getClass(), mediaType)) {
+                    ((HttpMessageConverter<Object>) converter).write(value, mediaType, new DiscardingMessage());
+                    break;
+                }
+            }
+        }
+    }
+
+    private static final class DiscardingMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+-- Таблицы и ограничения, которых не было в базовой схеме V1.
+-- "if not exists" — на базах, где их уже создал ddl-auto=update.
+
+-- AuthController различает конфликт регистрации по имени ограничения.
+-- Если в базе уже есть одинаковые username, миграция остановится: такие
+-- учётные записи нужно разобрать вручную.
+do $$
+begin
+    if not exists (select 1 from pg_constraint
+                   where conrelid = 'users'::regclass and conname = 'uk_users_username') then
+        alter table users add constraint uk_users_username unique (username);
+    end if;
+end $$;
+
+create table if not exists sync_changes (
+    id bigint generated by default as identity,
+    entity_type varchar(16) not null check (entity_type in ('NEWS', 'CATEGORY')),
+    entity_id bigint not null,
+    deleted boolean not null,
+    changed_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index if not exists idx_sync_changes_entity on sync_changes (entity_type, entity_id);
+create index if not exists idx_sync_changes_tombstones on sync_changes (deleted, changed_at);
+
+create table if not exists sync_state (
+    id bigint not null,
+    purged_through_version bigint not null,
+    primary key (id)
+);
+
+create table if not exists news_stats (
+    news_portal_id bigint not null,
+    view_count bigint not null,
+    favorite_count bigint not null,
+    primary key (news_portal_id)
+);
+
+create table if not exists portal_metadata (
+    news_portal_id bigint not null,
+    fetched_title varchar(512),
+    fetched_description varchar(2048),
+    favicon_url varchar(2048),
+    feed_url varchar(2048),
+    etag varchar(255),
+    last_modified varchar(64),
+    health_status varchar(16) check (health_status in ('UP', 'DOWN', 'UNREACHABLE')),
+    http_status integer,
+    last_error varchar(512),
+    consecutive_failures integer not null,
+    last_checked_at timestamp(6),
+    last_success_at timestamp(6),
+    primary key (news_portal_id)
+);
+
+create table if not exists articles (
+    id bigint generated by default as identity,
+    news_portal_id bigint not null,
+    dedup_key varchar(64) not null,
+    guid varchar(1024),
+    title varchar(1024),
+    link varchar(2048),
+    summary text,
+    published_at timestamp(6),
+    fetched_at timestamp(6) not null,
+    primary key (id),
+    constraint idx_articles_dedup_key unique (dedup_key)
+);
+
+create table if not exists user_avatars (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    pixel_size integer not null,
+    content_type varchar(32) not null,
+    bytes bytea not null,
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_user_avatars_user_size unique (user_id, pixel_size)
+);
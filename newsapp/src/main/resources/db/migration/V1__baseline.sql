@@ -0,0 +1,56 @@
+-- Схема, которую создавал ddl-auto=update до перехода на миграции.
+-- На существующих базах эта версия принимается как baseline и не выполняется,
+-- поэтому всё, что появилось позже, добавляют следующие версии.
+
+create table categories (
+    id bigint generated by default as identity,
+    name varchar(255),
+    primary key (id)
+);
+
+create table news_portals (
+    id bigint generated by default as identity,
+    title varchar(255),
+    url varchar(255),
+    description varchar(255),
+    category_id bigint,
+    primary key (id),
+    constraint fk_news_portals_category foreign key (category_id) references categories
+);
+
+create table users (
+    id bigint generated by default as identity,
+    email varchar(255),
+    username varchar(255),
+    password varchar(255),
+    role varchar(255),
+    avatar_base64 text,
+    theme_preference varchar(255) not null,
+    primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table favorites (
+    id bigint generated by default as identity,
+    user_id bigint,
+    news_portal_id bigint,
+    primary key (id),
+    constraint fk_favorites_user foreign key (user_id) references users,
+    constraint fk_favorites_news_portal foreign key (news_portal_id) references news_portals
+);
+
+create table password_reset_tokens (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    token_hash varchar(64) not null,
+    expires_at timestamp(6) not null,
+    created_at timestamp(6) not null,
+    used_at timestamp(6),
+    request_ip varchar(64),
+    user_agent varchar(255),
+    primary key (id),
+    constraint idx_password_reset_token_hash unique (token_hash),
+    constraint fk_password_reset_tokens_user foreign key (user_id) references users
+);
+
+create index idx_password_reset_user on password_reset_tokens (user_id);
@@ -0,0 +1,15 @@
+-- Индексы под запросы репозиториев. "if not exists" — на базах, где
+-- часть индексов уже создал ddl-auto=update.
+
+-- NewsPortalRepository.findViewsByCategoryId, удаление категории
+create index if not exists idx_news_portals_category on news_portals (category_id);
+
+-- FavoriteRepository: existsBy/deleteBy UserIdAndNewsPortalId, findViewsByUserId
+create index if not exists idx_favorites_user_news on favorites (user_id, news_portal_id);
+
+-- Подсчёт избранного по новости, удаление новости
+create index if not exists idx_favorites_news on favorites (news_portal_id);
+
+-- ArticleRepository.findByNewsPortalIdOrderByPublishedAtDescIdDesc
+drop index if exists idx_articles_portal_published;
+create index if not exists idx_articles_portal_published on articles (news_portal_id, published_at, id);
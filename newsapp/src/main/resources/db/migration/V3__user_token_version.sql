@@ -0,0 +1,2 @@
+-- Версия JWT пользователя: токены с меньшей версией считаются отозванными
+alter table users add column if not exists token_version integer default 0 not null;
@@ -0,0 +1,25 @@
+-- Инварианты, которые раньше держались только проверкой перед записью
+-- и нарушались одновременными запросами.
+
+-- Повторы избранного: оставляем самую раннюю запись пары
+delete from favorites f
+using favorites d
+where f.user_id = d.user_id
+  and f.news_portal_id = d.news_portal_id
+  and f.id > d.id;
+
+-- FavoriteService.toggleFavorite: повторная вставка пары становится no-op.
+-- ddl-auto создаёт уникальный @Index как ограничение, V2 — как обычный индекс
+alter table favorites drop constraint if exists idx_favorites_user_news;
+drop index if exists idx_favorites_user_news;
+create unique index idx_favorites_user_news on favorites (user_id, news_portal_id);
+
+-- Не больше одного неиспользованного токена сброса на пользователя: остаётся последний
+update password_reset_tokens t
+set used_at = t.created_at
+where t.used_at is null
+  and exists (select 1 from password_reset_tokens n
+              where n.user_id = t.user_id and n.used_at is null and n.id > t.id);
+
+create unique index if not exists idx_password_reset_user_active
+    on password_reset_tokens (user_id) where used_at is null;
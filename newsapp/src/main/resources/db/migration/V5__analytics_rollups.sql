@@ -0,0 +1,29 @@
+-- Время создания для аналитики; у строк, созданных раньше, остаётся пустым
+alter table users add column if not exists created_at timestamp(6);
+alter table favorites add column if not exists created_at timestamp(6);
+
+-- Сводки для /api/admin/stats (AnalyticsService); заполняются при первом запуске
+create table if not exists analytics_daily (
+    day date not null,
+    signups bigint default 0 not null,
+    favorites_added bigint default 0 not null,
+    favorites_removed bigint default 0 not null,
+    reset_requests bigint default 0 not null,
+    resets_completed bigint default 0 not null,
+    primary key (day)
+);
+
+-- Категория на момент события, без внешнего ключа
+create table if not exists analytics_category_daily (
+    day date not null,
+    category_id bigint not null,
+    favorites_added bigint default 0 not null,
+    favorites_removed bigint default 0 not null,
+    primary key (day, category_id)
+);
+
+create table if not exists analytics_totals (
+    metric varchar(32) not null,
+    value bigint not null,
+    primary key (metric)
+);
@@ -0,0 +1,344 @@
+package com.example.newsapp;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.dto.SyncResponse;
+import com.example.newsapp.entity.Category;
+import com.example.newsapp.entity.NewsPortal;
+import com.example.newsapp.entity.User;
+import com.example.newsapp.repository.UserRepository;
+import com.example.newsapp.service.JwtService;
+import com.example.newsapp.service.NewsPortalService;
+import com.example.newsapp.service.NewsStatsService;
+import com.example.newsapp.service.SyncService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Одновременные клиенты на путях записи «проверить, затем изменить»: избранное,
+ * регистрация, запрос сброса пароля, журнал синхронизации. Проверяет инварианты в БД и печатает
+ * пропускную способность и задержки.
+ * <p>
+ * Нужна локальная PostgreSQL (например, {@code docker compose up -d db}); данные
+ * теста помечаются префиксом и удаляются после него. Запуск:
+ * {@code SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/newsapp
+ * mvn test -Dexcluded.test.groups= -Dgroups=stress -Dtest=ConcurrencyStressTest}.
+ * Число клиентов и операций на клиента: {@code -Dstress.clients=200 -Dstress.ops=20}.
+ */
+@Tag("stress")
+// Сброс нагрузки отключён: нужны все запросы до сервисов, а не 503 сверх лимита
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "app.limiter.enabled=false")
+class ConcurrencyStressTest {
+
+    private static final int CLIENTS = Integer.getInteger("stress.clients", 200);
+    private static final int OPS = Integer.getInteger("stress.ops", 20);
+
+    private final String prefix = "stress-" + System.currentTimeMillis();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NewsStatsService statsService;
+
+    @Autowired
+    private NewsPortalService newsPortalService;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Test
+    void favoriteTogglesNeverDuplicateAndKeepParity() throws Exception {
+        List<User> users = createUsers("fav", 5);
+        List<Long> news = createNews(4);
+        List<String> tokens = users.stream().map(jwtService::generateToken).toList();
+        // Все клиенты делят 20 пар пользователь-новость: каждая пара переключается сотни раз одновременно
+        Map<String, AtomicInteger> toggles = new ConcurrentHashMap<>();
+
+        Report report = run("favorite toggle", CLIENTS, OPS, (clientId, op, random) -> {
+            int userIndex = random.nextInt(users.size());
+            long newsId = news.get(random.nextInt(news.size()));
+            long userId = users.get(userIndex).getId();
+            int status = send(HttpRequest.newBuilder(uri("/api/favorites/" + userId + "/" + newsId))
+                    .header("Authorization", "Bearer " + tokens.get(userIndex))
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            if (status == 200) {
+                toggles.computeIfAbsent(userId + ":" + newsId, key -> new AtomicInteger()).incrementAndGet();
+            }
+            return status;
+        });
+
+        assertThat(report.statuses()).containsOnlyKeys(200);
+        String userIds = ids(users.stream().map(User::getId).toList());
+        assertThat(jdbcTemplate.queryForObject("""
+                select count(*) from (select 1 from favorites where user_id in (%s)
+                group by user_id, news_portal_id having count(*) > 1) d
+                """.formatted(userIds), Long.class)).isZero();
+        // Каждый успешный вызов переключает состояние ровно один раз
+        for (User user : users) {
+            for (long newsId : news) {
+                AtomicInteger count = toggles.get(user.getId() + ":" + newsId);
+                boolean expected = count != null && count.get() % 2 == 1;
+                Long rows = jdbcTemplate.queryForObject(
+                        "select count(*) from favorites where user_id = ? and news_portal_id = ?",
+                        Long.class, user.getId(), newsId);
+                assertThat(rows).as("favorite %d:%d", user.getId(), newsId).isEqualTo(expected ? 1 : 0);
+            }
+        }
+        // Счётчики избранного ведутся по событиям toggle и должны совпасть с таблицей
+        for (long newsId : news) {
+            Long rows = jdbcTemplate.queryForObject(
+                    "select count(*) from favorites where news_portal_id = ?", Long.class, newsId);
+            assertThat(statsService.favoriteCount(newsId)).as("favorite count of %d", newsId).isEqualTo(rows);
+        }
+    }
+
+    @Test
+    void concurrentRegistrationsCreateOneUserPerEmail() throws Exception {
+        int accounts = 20;
+        // Все клиенты стартуют одновременно, на каждый аккаунт приходится CLIENTS / accounts попыток
+        Report report = run("register", CLIENTS, 1, (clientId, op, random) -> {
+            String name = prefix + "-reg-" + (clientId % accounts);
+            String body = """
+                    {"email":"%s@stress.local","username":"%s","password":"secret123"}
+                    """.formatted(name, name);
+            return send(HttpRequest.newBuilder(uri("/api/auth/register"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+        });
+
+        assertThat(report.statuses()).containsOnlyKeys(200, 409);
+        assertThat(report.statuses().get(200)).isEqualTo(accounts);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from users where email like ?", Long.class, prefix + "-reg-%")).isEqualTo(accounts);
+    }
+
+    @Test
+    void concurrentResetRequestsLeaveOneActiveTokenPerUser() throws Exception {
+        List<User> users = createUsers("reset", 10);
+
+        Report report = run("forgot password", CLIENTS, OPS, (clientId, op, random) -> {
+            String body = "{\"email\":\"" + users.get(random.nextInt(users.size())).getEmail() + "\"}";
+            return send(HttpRequest.newBuilder(uri("/api/auth/forgot-password"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+        });
+
+        assertThat(report.statuses()).containsOnlyKeys(200);
+        String userIds = ids(users.stream().map(User::getId).toList());
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from password_reset_tokens where user_id in (" + userIds + ")", Long.class))
+                .isEqualTo(report.statuses().get(200).longValue());
+        List<Long> activeCounts = jdbcTemplate.queryForList("""
+                select count(*) filter (where t.used_at is null) from users u
+                left join password_reset_tokens t on t.user_id = u.id
+                where u.id in (%s) group by u.id
+                """.formatted(userIds), Long.class);
+        assertThat(activeCounts).hasSize(users.size()).containsOnly(1L);
+        // Итог мог исправить следующий запрос, поэтому проверяем и историю: каждый токен
+        // гасится ровно в момент создания следующего, два действующих одновременно не было
+        assertThat(jdbcTemplate.queryForObject("""
+                select count(*) from (
+                    select used_at, lead(created_at) over (partition by user_id order by id) as next_created_at
+                    from password_reset_tokens where user_id in (%s)) t
+                where t.next_created_at is not null and t.used_at is distinct from t.next_created_at
+                """.formatted(userIds), Long.class)).isZero();
+    }
+
+    @Test
+    void syncReaderNeverSkipsChangesCommittedOutOfOrder() throws Exception {
+        int clients = Math.min(CLIENTS, 50);
+        List<Long> news = createNews(clients * OPS);
+        Long categoryId = jdbcTemplate.queryForObject("select id from categories where name = ?", Long.class, prefix);
+        // Версия > 0, чтобы читатель сразу получал инкрементальные ответы
+        newsPortalService.update(news.get(0), portal(news.get(0), categoryId));
+        long initial = syncService.changesSince(0).getVersion();
+
+        // Читатель опрашивает журнал, пока идут записи; каждая новость меняется ровно один раз
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        Future<?> polling = reader.submit(() -> {
+            long since = initial;
+            boolean last = false;
+            while (!last) {
+                last = !writing.get();
+                SyncResponse response = syncService.changesSince(since);
+                assertThat(response.isFullResync()).isFalse();
+                response.getNews().stream().map(NewsPortalDto::getId).forEach(seen::add);
+                since = response.getVersion();
+            }
+            return null;
+        });
+
+        Report report = run("news update", clients, OPS, (clientId, op, random) -> {
+            Long id = news.get(clientId * OPS + op);
+            return newsPortalService.update(id, portal(id, categoryId)).isPresent() ? 200 : 404;
+        });
+        writing.set(false);
+        polling.get();
+        reader.shutdown();
+
+        assertThat(report.statuses()).containsOnlyKeys(200);
+        assertThat(seen).containsAll(news.subList(1, news.size()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        // Отложенные счётчики пишутся в news_stats — сбрасываем до удаления
+        statsService.flush();
+        String users = "select id from users where email like '" + prefix + "%'";
+        String news = "select id from news_portals where title like '" + prefix + "%'";
+        jdbcTemplate.update("delete from password_reset_tokens where user_id in (" + users + ")");
+        jdbcTemplate.update("delete from favorites where user_id in (" + users + ")");
+        jdbcTemplate.update("delete from news_stats where news_portal_id in (" + news + ")");
+        jdbcTemplate.update("delete from sync_changes where entity_type = 'NEWS' and entity_id in (" + news + ")");
+        jdbcTemplate.update("delete from news_portals where title like ?", prefix + "%");
+        jdbcTemplate.update("delete from categories where name = ?", prefix);
+        jdbcTemplate.update("delete from users where email like ?", prefix + "%");
+    }
+
+    private interface Operation {
+        int run(int clientId, int op, SplittableRandom random) throws Exception;
+    }
+
+    private record Report(Map<Integer, Integer> statuses) {
+    }
+
+    /**
+     * {@code clients} потоков стартуют одновременно и выполняют по {@code ops} операций.
+     * Ошибки транспорта считаются статусом -1.
+     */
+    private Report run(String name, int clients, int ops, Operation operation) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        for (int c = 0; c < clients; c++) {
+            int clientId = c;
+            results.add(pool.submit(() -> {
+                SplittableRandom random = new SplittableRandom(clientId);
+                long[] latencies = new long[ops];
+                start.await();
+                for (int op = 0; op < ops; op++) {
+                    long started = System.nanoTime();
+                    int status;
+                    try {
+                        status = operation.run(clientId, op, random);
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    latencies[op] = System.nanoTime() - started;
+                    statuses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+                }
+                return latencies;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        long[] all = new long[clients * ops];
+        int offset = 0;
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get();
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        pool.shutdown();
+
+        Arrays.sort(all);
+        Map<Integer, Integer> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.get()));
+        System.out.printf("%-16s %d clients x %d ops: %.0f ops/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, statuses %s%n",
+                name, clients, ops, all.length / (elapsedNanos / 1e9),
+                all[all.length / 2] / 1e6, all[all.length * 99 / 100] / 1e6, all[all.length - 1] / 1e6, counts);
+        return new Report(counts);
+    }
+
+    private int send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private List<User> createUsers(String kind, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String name = prefix + "-" + kind + "-" + i;
+            users.add(userRepository.save(User.builder()
+                    .email(name + "@stress.local")
+                    .username(name)
+                    .password("-")
+                    .role("USER")
+                    .build()));
+        }
+        return users;
+    }
+
+    private List<Long> createNews(int count) {
+        Long categoryId = jdbcTemplate.queryForObject(
+                "insert into categories (name) values (?) returning id", Long.class, prefix);
+        List<Long> news = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            news.add(jdbcTemplate.queryForObject(
+                    "insert into news_portals (title, url, description, category_id) values (?, ?, ?, ?) returning id",
+                    Long.class, prefix + "-" + i, "https://stress.local/" + i, "stress", categoryId));
+        }
+        return news;
+    }
+
+    private NewsPortal portal(Long id, Long categoryId) {
+        NewsPortal portal = new NewsPortal();
+        portal.setTitle(prefix + "-" + id);
+        portal.setUrl("https://stress.local/updated/" + id);
+        portal.setDescription("updated");
+        Category category = new Category();
+        category.setId(categoryId);
+        portal.setCategory(category);
+        return portal;
+    }
+
+    private static String ids(List<Long> ids) {
+        return String.join(",", ids.stream().map(String::valueOf).toList());
+    }
+}
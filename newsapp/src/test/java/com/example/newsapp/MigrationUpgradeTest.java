@@ -0,0 +1,119 @@
+package com.example.newsapp;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Миграции профиля prod: база, созданная ddl-auto исходной версии и принятая
+ * за baseline V1, должна прийти к той же схеме, что и пустая база.
+ * <p>
+ * Нужна PostgreSQL из {@code spring.datasource.*}; каждый сценарий работает в своей схеме.
+ */
+class MigrationUpgradeTest {
+
+    private static final String UPGRADED = "migration_upgraded";
+    private static final String FRESH = "migration_fresh";
+
+    private final StandardEnvironment environment = new StandardEnvironment();
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void dropSchemas() throws IOException {
+        environment.getPropertySources().addLast(new ResourcePropertySource("classpath:application.properties"));
+        jdbc = new JdbcTemplate(dataSource(null));
+        cleanUp();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.execute("drop schema if exists " + UPGRADED + " cascade");
+        jdbc.execute("drop schema if exists " + FRESH + " cascade");
+    }
+
+    @Test
+    void upgradesDatabaseCreatedByDdlAuto() {
+        MigrateResult result = migrate(UPGRADED, true);
+
+        assertThat(result.success).isTrue();
+        assertThat(result.targetSchemaVersion).isEqualTo("5");
+        assertThat(jdbc.queryForList("select conname from pg_constraint where connamespace = ?::regnamespace",
+                String.class, UPGRADED)).contains("uk_users_username");
+        // V4 оставляет одну запись из повторов избранного
+        assertThat(jdbc.queryForObject("select count(*) from " + UPGRADED + ".favorites", Integer.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void upgradesDatabaseWhereLaterDdlAutoAddedConstraints() {
+        // База, которую ddl-auto вёл и на новых версиях: часть ограничений уже создана Hibernate
+        createDdlAutoBaseline(UPGRADED);
+        jdbc.execute("delete from " + UPGRADED + ".favorites where id = 2");
+        jdbc.execute("alter table " + UPGRADED + ".favorites"
+                + " add constraint idx_favorites_user_news unique (user_id, news_portal_id)");
+        jdbc.execute("alter table " + UPGRADED + ".users add constraint uk_users_username unique (username)");
+
+        assertThat(flyway(UPGRADED).migrate().success).isTrue();
+    }
+
+    @Test
+    void upgradedSchemaMatchesFreshOne() {
+        migrate(UPGRADED, true);
+        migrate(FRESH, false);
+
+        assertThat(columns(UPGRADED)).isNotEmpty().isEqualTo(columns(FRESH));
+    }
+
+    private MigrateResult migrate(String schema, boolean fromDdlAuto) {
+        if (fromDdlAuto) {
+            createDdlAutoBaseline(schema);
+        }
+        return flyway(schema).migrate();
+    }
+
+    private void createDdlAutoBaseline(String schema) {
+        jdbc.execute("create schema " + schema);
+        new ResourceDatabasePopulator(new ClassPathResource("db/ddl-auto-baseline.sql")).execute(dataSource(schema));
+    }
+
+    // Те же настройки, что в application-prod.properties
+    private Flyway flyway(String schema) {
+        return Flyway.configure()
+                .dataSource(dataSource(schema))
+                .schemas(schema)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+
+    private List<String> columns(String schema) {
+        return jdbc.queryForList("""
+                select table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable
+                from information_schema.columns
+                where table_schema = ? and table_name <> 'flyway_schema_history'
+                order by table_name, column_name
+                """, String.class, schema);
+    }
+
+    private DriverManagerDataSource dataSource(String schema) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                environment.getProperty("spring.datasource.url"),
+                environment.getProperty("spring.datasource.username"),
+                environment.getProperty("spring.datasource.password"));
+        dataSource.setSchema(schema);
+        return dataSource;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.newsapp.config;
+
+import com.example.newsapp.dto.FavoriteDto;
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.dto.UserProfileView;
+import com.example.newsapp.entity.NewsPortal;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.data.projection.TargetAware;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsTest() {
+        new NativeHints.Registrar().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void jjwtImplementationsAndServicesAreReachable() throws Exception {
+        for (String type : NativeHints.JJWT_IMPLEMENTATIONS) {
+            // Классы должны существовать в classpath: опечатка в имени молча ломает native
+            Class.forName(type);
+            assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))).accepts(hints);
+        }
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Deserializer"))
+                .accepts(hints);
+    }
+
+    @Test
+    void jsonAndJpqlTypesAreRegistered() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(NewsPortal.class.getMethod("getTitle"))).accepts(hints);
+        for (Class<?> type : new Class<?>[]{NewsPortalDto.class, FavoriteDto.class}) {
+            for (var constructor : type.getConstructors()) {
+                assertThat(RuntimeHintsPredicates.reflection().onConstructor(constructor)).accepts(hints);
+            }
+        }
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(
+                AopProxyUtils.completeJdkProxyInterfaces(UserProfileView.class, TargetAware.class))).accepts(hints);
+    }
+}
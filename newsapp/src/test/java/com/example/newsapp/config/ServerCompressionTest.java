@@ -0,0 +1,85 @@
+package com.example.newsapp.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Настройки {@code server.compression.*} из application.properties на встроенном Tomcat.
+ */
+class ServerCompressionTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private WebServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        factory.setCompression(applicationCompression());
+        factory.addInitializers(context -> context.addServlet("payload", new PayloadServlet()).addMapping("/payload"));
+        server = factory.getWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void jsonAndBinaryFormatsAreGzipped() throws Exception {
+        assertThat(contentEncoding("application/json", 4096)).isEqualTo("gzip");
+        assertThat(contentEncoding("application/cbor", 4096)).isEqualTo("gzip");
+        assertThat(contentEncoding("application/x-jackson-smile", 4096)).isEqualTo("gzip");
+    }
+
+    @Test
+    void smallResponsesAndEventStreamsAreNotCompressed() throws Exception {
+        assertThat(contentEncoding("application/json", 512)).isNull();
+        assertThat(contentEncoding("text/event-stream", 4096)).isNull();
+    }
+
+    private String contentEncoding(String type, int size) throws Exception {
+        URI uri = URI.create("http://localhost:" + server.getPort() + "/payload?type=" + type + "&size=" + size);
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip").build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response.headers().firstValue("Content-Encoding").orElse(null);
+    }
+
+    private static Compression applicationCompression() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new ResourcePropertySource("classpath:application.properties"));
+        return Binder.get(environment).bind("server.compression", Compression.class).get();
+    }
+
+    private static final class PayloadServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            byte[] body = new byte[Integer.parseInt(request.getParameter("size"))];
+            Arrays.fill(body, (byte) 'a');
+            response.setContentType(request.getParameter("type"));
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.newsapp.config;
+
+import com.example.newsapp.dto.FieldSelection;
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.entity.Category;
+import com.example.newsapp.entity.Favorite;
+import com.example.newsapp.entity.NewsPortal;
+import com.example.newsapp.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebConfigTest {
+
+    private final Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+            .filters(FieldSelection.defaultFilters());
+
+    @Test
+    void binaryConvertersFollowJson() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(
+                new StringHttpMessageConverter(),
+                new MappingJackson2HttpMessageConverter(),
+                new MappingJackson2CborHttpMessageConverter()));
+
+        new WebConfig(builder).extendMessageConverters(converters);
+
+        assertThat(converters).hasSize(4);
+        assertThat(converters.get(1)).isInstanceOf(MappingJackson2HttpMessageConverter.class);
+        assertThat(converters.get(2)).isInstanceOf(MappingJackson2CborHttpMessageConverter.class);
+        assertThat(converters.get(3)).isInstanceOf(MappingJackson2SmileHttpMessageConverter.class);
+    }
+
+    @Test
+    void cborRoundTripsNewsDto() throws IOException {
+        ObjectMapper cbor = builder.factory(new CBORFactory()).build();
+        NewsPortalDto news = new NewsPortalDto(1L, "Заголовок", "https://example.com", "Описание", 2L, "Мир");
+
+        byte[] encoded = cbor.writeValueAsBytes(news);
+
+        assertThat(cbor.readValue(encoded, NewsPortalDto.class)).isEqualTo(news);
+    }
+
+    /**
+     * Размер и время сериализации ответов /api/news-portal/all и /api/favorites.
+     * Запуск: mvn test -Dexcluded.test.groups= -Dgroups=benchmark -Dtest=WebConfigTest
+     */
+    @Test
+    @Tag("benchmark")
+    void compareFormats() throws IOException {
+        List<NewsPortalDto> news = new ArrayList<>();
+        List<Favorite> favorites = new ArrayList<>();
+        User user = User.builder().id(1L).email("user@example.com").username("user").password("hash").build();
+        for (long i = 1; i <= 2000; i++) {
+            Category category = new Category(i % 12, "Category " + i % 12);
+            NewsPortal portal = new NewsPortal(i, "News portal " + i, "https://portal" + i + ".example.com/",
+                    "Independent coverage of politics, economy and sport, item " + i, category);
+            news.add(NewsPortalDto.fromEntity(portal));
+            if (i <= 300) {
+                favorites.add(new Favorite(i, user, portal, null));
+            }
+        }
+
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", builder.build());
+        mappers.put("cbor", builder.factory(new CBORFactory()).build());
+        mappers.put("smile", builder.factory(new SmileFactory()).build());
+
+        for (Map.Entry<String, List<?>> payload : Map.<String, List<?>>of("news", news, "favorites", favorites).entrySet()) {
+            for (Map.Entry<String, ObjectMapper> mapper : mappers.entrySet()) {
+                report(payload.getKey(), mapper.getKey(), mapper.getValue(), payload.getValue());
+            }
+        }
+    }
+
+    private static void report(String payload, String format, ObjectMapper mapper, Object value) throws IOException {
+        byte[] bytes = null;
+        for (int i = 0; i < 200; i++) {
+            bytes = mapper.writeValueAsBytes(value);
+        }
+        int iterations = 500;
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes = mapper.writeValueAsBytes(value);
+        }
+        double micros = (System.nanoTime() - started) / 1000.0 / iterations;
+        System.out.printf("%-9s %-5s %8d bytes, %6d gzip, %8.1f us/op%n",
+                payload, format, bytes.length, gzip(bytes).length, micros);
+        assertThat(bytes).isNotEmpty();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
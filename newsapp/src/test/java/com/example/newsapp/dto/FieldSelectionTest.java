@@ -0,0 +1,54 @@
+package com.example.newsapp.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FieldSelectionTest {
+
+    private final ObjectMapper mapper = JsonMapper.builder().filterProvider(FieldSelection.defaultFilters()).build();
+
+    private final NewsPortalDto news = new NewsPortalDto(1L, "Title", "https://example.com", "Long description", 2L, "World");
+
+    @Test
+    void serializesEverythingWithoutFields() throws Exception {
+        assertThat(mapper.writeValueAsString(news)).contains("\"description\"", "\"categoryName\"");
+    }
+
+    @Test
+    void limitsTopLevelFieldsInLists() throws Exception {
+        String json = mapper.writer(FieldSelection.parse("id, title").toFilterProvider())
+                .writeValueAsString(List.of(news, news));
+
+        assertThat(json).isEqualTo("[{\"id\":1,\"title\":\"Title\"},{\"id\":1,\"title\":\"Title\"}]");
+    }
+
+    @Test
+    void selectsNestedFieldsByPath() throws Exception {
+        FavoriteDto favorite = new FavoriteDto(5L, news);
+
+        String nested = mapper.writer(FieldSelection.parse("id,newsPortal.title").toFilterProvider())
+                .writeValueAsString(List.of(favorite));
+        String whole = mapper.writer(FieldSelection.parse("newsPortal").toFilterProvider())
+                .writeValueAsString(favorite);
+
+        assertThat(nested).isEqualTo("[{\"id\":5,\"newsPortal\":{\"title\":\"Title\"}}]");
+        assertThat(whole).doesNotContain("\"id\":5").contains("\"description\"");
+    }
+
+    @Test
+    void reportsIncludedPaths() {
+        FieldSelection selection = FieldSelection.parse("id,newsPortal.title");
+
+        assertThat(FieldSelection.parse(" ").isAll()).isTrue();
+        assertThat(selection.includes("newsPortal")).isTrue();
+        assertThat(selection.includes("newsPortal.title")).isTrue();
+        assertThat(selection.includes("newsPortal.description")).isFalse();
+        assertThat(selection.includes("newsPortalX")).isFalse();
+        assertThat(FieldSelection.parse("newsPortal").includes("newsPortal.description")).isTrue();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.newsapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AvatarImagesTest {
+
+    @Test
+    void probesImageHeader() throws IOException {
+        AvatarImages.Probe probe = AvatarImages.probe(encode(image(640, 480, false), "jpeg"));
+
+        assertThat(probe.format()).isEqualTo("jpeg");
+        assertThat(probe.width()).isEqualTo(640);
+        assertThat(probe.height()).isEqualTo(480);
+    }
+
+    @Test
+    void rejectsNonImages() {
+        byte[] text = "definitely not an image".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> AvatarImages.probe(text)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsHugeDimensions() throws IOException {
+        byte[] huge = encode(new BufferedImage(8192, 2100, BufferedImage.TYPE_BYTE_GRAY), "png");
+
+        assertThatThrownBy(() -> AvatarImages.probe(huge)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AvatarImages.resize(huge, 48)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void truncatedImagesFailToResize() throws IOException {
+        for (String format : new String[]{"jpeg", "png"}) {
+            byte[] original = encode(image(640, 480, false), format);
+            byte[] truncated = Arrays.copyOf(original, original.length / 2);
+
+            // Заголовок цел — проверка при загрузке проходит, декодирование целиком нет
+            assertThat(AvatarImages.probe(truncated).width()).isEqualTo(640);
+            assertThatThrownBy(() -> AvatarImages.resize(truncated, 48)).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void largeImagesAreDecodedWithSubsampling() throws IOException {
+        byte[] original = encode(image(4000, 3000, false), "jpeg");
+
+        BufferedImage decoded = AvatarImages.decode(original, 512);
+
+        assertThat(decoded.getHeight()).isBetween(512, 1023);
+        assertThat(AvatarImages.resize(original, 256)[0].size()).isEqualTo(256);
+    }
+
+    @Test
+    void resizesToSquareVariants() throws IOException {
+        byte[] original = encode(image(1200, 800, false), "png");
+
+        AvatarImages.Variant[] variants = AvatarImages.resize(original, 48, 96, 256);
+
+        assertThat(variants).hasSize(3);
+        for (AvatarImages.Variant variant : variants) {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(variant.bytes()));
+            assertThat(variant.contentType()).isEqualTo("image/jpeg");
+            assertThat(decoded.getWidth()).isEqualTo(variant.size());
+            assertThat(decoded.getHeight()).isEqualTo(variant.size());
+            assertThat(variant.bytes().length).isLessThan(original.length);
+        }
+    }
+
+    @Test
+    void keepsTransparencyAsPng() throws IOException {
+        AvatarImages.Variant[] variants = AvatarImages.resize(encode(image(300, 300, true), "png"), 48);
+
+        assertThat(variants[0].contentType()).isEqualTo("image/png");
+        assertThat(ImageIO.read(new ByteArrayInputStream(variants[0].bytes())).getColorModel().hasAlpha()).isTrue();
+    }
+
+    @Test
+    void picksSmallestSufficientSize() {
+        assertThat(AvatarService.pickSize(20)).isEqualTo(48);
+        assertThat(AvatarService.pickSize(48)).isEqualTo(48);
+        assertThat(AvatarService.pickSize(72)).isEqualTo(96);
+        assertThat(AvatarService.pickSize(1000)).isEqualTo(256);
+    }
+
+    private static BufferedImage image(int width, int height, boolean alpha) {
+        BufferedImage image = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int x = 0; x < width; x += 10) {
+            graphics.setColor(new Color(x % 256, (x * 3) % 256, (x * 7) % 256, alpha ? 128 : 255));
+            graphics.fillRect(x, 0, 10, height);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
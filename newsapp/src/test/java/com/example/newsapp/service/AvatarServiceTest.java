@@ -0,0 +1,137 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.entity.User;
+import com.example.newsapp.entity.UserAvatar;
+import com.example.newsapp.repository.UserAvatarRepository;
+import com.example.newsapp.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvatarServiceTest {
+
+    private static final int SIZES_PLUS_MARKER = AvatarService.SIZES.length + 1;
+
+    private final Map<Long, String> originals = new ConcurrentHashMap<>();
+    private final List<UserAvatar> stored = new CopyOnWriteArrayList<>();
+    private final AvatarService service = new AvatarService(avatarRepo(), userRepo(), new NoOpTransactionManager());
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void undecodableOriginalIsMarkedSoBackfillDoesNotRetryIt() throws Exception {
+        byte[] png = png(600, 400);
+        originals.put(1L, Base64.getEncoder().encodeToString(png));
+        originals.put(2L, Base64.getEncoder().encodeToString(Arrays.copyOf(png, png.length / 2)));
+
+        service.backfill();
+
+        awaitStored(SIZES_PLUS_MARKER);
+        assertThat(sizesOf(1L)).containsExactlyInAnyOrder(48, 96, 256);
+        assertThat(sizesOf(2L)).containsExactly(AvatarService.FAILED_SIZE);
+        assertThat(service.findVariant(2L, 48)).isEmpty();
+
+        // Отмеченный пользователь больше не попадает в backfill
+        service.backfill();
+        Thread.sleep(100);
+        assertThat(stored).hasSize(SIZES_PLUS_MARKER);
+    }
+
+    private void awaitStored(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (stored.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(stored).hasSize(count);
+    }
+
+    private List<Integer> sizesOf(Long userId) {
+        return stored.stream().filter(a -> a.getUserId().equals(userId)).map(UserAvatar::getPixelSize).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private UserAvatarRepository avatarRepo() {
+        return (UserAvatarRepository) Proxy.newProxyInstance(UserAvatarRepository.class.getClassLoader(),
+                new Class<?>[]{UserAvatarRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findUserIdsWithoutVariants" -> originals.keySet().stream()
+                            .filter(id -> stored.stream().noneMatch(a -> a.getUserId().equals(id)))
+                            .toList();
+                    case "deleteByUserId" -> {
+                        stored.removeIf(a -> a.getUserId().equals(args[0]));
+                        yield 0;
+                    }
+                    case "saveAll" -> {
+                        List<UserAvatar> saved = new ArrayList<>((Collection<UserAvatar>) args[0]);
+                        stored.addAll(saved);
+                        yield saved;
+                    }
+                    case "findByUserIdAndPixelSize" -> stored.stream()
+                            .filter(a -> a.getUserId().equals(args[0]) && a.getPixelSize() == (int) args[1])
+                            .findFirst();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private UserRepository userRepo() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findById")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Long id = (Long) args[0];
+                    return Optional.ofNullable(originals.get(id))
+                            .map(avatar -> User.builder().id(id).avatarBase64(avatar).build());
+                });
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, x * 31 + y * 17);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
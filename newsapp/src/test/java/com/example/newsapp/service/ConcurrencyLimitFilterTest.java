@@ -0,0 +1,135 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.service.ConcurrencyLimitFilter.EndpointClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private static final List<String> EXCLUDED = List.of("/actuator/**", "/api/admin/export/**");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void limitGrowsWhileUsedAndBacksOffOncePerRound() {
+        AimdLimit limit = new AimdLimit(4, 1, 10, 100, 0.5);
+        for (int i = 0; i < 4; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+        assertThat(limit.tryAcquire()).isFalse();
+
+        // Быстрый ответ при занятом лимите — рост на единицу
+        limit.release(0, 10);
+        assertThat(limit.getLimit()).isEqualTo(5);
+
+        // Медленный ответ — уменьшение; медленный запрос, начатый до него, не уменьшает ещё раз
+        limit.release(100, 1000);
+        assertThat(limit.getLimit()).isEqualTo(2);
+        limit.release(200, 1100);
+        assertThat(limit.getLimit()).isEqualTo(2);
+
+        // Последний из четырёх: лимит из двух занят наполовину — рост
+        limit.release(2000, 2010);
+        assertThat(limit.getLimit()).isEqualTo(3);
+        assertThat(limit.getInFlight()).isZero();
+
+        // Без нагрузки лимит не растёт
+        limit.tryAcquire();
+        limit.release(2100, 2110);
+        assertThat(limit.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void requestsOverTheLimitAreShedPerEndpointClass() throws Exception {
+        ConcurrencyLimitFilter filter = filter();
+        int capacity = filter.limit(EndpointClass.LISTS);
+        CountDownLatch entered = new CountDownLatch(capacity);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            entered.countDown();
+            await(release);
+        };
+
+        List<Thread> holders = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            Thread holder = new Thread(() -> run(filter, request("GET", "/api/categories"), blocking));
+            holders.add(holder);
+            holder.start();
+        }
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse shedResponse = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/news-portal/all"), shedResponse, (req, res) -> {
+            throw new AssertionError("must not reach the controller");
+        });
+        assertThat(shedResponse.getStatus()).isEqualTo(503);
+        assertThat(shedResponse.getHeader("Retry-After")).isEqualTo("1");
+
+        // Другой класс эндпоинтов не ждёт заполненный
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/auth/login"), loginResponse, (req, res) -> { });
+        assertThat(loginResponse.getStatus()).isEqualTo(200);
+
+        release.countDown();
+        for (Thread holder : holders) {
+            holder.join();
+        }
+        MockHttpServletResponse afterResponse = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/news-portal/all"), afterResponse, (req, res) -> { });
+        assertThat(afterResponse.getStatus()).isEqualTo(200);
+        assertThat(registry.get("http.server.requests.shed").tag("class", "lists").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsAreClassifiedByPathAndMethod() {
+        assertThat(ConcurrencyLimitFilter.classify("POST", "/api/auth/login")).isEqualTo(EndpointClass.AUTH);
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/api/news-portal/search")).isEqualTo(EndpointClass.SEARCH);
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/api/news-portal/suggest")).isEqualTo(EndpointClass.SEARCH);
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/api/news-portal/all")).isEqualTo(EndpointClass.LISTS);
+        assertThat(ConcurrencyLimitFilter.classify("POST", "/api/favorites/1/2")).isEqualTo(EndpointClass.WRITES);
+        assertThat(ConcurrencyLimitFilter.classify("DELETE", "/api/news-portal/5")).isEqualTo(EndpointClass.WRITES);
+
+        ConcurrencyLimitFilter filter = filter();
+        assertThat(filter.shouldNotFilter(request("GET", "/actuator/health/readiness"))).isTrue();
+        assertThat(filter.shouldNotFilter(request("GET", "/api/admin/export/news"))).isTrue();
+        assertThat(filter.shouldNotFilter(request("OPTIONS", "/api/news-portal/all"))).isTrue();
+        assertThat(filter.shouldNotFilter(request("GET", "/api/news-portal/all"))).isFalse();
+        ConcurrencyLimitFilter disabled = new ConcurrencyLimitFilter(
+                new SimpleMeterRegistry(), false, EXCLUDED, 200, 1000, 500, 250, 1000);
+        assertThat(disabled.shouldNotFilter(request("GET", "/api/news-portal/all"))).isTrue();
+    }
+
+    private ConcurrencyLimitFilter filter() {
+        return new ConcurrencyLimitFilter(registry, true, EXCLUDED, 200, 1000, 500, 250, 1000);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+
+    private static void run(ConcurrencyLimitFilter filter, MockHttpServletRequest request, FilterChain chain) {
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
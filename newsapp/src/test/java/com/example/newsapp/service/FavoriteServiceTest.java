@@ -0,0 +1,71 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.event.FavoriteToggledEvent;
+import com.example.newsapp.repository.FavoriteRepository;
+import com.example.newsapp.repository.NewsPortalRepository;
+import com.example.newsapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FavoriteServiceTest {
+
+    private final List<Object> events = new ArrayList<>();
+
+    @Test
+    void newsDeletedBetweenCheckAndInsertIsNotFound() {
+        // Проверка существования прошла, а вставку уже отверг внешний ключ
+        FavoriteRepository favorites = stub(FavoriteRepository.class, (method, args) -> switch (method) {
+            case "deleteByUserIdAndNewsPortalId" -> 0;
+            case "insertIfAbsent" -> throw new DataIntegrityViolationException("fk_favorites_news_portal");
+            default -> throw new UnsupportedOperationException(method);
+        });
+        FavoriteService service = new FavoriteService(favorites, existing(UserRepository.class),
+                existing(NewsPortalRepository.class), events::add);
+
+        assertThatThrownBy(() -> service.toggleFavorite(1L, 10L))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void insertAfterEmptyDeleteAddsFavorite() {
+        FavoriteRepository favorites = stub(FavoriteRepository.class, (method, args) -> switch (method) {
+            case "deleteByUserIdAndNewsPortalId" -> 0;
+            case "insertIfAbsent" -> 1;
+            default -> throw new UnsupportedOperationException(method);
+        });
+        FavoriteService service = new FavoriteService(favorites, existing(UserRepository.class),
+                existing(NewsPortalRepository.class), events::add);
+
+        assertThat(service.toggleFavorite(1L, 10L)).isTrue();
+        assertThat(events).containsExactly(new FavoriteToggledEvent(1L, 10L, true));
+    }
+
+    private static <T> T existing(Class<T> type) {
+        return stub(type, (method, args) -> {
+            if (!method.equals("existsById")) {
+                throw new UnsupportedOperationException(method);
+            }
+            return true;
+        });
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.handle(method.getName(), args)));
+    }
+}
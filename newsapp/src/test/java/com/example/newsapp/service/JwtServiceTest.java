@@ -0,0 +1,42 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private final JwtService jwtService = new JwtService();
+
+    @Test
+    void tokenCarriesUserIdAndVersion() {
+        User user = User.builder().id(42L).email("reader@example.com").tokenVersion(3).build();
+
+        Claims claims = jwtService.parseClaims(jwtService.generateToken(user));
+
+        assertThat(claims.getSubject()).isEqualTo("reader@example.com");
+        assertThat(jwtService.extractUserId(claims)).isEqualTo(42L);
+        assertThat(jwtService.extractTokenVersion(claims)).isEqualTo(3);
+    }
+
+    @Test
+    void tokenWithoutVersionIsVersionZero() {
+        User user = User.builder().id(1L).email("old@example.com").build();
+        Claims claims = jwtService.parseClaims(jwtService.generateToken(user));
+        claims.remove(JwtService.TOKEN_VERSION_CLAIM);
+
+        assertThat(jwtService.extractTokenVersion(claims)).isZero();
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String token = jwtService.generateToken(User.builder().id(1L).email("a@example.com").build());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtService.parseClaims(tampered)).isInstanceOf(JwtException.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.event.CategoryChangedEvent;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.repository.NewsPortalRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NewsFeedSnapshotTest {
+
+    // Закоммиченное состояние таблицы новостей
+    private final Map<Long, NewsPortalDto> table = new TreeMap<>(Map.of(
+            1L, news(1L, 1L, "Sport"), 2L, news(2L, 1L, "Sport"), 3L, news(3L, 2L, "Politics")));
+    private final NewsFeedSnapshot snapshot = new NewsFeedSnapshot(repository());
+
+    NewsFeedSnapshotTest() {
+        snapshot.reload();
+    }
+
+    @Test
+    void movedNewsIsVisibleInTheNewCategoryAndByIdTogether() {
+        commit(news(2L, 2L, "Politics"));
+
+        assertThat(snapshot.byCategory(1L)).extracting(NewsPortalDto::getId).containsExactly(1L);
+        assertThat(snapshot.byCategory(2L)).extracting(NewsPortalDto::getId).containsExactly(2L, 3L);
+        assertThat(snapshot.findById(2L)).get().extracting(NewsPortalDto::getCategoryId).isEqualTo(2L);
+    }
+
+    @Test
+    void eventsHandledOutOfCommitOrderKeepTheLatestCommittedState() {
+        NewsChangedEvent first = NewsChangedEvent.saved(news(1L, 2L, "Politics"));
+        table.put(1L, first.getNews());
+        NewsChangedEvent second = NewsChangedEvent.saved(news(1L, 3L, "Culture"));
+        table.put(1L, second.getNews());
+
+        snapshot.onNewsChanged(second);
+        snapshot.onNewsChanged(first);
+
+        assertThat(snapshot.findById(1L)).get().extracting(NewsPortalDto::getCategoryId).isEqualTo(3L);
+        assertThat(snapshot.byCategory(2L)).extracting(NewsPortalDto::getId).containsExactly(3L);
+        assertThat(snapshot.byCategory(3L)).extracting(NewsPortalDto::getId).containsExactly(1L);
+    }
+
+    @Test
+    void saveHandledAfterTheDeleteDoesNotResurrectTheNews() {
+        NewsChangedEvent saved = NewsChangedEvent.saved(news(2L, 2L, "Politics"));
+        table.remove(2L);
+
+        snapshot.onNewsChanged(NewsChangedEvent.deleted(2L));
+        snapshot.onNewsChanged(saved);
+
+        assertThat(snapshot.findById(2L)).isEmpty();
+        assertThat(snapshot.byCategory(2L)).extracting(NewsPortalDto::getId).containsExactly(3L);
+    }
+
+    @Test
+    void renamedCategoryIsRenamedInBothIndexes() {
+        snapshot.onCategoryChanged(CategoryChangedEvent.saved(1L, "Football"));
+
+        assertThat(snapshot.byCategory(1L)).extracting(NewsPortalDto::getCategoryName)
+                .containsOnly("Football");
+        assertThat(snapshot.findById(1L)).get().extracting(NewsPortalDto::getCategoryName)
+                .isEqualTo("Football");
+    }
+
+    @Test
+    void deletedCategoryEvictsItsStaleNews() {
+        snapshot.onCategoryChanged(CategoryChangedEvent.deleted(1L));
+
+        assertThat(snapshot.byCategory(1L)).isEmpty();
+        assertThat(snapshot.findById(1L)).isEmpty();
+        assertThat(snapshot.all()).extracting(NewsPortalDto::getId).containsExactly(3L);
+    }
+
+    private void commit(NewsPortalDto news) {
+        table.put(news.getId(), news);
+        snapshot.onNewsChanged(NewsChangedEvent.saved(news));
+    }
+
+    private static NewsPortalDto news(Long id, Long categoryId, String categoryName) {
+        return new NewsPortalDto(id, "News " + id, "https://example.com/" + id, null, categoryId, categoryName);
+    }
+
+    @SuppressWarnings("unchecked")
+    private NewsPortalRepository repository() {
+        return (NewsPortalRepository) Proxy.newProxyInstance(NewsPortalRepository.class.getClassLoader(),
+                new Class<?>[]{NewsPortalRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllViews" -> List.copyOf(table.values());
+                    case "findViewsByIdIn" -> ((Collection<Long>) args[0]).stream()
+                            .map(table::get).filter(Objects::nonNull).toList();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.entity.Category;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.repository.ArticleRepository;
+import com.example.newsapp.repository.CategoryRepository;
+import com.example.newsapp.repository.FavoriteRepository;
+import com.example.newsapp.repository.NewsPortalRepository;
+import com.example.newsapp.repository.NewsStatsRepository;
+import com.example.newsapp.repository.PortalMetadataRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NewsPortalServiceTest {
+
+    // id новости -> id категории (0 — без категории)
+    private final Map<Long, Long> news = new TreeMap<>(Map.of(1L, 5L, 2L, 5L, 3L, 6L));
+    // id новости -> число записей в избранном
+    private final Map<Long, Integer> favorites = new TreeMap<>(Map.of(1L, 2, 2L, 1));
+    private final List<String> calls = new ArrayList<>();
+    private final List<NewsChangedEvent> events = new ArrayList<>();
+
+    private final NewsPortalService service = new NewsPortalService(newsRepo(), categoryRepo(), favoriteRepo(),
+            stub(ArticleRepository.class), stub(PortalMetadataRepository.class), stub(NewsStatsRepository.class),
+            event -> events.add((NewsChangedEvent) event));
+
+    @Test
+    void deleteAllRemovesExistingNewsAndSkipsMissingIds() {
+        NewsPortalService.BulkResult result = service.deleteAll(Arrays.asList(2L, 1L, 99L, null, 2L));
+
+        assertThat(result).isEqualTo(new NewsPortalService.BulkResult(3, 2, 3));
+        assertThat(news).containsOnlyKeys(3L);
+        assertThat(events).extracting(NewsChangedEvent::getType).containsOnly(NewsChangedEvent.Type.DELETED);
+        assertThat(events).extracting(NewsChangedEvent::getNewsId).containsExactly(1L, 2L);
+        // Зависимые строки удаляются только для найденных id
+        assertThat(calls).contains("deleteByNewsPortalIdIn [1, 2]", "deleteAllByIdInBatch [1, 2]");
+    }
+
+    @Test
+    void deleteAllOfMissingIdsChangesNothing() {
+        NewsPortalService.BulkResult result = service.deleteAll(List.of(98L, 99L));
+
+        assertThat(result).isEqualTo(new NewsPortalService.BulkResult(2, 0, 0));
+        assertThat(news).hasSize(3);
+        assertThat(events).isEmpty();
+        assertThat(calls).containsExactly("lockExistingIds [98, 99]");
+    }
+
+    @Test
+    void reassignCategoryMovesExistingNewsAndPublishesFreshViews() {
+        NewsPortalService.BulkResult result = service.reassignCategory(List.of(1L, 3L, 42L), 7L);
+
+        assertThat(result).isEqualTo(new NewsPortalService.BulkResult(3, 2, 0));
+        assertThat(news).containsEntry(1L, 7L).containsEntry(2L, 5L).containsEntry(3L, 7L);
+        assertThat(events).extracting(event -> event.getNews().getCategoryId()).containsExactly(7L, 7L);
+    }
+
+    @Test
+    void reassignToNullCategoryClearsItWithoutLookingItUp() {
+        NewsPortalService.BulkResult result = service.reassignCategory(List.of(2L), null);
+
+        assertThat(result).isEqualTo(new NewsPortalService.BulkResult(1, 1, 0));
+        assertThat(news).containsEntry(2L, 0L);
+        assertThat(events).extracting(event -> event.getNews().getCategoryId()).containsExactly((Long) null);
+        assertThat(calls).noneMatch(call -> call.startsWith("existsById"));
+    }
+
+    @Test
+    void reassignToUnknownCategoryIsRejected() {
+        assertBadRequest(() -> service.reassignCategory(List.of(1L), 404L));
+        assertThat(news).containsEntry(1L, 5L);
+    }
+
+    @Test
+    void idsAreValidated() {
+        assertBadRequest(() -> service.deleteAll(null));
+        assertBadRequest(() -> service.deleteAll(List.of()));
+        assertBadRequest(() -> service.reassignCategory(Arrays.asList(null, null), 5L));
+
+        List<Long> tooMany = LongStream.rangeClosed(1, NewsPortalService.MAX_BULK_IDS + 1).boxed().toList();
+        assertBadRequest(() -> service.deleteAll(tooMany));
+        assertThat(calls).isEmpty();
+
+        // Повторы не считаются: ровно MAX_BULK_IDS разных id допустимо
+        List<Long> limit = new ArrayList<>(tooMany.subList(0, NewsPortalService.MAX_BULK_IDS));
+        limit.add(1L);
+        assertThat(service.deleteAll(limit).getRequested()).isEqualTo(NewsPortalService.MAX_BULK_IDS);
+    }
+
+    private static void assertBadRequest(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @SuppressWarnings("unchecked")
+    private NewsPortalRepository newsRepo() {
+        return repository(NewsPortalRepository.class, (name, args) -> switch (name) {
+            case "lockExistingIds" -> ((Collection<Long>) args[0]).stream().filter(news::containsKey).toList();
+            case "deleteByIdIn" -> (int) ((Collection<Long>) args[0]).stream()
+                    .filter(id -> news.remove(id) != null).count();
+            case "updateCategoryByIdIn" -> {
+                Category category = (Category) args[1];
+                yield (int) ((Collection<Long>) args[0]).stream().filter(news::containsKey)
+                        .peek(id -> news.put(id, category == null ? 0L : category.getId()))
+                        .count();
+            }
+            case "findViewsByIdIn" -> ((Collection<Long>) args[0]).stream().filter(news::containsKey)
+                    .map(id -> new NewsPortalDto(id, "News " + id, null, null,
+                            news.get(id) == 0 ? null : news.get(id), null))
+                    .toList();
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private CategoryRepository categoryRepo() {
+        return repository(CategoryRepository.class, (name, args) -> switch (name) {
+            case "existsById" -> Objects.equals(args[0], 7L);
+            case "getReferenceById" -> new Category((Long) args[0], "Category " + args[0]);
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private FavoriteRepository favoriteRepo() {
+        return repository(FavoriteRepository.class, (name, args) -> switch (name) {
+            case "deleteByNewsPortalIdIn" -> ((Collection<Long>) args[0]).stream()
+                    .mapToInt(id -> Objects.requireNonNullElse(favorites.remove(id), 0)).sum();
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    // Удаление зависимых строк: только записываем вызов
+    private <T> T stub(Class<T> type) {
+        return repository(type, (name, args) -> switch (name) {
+            case "deleteByNewsPortalIdIn" -> 0;
+            case "deleteAllByIdInBatch" -> null;
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private <T> T repository(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    calls.add(method.getName() + " " + (args == null ? "" : args[0]));
+                    return handler.handle(method.getName(), args);
+                }));
+    }
+}
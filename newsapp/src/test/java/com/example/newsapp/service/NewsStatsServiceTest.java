@@ -0,0 +1,164 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.dto.RankedNewsDto;
+import com.example.newsapp.event.FavoriteToggledEvent;
+import com.example.newsapp.event.NewsChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class NewsStatsServiceTest {
+
+    private static final long HALF_LIFE_MINUTES = 60;
+    private static final Duration HALF_LIFE = Duration.ofMinutes(HALF_LIFE_MINUTES);
+
+    private final MutableClock clock = new MutableClock();
+    private final RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+    private final NewsStatsService service =
+            new NewsStatsService(jdbc, null, new AllNewsSnapshot(), null, HALF_LIFE_MINUTES, clock);
+
+    @Test
+    void trendingScoresDecayWithTheHalfLife() {
+        recordViews(1L, 5);
+        clock.advance(HALF_LIFE);
+        service.onFavoriteToggled(new FavoriteToggledEvent(1L, 2L, true));
+        service.flush();
+
+        List<RankedNewsDto> trending = service.trending(10);
+
+        // Избранное весит 5 просмотров; пять просмотров час назад весят вдвое меньше
+        assertThat(trending).extracting(ranked -> ranked.getNews().getId()).containsExactly(2L, 1L);
+        assertThat(trending.get(0).getScore()).isCloseTo(5.0, within(1e-6));
+        assertThat(trending.get(1).getScore()).isCloseTo(2.5, within(1e-6));
+    }
+
+    @Test
+    void rescalingMovesTheLandmarkWithoutChangingVisibleScores() {
+        recordViews(1L, 1);
+        // exp((t - landmark) / tau) подходит к пределу: следующий сброс переносит landmark
+        clock.advance(HALF_LIFE.multipliedBy(60));
+        recordViews(2L, 1);
+        service.flush();
+        clock.advance(HALF_LIFE);
+        recordViews(3L, 1);
+        service.flush();
+
+        List<RankedNewsDto> trending = service.trending(10);
+
+        // Очки, выродившиеся до нуля, убраны из рейтинга; остальные сопоставимы до и после переноса
+        assertThat(trending).extracting(ranked -> ranked.getNews().getId()).containsExactly(3L, 2L);
+        assertThat(trending.get(0).getScore()).isCloseTo(1.0, within(1e-6));
+        assertThat(trending.get(1).getScore()).isCloseTo(0.5, within(1e-6));
+    }
+
+    @Test
+    void flushDrainsPendingDeltasButKeepsTotals() {
+        recordViews(1L, 3);
+        service.onFavoriteToggled(new FavoriteToggledEvent(7L, 1L, true));
+        service.onFavoriteToggled(new FavoriteToggledEvent(8L, 1L, true));
+        service.onFavoriteToggled(new FavoriteToggledEvent(8L, 2L, true));
+        service.onFavoriteToggled(new FavoriteToggledEvent(8L, 2L, false));
+
+        service.flush();
+
+        // Добавление и удаление в одном интервале взаимно гасятся и в БД не пишутся
+        assertThat(jdbc.batches).containsExactly(List.of(1L, 3L, 2L));
+        assertThat(service.viewCount(1L)).isEqualTo(3);
+        assertThat(service.favoriteCount(1L)).isEqualTo(2);
+        assertThat(service.favoriteCount(2L)).isZero();
+        assertThat(service.mostFavorited(10)).extracting(ranked -> ranked.getNews().getId()).containsExactly(1L);
+
+        jdbc.batches.clear();
+        service.flush();
+        assertThat(jdbc.batches).isEmpty();
+    }
+
+    @Test
+    void failedFlushKeepsDeltasAndDeletedNewsDropsThem() {
+        recordViews(1L, 2);
+        recordViews(2L, 1);
+        jdbc.failing = true;
+        service.flush();
+
+        jdbc.failing = false;
+        recordViews(1L, 1);
+        service.onNewsChanged(NewsChangedEvent.deleted(2L).withRemote(true));
+        service.flush();
+
+        assertThat(jdbc.batches).containsExactly(List.of(1L, 3L, 0L));
+        assertThat(service.viewCount(2L)).isZero();
+    }
+
+    private void recordViews(Long newsId, int count) {
+        for (int i = 0; i < count; i++) {
+            service.recordView(newsId);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    // Любой id — существующая новость
+    private static final class AllNewsSnapshot extends NewsFeedSnapshot {
+
+        AllNewsSnapshot() {
+            super(null);
+        }
+
+        @Override
+        public Optional<NewsPortalDto> findById(Long newsId) {
+            return Optional.of(new NewsPortalDto(newsId, "News " + newsId, "https://example.com/" + newsId,
+                    null, 1L, "Category"));
+        }
+    }
+
+    private static final class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<List<Object>> batches = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (failing) {
+                throw new DataAccessResourceFailureException("database is down");
+            }
+            batchArgs.forEach(args -> batches.add(Arrays.asList(args)));
+            return new int[batchArgs.size()];
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.newsapp.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixTrieTest {
+
+    @Test
+    void prefixReturnsTopKByScoreWithTiesInInsertionOrder() {
+        PrefixTrie<String> trie = PrefixTrie.<String>builder(3)
+                .add("Football results", "results", 5)
+                .add("Football transfers", "transfers", 9)
+                .add("Formula 1", "formula", 5)
+                .add("Fashion week", "fashion", 1)
+                .add("Politics", "politics", 100)
+                .build();
+
+        assertThat(trie.suggest("f", 10)).containsExactly("transfers", "results", "formula");
+        assertThat(trie.suggest("fo", 2)).containsExactly("transfers", "results");
+        assertThat(trie.suggest("football r", 10)).containsExactly("results");
+        assertThat(trie.size()).isEqualTo(5);
+    }
+
+    @Test
+    void everyWordIsAPrefixEntryButAValueIsReturnedOnce() {
+        PrefixTrie<String> trie = PrefixTrie.<String>builder(10)
+                .add("World cup world record", "cup", 2)
+                .add("Weather", "weather", 1)
+                .build();
+
+        assertThat(trie.suggest("w", 10)).containsExactly("cup", "weather");
+        assertThat(trie.suggest("rec", 10)).containsExactly("cup");
+        assertThat(trie.suggest("cup w", 10)).isEmpty();
+    }
+
+    @Test
+    void unknownEmptyAndPunctuationOnlyPrefixesMatchNothing() {
+        PrefixTrie<String> trie = PrefixTrie.<String>builder(10).add("Economy", "economy", 1).build();
+
+        assertThat(trie.suggest("x", 10)).isEmpty();
+        assertThat(trie.suggest("economyx", 10)).isEmpty();
+        assertThat(trie.suggest("", 10)).isEmpty();
+        assertThat(trie.suggest(" !? ", 10)).isEmpty();
+        assertThat(trie.suggest(null, 10)).isEmpty();
+        assertThat(trie.suggest("eco", 0)).isEmpty();
+        assertThat(PrefixTrie.<String>builder(10).build().suggest("eco", 10)).isEmpty();
+    }
+
+    @Test
+    void caseAndPunctuationAreFoldedForNonAsciiText() {
+        PrefixTrie<String> trie = PrefixTrie.<String>builder(10)
+                .add("Спорт: Итоги дня", "sport", 2)
+                .add("Ёлки и праздники", "holidays", 1)
+                .build();
+
+        assertThat(trie.suggest("СПО", 10)).containsExactly("sport");
+        assertThat(trie.suggest("итоги", 10)).containsExactly("sport");
+        assertThat(trie.suggest("спорт итоги", 10)).containsExactly("sport");
+        assertThat(trie.suggest("ёл", 10)).containsExactly("holidays");
+        assertThat(PrefixTrie.normalize("  Спорт:  Итоги—дня! ")).isEqualTo("спорт итоги дня");
+    }
+
+    @Test
+    void rebuiltTrieReflectsNewScoresAndLeavesTheOldOneIntact() {
+        PrefixTrie<String> before = PrefixTrie.<String>builder(10)
+                .add("Tennis", "tennis", 1)
+                .add("Travel", "travel", 2)
+                .build();
+        PrefixTrie<String> after = PrefixTrie.<String>builder(10)
+                .add("Tennis", "tennis", 3)
+                .add("Travel", "travel", 2)
+                .add("Theatre", "theatre", 1)
+                .build();
+
+        assertThat(before.suggest("t", 10)).containsExactly("travel", "tennis");
+        assertThat(after.suggest("t", 10)).containsExactly("tennis", "travel", "theatre");
+    }
+
+    /**
+     * Задержка подсказки на 100 000 заголовков; цель — заметно меньше миллисекунды.
+     * Запуск: mvn test -Dexcluded.test.groups= -Dgroups=benchmark -Dtest=PrefixTrieTest
+     */
+    @Test
+    @Tag("benchmark")
+    void suggestLatencyOnHundredThousandTitles() {
+        Random random = new Random(7);
+        PrefixTrie.Builder<Integer> builder = PrefixTrie.builder(SuggestService.MAX_SUGGESTIONS);
+        for (int i = 0; i < 100_000; i++) {
+            builder.add(randomWord(random) + " " + randomWord(random) + " " + randomWord(random), i,
+                    random.nextDouble() * 1000);
+        }
+        long started = System.nanoTime();
+        PrefixTrie<Integer> trie = builder.build();
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+
+        long[] nanos = new long[100_000];
+        for (int i = 0; i < nanos.length; i++) {
+            String prefix = randomWord(random).substring(0, 1 + random.nextInt(3));
+            long start = System.nanoTime();
+            trie.suggest(prefix, SuggestService.MAX_SUGGESTIONS);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long p50 = nanos[nanos.length / 2];
+        long p99 = nanos[nanos.length * 99 / 100];
+
+        System.out.printf("build %d ms, suggest p50 %.1f us, p99 %.1f us%n", buildMillis, p50 / 1000.0, p99 / 1000.0);
+        assertThat(p99).isLessThan(1_000_000);
+    }
+
+    private static String randomWord(Random random) {
+        char[] word = new char[4 + random.nextInt(6)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+}
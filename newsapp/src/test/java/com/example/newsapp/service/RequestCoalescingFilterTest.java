@@ -0,0 +1,183 @@
+package com.example.newsapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingFilterTest {
+
+    private static final List<String> PATHS = List.of("/api/news-portal/all", "/api/news-portal/search");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentIdenticalRequestsShareOneExecution() throws Exception {
+        RequestCoalescingFilter filter = new RequestCoalescingFilter(registry, true, PATHS, 10_000);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        FilterChain chain = (request, response) -> {
+            executions.incrementAndGet();
+            entered.countDown();
+            await(release);
+            response.setContentType("application/json");
+            response.getOutputStream().write("[{\"id\":1}]".getBytes(StandardCharsets.UTF_8));
+        };
+
+        MockHttpServletResponse leaderResponse = new MockHttpServletResponse();
+        Thread leader = new Thread(() -> run(filter, get("/api/news-portal/all"), leaderResponse, chain));
+        leader.start();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Thread> followers = new ArrayList<>();
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            responses.add(response);
+            Thread follower = new Thread(() -> run(filter, get("/api/news-portal/all"), response, chain));
+            followers.add(follower);
+            follower.start();
+        }
+        // Все ожидающие должны встать на ответ первого запроса до его завершения
+        for (Thread follower : followers) {
+            while (follower.getState() != Thread.State.TIMED_WAITING) {
+                Thread.onSpinWait();
+            }
+        }
+        release.countDown();
+        leader.join();
+        for (Thread follower : followers) {
+            follower.join();
+        }
+
+        assertThat(executions).hasValue(1);
+        assertThat(leaderResponse.getContentAsString()).isEqualTo("[{\"id\":1}]");
+        for (MockHttpServletResponse response : responses) {
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getContentType()).isEqualTo("application/json");
+            assertThat(response.getContentAsString()).isEqualTo("[{\"id\":1}]");
+        }
+        assertThat(count("collapsed")).isEqualTo(8);
+        assertThat(count("leader")).isEqualTo(1);
+    }
+
+    @Test
+    void followerRunsOnItsOwnAfterTimeout() throws Exception {
+        RequestCoalescingFilter filter = new RequestCoalescingFilter(registry, true, PATHS, 50);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        FilterChain chain = (request, response) -> {
+            if (executions.incrementAndGet() == 1) {
+                entered.countDown();
+                await(release);
+            }
+            response.getOutputStream().write("ok".getBytes(StandardCharsets.UTF_8));
+        };
+
+        Thread leader = new Thread(() -> run(filter, get("/api/news-portal/all"), new MockHttpServletResponse(), chain));
+        leader.start();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(get("/api/news-portal/all"), response, chain);
+        release.countDown();
+        leader.join();
+
+        assertThat(response.getContentAsString()).isEqualTo("ok");
+        assertThat(executions).hasValue(2);
+        assertThat(count("timeout")).isEqualTo(1);
+        assertThat(count("fallback")).isEqualTo(1);
+    }
+
+    @Test
+    void failedLeaderResponseIsNotShared() throws Exception {
+        RequestCoalescingFilter filter = new RequestCoalescingFilter(registry, true, PATHS, 1000);
+        AtomicInteger executions = new AtomicInteger();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(get("/api/news-portal/all"), response, (req, res) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(500);
+        });
+        filter.doFilter(get("/api/news-portal/all"), new MockHttpServletResponse(), (req, res) -> executions.incrementAndGet());
+
+        assertThat(response.getStatus()).isEqualTo(500);
+        assertThat(executions).hasValue(2);
+        assertThat(count("collapsed")).isZero();
+    }
+
+    @Test
+    void keyNormalizesParametersButKeepsFormat() {
+        MockHttpServletRequest first = get("/api/news-portal/search");
+        first.addParameter("q", "  Economy ");
+        first.addParameter("fields", "id,title");
+        MockHttpServletRequest second = get("/api/news-portal/search");
+        second.addParameter("fields", "id,title");
+        second.addParameter("q", "economy");
+
+        assertThat(RequestCoalescingFilter.key(first)).isEqualTo(RequestCoalescingFilter.key(second));
+
+        second.addHeader("Accept", "application/cbor");
+        assertThat(RequestCoalescingFilter.key(first)).isNotEqualTo(RequestCoalescingFilter.key(second));
+
+        // Значение с '&' не должно совпасть с двумя параметрами
+        MockHttpServletRequest joined = get("/api/news-portal/search");
+        joined.addParameter("fields", "id&q=economy");
+        MockHttpServletRequest split = get("/api/news-portal/search");
+        split.addParameter("fields", "id");
+        split.addParameter("q", "economy");
+        assertThat(RequestCoalescingFilter.key(joined)).isNotEqualTo(RequestCoalescingFilter.key(split));
+    }
+
+    @Test
+    void onlyListedGetPathsAreCoalesced() {
+        RequestCoalescingFilter filter = new RequestCoalescingFilter(registry, true, PATHS, 1000);
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/news-portal/all");
+
+        assertThat(filter.shouldNotFilter(get("/api/news-portal/all"))).isFalse();
+        assertThat(filter.shouldNotFilter(get("/api/favorites/1"))).isTrue();
+        assertThat(filter.shouldNotFilter(post)).isTrue();
+        assertThat(new RequestCoalescingFilter(registry, false, PATHS, 1000)
+                .shouldNotFilter(get("/api/news-portal/all"))).isTrue();
+    }
+
+    private double count(String result) {
+        return registry.get("http.server.requests.coalesced").tag("result", result).counter().count();
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private static void run(RequestCoalescingFilter filter,
+                            MockHttpServletRequest request,
+                            MockHttpServletResponse response,
+                            FilterChain chain) {
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.dto.SuggestionDto;
+import com.example.newsapp.entity.Category;
+import com.example.newsapp.repository.CategoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestServiceTest {
+
+    private static final List<NewsPortalDto> FIRST = List.of(news(1L, "Market opens"), news(2L, "Market closes"));
+    private static final List<NewsPortalDto> SECOND = List.of(news(3L, "Market rally"));
+
+    private final SwitchingSnapshot snapshot = new SwitchingSnapshot();
+    private final AtomicInteger rebuilds = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private final NewsStatsService stats = new NewsStatsService(null, null, snapshot, null, 60);
+    private final SuggestService service = new SuggestService(snapshot, categories(), stats);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void newsAndCategoriesAreRankedByPopularity() {
+        stats.recordView(2L);
+        service.rebuild();
+
+        assertThat(service.suggest("mar", 10)).extracting(SuggestionDto::getId).containsExactly(2L, 1L);
+        // Категория набирает очки своих новостей
+        assertThat(service.suggest("economy", 10)).extracting(SuggestionDto::getType)
+                .containsExactly(SuggestionDto.Type.CATEGORY);
+        assertThat(service.suggest("m", 50)).hasSizeLessThanOrEqualTo(SuggestService.MAX_SUGGESTIONS);
+    }
+
+    @Test
+    void changesDuringARebuildAreCoalescedIntoOneMore() throws Exception {
+        release = new CountDownLatch(1);
+        service.scheduleRebuild();
+        waitFor(() -> rebuilds.get() == 1);
+
+        for (int i = 0; i < 100; i++) {
+            service.scheduleRebuild();
+        }
+        release.countDown();
+        waitFor(() -> rebuilds.get() == 2);
+        Thread.sleep(100);
+
+        assertThat(rebuilds).hasValue(2);
+    }
+
+    @Test
+    void queriesDuringRebuildsSeeOneCompleteIndex() throws Exception {
+        service.rebuild();
+        Set<List<Long>> seen = ConcurrentHashMap.newKeySet();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                seen.add(service.suggest("market", 10).stream().map(SuggestionDto::getId).toList());
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 200; i++) {
+            snapshot.second.set(i % 2 == 0);
+            service.rebuild();
+        }
+        running.set(false);
+        reader.join();
+
+        assertThat(seen).isSubsetOf(Set.of(List.of(1L, 2L), List.of(3L)));
+    }
+
+    private CategoryRepository categories() {
+        return (CategoryRepository) Proxy.newProxyInstance(CategoryRepository.class.getClassLoader(),
+                new Class<?>[]{CategoryRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findAll") || args != null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    rebuilds.incrementAndGet();
+                    release.await(10, TimeUnit.SECONDS);
+                    Category economy = new Category();
+                    economy.setId(1L);
+                    economy.setName("Economy");
+                    return List.of(economy);
+                });
+    }
+
+    private static NewsPortalDto news(Long id, String title) {
+        return new NewsPortalDto(id, title, "https://example.com/" + id, null, 1L, "Economy");
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    // Содержимое ленты переключается тестом
+    private static final class SwitchingSnapshot extends NewsFeedSnapshot {
+
+        private final AtomicBoolean second = new AtomicBoolean();
+
+        SwitchingSnapshot() {
+            super(null);
+        }
+
+        @Override
+        public List<NewsPortalDto> all() {
+            return second.get() ? SECOND : FIRST;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.newsapp.service;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.dto.SyncResponse;
+import com.example.newsapp.entity.SyncChange;
+import com.example.newsapp.entity.SyncState;
+import com.example.newsapp.event.CategoryChangedEvent;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.repository.CategoryRepository;
+import com.example.newsapp.repository.NewsPortalRepository;
+import com.example.newsapp.repository.SyncChangeRepository;
+import com.example.newsapp.repository.SyncStateRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyncServiceTest {
+
+    private final List<SyncChange> log = new ArrayList<>();
+    private final SyncState state = new SyncState();
+    private final LockRecordingJdbcTemplate jdbc = new LockRecordingJdbcTemplate();
+    private long nextId = 1;
+
+    private final SyncService service = new SyncService(changeRepository(), stateRepository(), newsRepository(),
+            categoryRepository(), jdbc, new NoOpTransactionManager());
+
+    @Test
+    void changesAreReturnedInVersionOrderWithOneEntryPerEntity() {
+        service.onNewsChanged(NewsChangedEvent.saved(news(1L)));
+        service.onNewsChanged(NewsChangedEvent.saved(news(2L)));
+        service.onNewsChanged(NewsChangedEvent.saved(news(1L)));
+        service.onNewsChanged(NewsChangedEvent.deleted(2L));
+        service.onCategoryChanged(CategoryChangedEvent.deleted(7L));
+        // Каждая запись в журнал идёт под общей для экземпляров блокировкой
+        assertThat(jdbc.locks).isEqualTo(5);
+
+        SyncResponse response = service.changesSince(1);
+
+        assertThat(response.isFullResync()).isFalse();
+        assertThat(response.getVersion()).isEqualTo(5);
+        assertThat(response.getNews()).extracting(NewsPortalDto::getId).containsExactly(1L);
+        assertThat(response.getDeletedNewsIds()).containsExactly(2L);
+        assertThat(response.getDeletedCategoryIds()).containsExactly(7L);
+        assertThat(log).extracting(SyncChange::getId).containsExactly(3L, 4L, 5L);
+
+        SyncResponse next = service.changesSince(response.getVersion());
+        assertThat(next.getVersion()).isEqualTo(5);
+        assertThat(next.getNews()).isEmpty();
+        assertThat(next.getDeletedNewsIds()).isEmpty();
+    }
+
+    @Test
+    void remoteEventsAreNotLoggedTwice() {
+        service.onNewsChanged(NewsChangedEvent.saved(news(1L)).withRemote(true));
+
+        assertThat(log).isEmpty();
+        assertThat(jdbc.locks).isZero();
+    }
+
+    @Test
+    void compactionPurgesOldTombstonesAndForcesFullResyncForOlderClients() {
+        LocalDateTime old = LocalDateTime.now().minusDays(40);
+        add(new SyncChange(SyncChange.EntityType.NEWS, 1L, true, old));
+        add(new SyncChange(SyncChange.EntityType.NEWS, 2L, false, old));
+        add(new SyncChange(SyncChange.EntityType.NEWS, 3L, true, old));
+        service.onNewsChanged(NewsChangedEvent.deleted(4L));
+
+        service.compactTombstones();
+
+        assertThat(state.getPurgedThroughVersion()).isEqualTo(3);
+        assertThat(log).extracting(SyncChange::getEntityId).containsExactly(2L, 4L);
+        assertThat(service.changesSince(2).isFullResync()).isTrue();
+        SyncResponse current = service.changesSince(3);
+        assertThat(current.isFullResync()).isFalse();
+        assertThat(current.getDeletedNewsIds()).containsExactly(4L);
+    }
+
+    private void add(SyncChange change) {
+        change.setId(nextId++);
+        log.add(change);
+    }
+
+    private static NewsPortalDto news(Long id) {
+        return new NewsPortalDto(id, "News " + id, "https://example.com/" + id, null, 1L, "Category");
+    }
+
+    // Журнал в памяти с теми же запросами, что и SyncChangeRepository
+    private SyncChangeRepository changeRepository() {
+        return stub(SyncChangeRepository.class, (method, args) -> switch (method) {
+            case "findByIdGreaterThanOrderByIdAsc" -> log.stream()
+                    .filter(change -> change.getId() > (Long) args[0])
+                    .sorted(Comparator.comparing(SyncChange::getId))
+                    .toList();
+            case "findCurrentVersion" -> log.stream().mapToLong(SyncChange::getId).max().orElse(0);
+            case "deleteByEntity" -> {
+                int before = log.size();
+                log.removeIf(change -> change.getEntityType() == args[0] && change.getEntityId().equals(args[1]));
+                yield before - log.size();
+            }
+            case "save" -> {
+                add((SyncChange) args[0]);
+                yield args[0];
+            }
+            case "findLastTombstoneVersionBefore" -> log.stream()
+                    .filter(change -> change.isDeleted() && change.getChangedAt().isBefore((LocalDateTime) args[0]))
+                    .mapToLong(SyncChange::getId).max().orElse(0);
+            case "deleteTombstonesThrough" -> {
+                int before = log.size();
+                log.removeIf(change -> change.isDeleted() && change.getId() <= (Long) args[0]);
+                yield before - log.size();
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private SyncStateRepository stateRepository() {
+        return stub(SyncStateRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Optional.of(state);
+            case "save" -> args[0];
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NewsPortalRepository newsRepository() {
+        return stub(NewsPortalRepository.class, (method, args) -> switch (method) {
+            case "findViewsByIdIn" -> ((Collection<Long>) args[0]).stream().map(SyncServiceTest::news).toList();
+            case "findAllViews" -> List.of();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static CategoryRepository categoryRepository() {
+        return stub(CategoryRepository.class, (method, args) -> switch (method) {
+            case "findAll", "findAllById" -> List.of();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.handle(method.getName(), args)));
+    }
+
+    private static final class LockRecordingJdbcTemplate extends JdbcTemplate {
+
+        private int locks;
+
+        @Override
+        public <T> T query(String sql, ResultSetExtractor<T> rse, Object... args) {
+            if (sql.contains("pg_advisory_xact_lock")) {
+                locks++;
+            }
+            return null;
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
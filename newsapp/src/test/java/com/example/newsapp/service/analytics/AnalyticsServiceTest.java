@@ -0,0 +1,180 @@
+package com.example.newsapp.service.analytics;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.event.FavoriteToggledEvent;
+import com.example.newsapp.event.PasswordResetEvent;
+import com.example.newsapp.event.UserRegisteredEvent;
+import com.example.newsapp.service.NewsFeedSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyticsServiceTest {
+
+    private final RecordingJdbcTemplate jdbc = new RecordingJdbcTemplate();
+    private final AnalyticsService service =
+            new AnalyticsService(jdbc, null, null, null, new FixedSnapshot(), null, jdbc);
+
+    @Test
+    void eventsAreAggregatedIntoOneRowPerDayAndCategory() {
+        service.onUserRegistered(new UserRegisteredEvent(1L));
+        service.onUserRegistered(new UserRegisteredEvent(2L));
+        service.onFavoriteToggled(new FavoriteToggledEvent(1L, 10L, true));
+        service.onFavoriteToggled(new FavoriteToggledEvent(2L, 10L, true));
+        service.onFavoriteToggled(new FavoriteToggledEvent(1L, 10L, false));
+        // Новости нет в снимке: учитывается только в дневной сводке
+        service.onFavoriteToggled(new FavoriteToggledEvent(1L, 99L, true));
+        service.onPasswordReset(new PasswordResetEvent(1L, PasswordResetEvent.Type.REQUESTED));
+        service.onPasswordReset(new PasswordResetEvent(1L, PasswordResetEvent.Type.COMPLETED));
+
+        service.flush();
+
+        Date today = Date.valueOf(LocalDate.now());
+        assertThat(jdbc.rows("analytics_daily")).containsExactly(List.of(today, 2L, 3L, 1L, 1L, 1L));
+        assertThat(jdbc.rows("analytics_category_daily")).containsExactly(List.of(today, 7L, 2L, 1L));
+        assertThat(jdbc.rows("analytics_totals")).containsExactly(List.of("users", 2L));
+
+        jdbc.statements.clear();
+        service.flush();
+        assertThat(jdbc.statements).isEmpty();
+    }
+
+    @Test
+    void failedFlushKeepsDeltasForTheNextOne() {
+        service.onUserRegistered(new UserRegisteredEvent(1L));
+        service.onFavoriteToggled(new FavoriteToggledEvent(1L, 10L, true));
+        // Падает последний upsert: первые два откатываются вместе с ним
+        jdbc.failingTable = "analytics_totals";
+        service.flush();
+        assertThat(jdbc.statements).isEmpty();
+
+        jdbc.failingTable = null;
+        service.onUserRegistered(new UserRegisteredEvent(2L));
+        service.flush();
+
+        Date today = Date.valueOf(LocalDate.now());
+        assertThat(jdbc.rows("analytics_daily")).containsExactly(List.of(today, 2L, 1L, 0L, 0L, 0L));
+        assertThat(jdbc.rows("analytics_category_daily")).containsExactly(List.of(today, 7L, 1L, 0L));
+        assertThat(jdbc.rows("analytics_totals")).containsExactly(List.of("users", 2L));
+    }
+
+    @Test
+    void deltasFromBeforeRebuildOnAnotherInstanceAreDropped() {
+        service.flush();
+        service.onUserRegistered(new UserRegisteredEvent(1L));
+        service.onFavoriteToggled(new FavoriteToggledEvent(1L, 10L, true));
+
+        // Другой экземпляр пересчитал сводки: эти события в них уже есть
+        jdbc.epoch = 1;
+        service.flush();
+        assertThat(jdbc.statements).isEmpty();
+
+        service.onUserRegistered(new UserRegisteredEvent(2L));
+        service.flush();
+
+        Date today = Date.valueOf(LocalDate.now());
+        assertThat(jdbc.rows("analytics_daily")).containsExactly(List.of(today, 1L, 0L, 0L, 0L, 0L));
+        assertThat(jdbc.rows("analytics_category_daily")).isEmpty();
+        assertThat(jdbc.rows("analytics_totals")).containsExactly(List.of("users", 1L));
+    }
+
+    @Test
+    void quietInstanceKeepsDeltasCollectedAfterRebuild() {
+        service.flush();
+        jdbc.epoch = 1;
+        // Пустой сброс запоминает новый номер пересчёта
+        service.flush();
+
+        service.onUserRegistered(new UserRegisteredEvent(1L));
+        service.flush();
+
+        assertThat(jdbc.rows("analytics_totals")).containsExactly(List.of("users", 1L));
+    }
+
+    private static final class FixedSnapshot extends NewsFeedSnapshot {
+
+        FixedSnapshot() {
+            super(null);
+        }
+
+        @Override
+        public Optional<NewsPortalDto> findById(Long newsId) {
+            return newsId == 10L
+                    ? Optional.of(new NewsPortalDto(10L, "News", "https://example.com/10", null, 7L, "Sport"))
+                    : Optional.empty();
+        }
+    }
+
+    // Запоминает параметры upsert'ов вместо обращения к БД; откат транзакции их отбрасывает
+    private static final class RecordingJdbcTemplate extends JdbcTemplate implements PlatformTransactionManager {
+
+        private final List<Statement> statements = new ArrayList<>();
+        private final List<Statement> uncommitted = new ArrayList<>();
+        private String failingTable;
+        private long epoch;
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            check(sql);
+            batchArgs.forEach(args -> uncommitted.add(new Statement(sql, Arrays.asList(args))));
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            check(sql);
+            uncommitted.add(new Statement(sql, Arrays.asList(args)));
+            return 1;
+        }
+
+        @Override
+        public <T> List<T> queryForList(String sql, Class<T> elementType) {
+            return List.of(elementType.cast(epoch));
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            statements.addAll(uncommitted);
+            uncommitted.clear();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            uncommitted.clear();
+        }
+
+        List<List<Object>> rows(String table) {
+            return statements.stream()
+                    .filter(statement -> statement.sql().contains("insert into " + table))
+                    .map(Statement::args)
+                    .toList();
+        }
+
+        private void check(String sql) {
+            if (failingTable != null && sql.contains("insert into " + failingTable)) {
+                throw new DataAccessResourceFailureException("database is down");
+            }
+        }
+    }
+
+    private record Statement(String sql, List<Object> args) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.newsapp.service.crawler;
+
+import com.example.newsapp.entity.PortalMetadata;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PortalFetcherTest {
+
+    private static final String PAGE = """
+            <html><head>
+              <title>  Local   News </title>
+              <meta name="description" content="Fresh &amp; local">
+              <link rel="icon" href="/static/icon.png">
+              <link rel="alternate" type="application/rss+xml" href="/rss.xml">
+            </head><body>hello</body></html>
+            """;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/page", this::page);
+        server.createContext("/broken", exchange -> respond(exchange, 500, "boom"));
+        server.createContext("/slow", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            respond(exchange, 200, PAGE);
+        });
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void extractsMetadataAndFollowsUpWithConditionalRequest() throws Exception {
+        try (PortalFetcher fetcher = fetcher(4, 2)) {
+            FetchResult first = fetcher.fetch(new FetchTarget(1L, baseUrl + "/page", null, null));
+
+            assertThat(first.getHealth()).isEqualTo(PortalMetadata.HealthStatus.UP);
+            assertThat(first.isNotModified()).isFalse();
+            assertThat(first.getTitle()).isEqualTo("Local News");
+            assertThat(first.getDescription()).isEqualTo("Fresh & local");
+            assertThat(first.getFaviconUrl()).isEqualTo(baseUrl + "/static/icon.png");
+            assertThat(first.getFeedUrl()).isEqualTo(baseUrl + "/rss.xml");
+            assertThat(first.getEtag()).isEqualTo("\"v1\"");
+
+            FetchResult second = fetcher.fetch(new FetchTarget(1L, baseUrl + "/page", first.getEtag(), null));
+
+            assertThat(second.isNotModified()).isTrue();
+            assertThat(second.getHttpStatus()).isEqualTo(304);
+            assertThat(second.getHealth()).isEqualTo(PortalMetadata.HealthStatus.UP);
+        }
+    }
+
+    @Test
+    void reportsBrokenAndUnreachablePortals() throws Exception {
+        try (PortalFetcher fetcher = fetcher(4, 2)) {
+            FetchResult broken = fetcher.fetch(new FetchTarget(1L, baseUrl + "/broken", null, null));
+            FetchResult invalid = fetcher.fetch(new FetchTarget(2L, "ftp://example.com", null, null));
+
+            assertThat(broken.getHealth()).isEqualTo(PortalMetadata.HealthStatus.DOWN);
+            assertThat(broken.getHttpStatus()).isEqualTo(500);
+            assertThat(invalid.getHealth()).isEqualTo(PortalMetadata.HealthStatus.UNREACHABLE);
+        }
+    }
+
+    @Test
+    void limitsConcurrencyPerHost() throws Exception {
+        List<FetchTarget> targets = new ArrayList<>();
+        for (long id = 1; id <= 12; id++) {
+            targets.add(new FetchTarget(id, baseUrl + "/slow?n=" + id, null, null));
+        }
+
+        try (PortalFetcher fetcher = fetcher(12, 3)) {
+            List<FetchResult> results = fetcher.fetchAll(targets);
+
+            assertThat(results).hasSize(12)
+                    .allMatch(result -> result.getHealth() == PortalMetadata.HealthStatus.UP);
+            assertThat(maxInFlight.get()).isLessThanOrEqualTo(3);
+        }
+    }
+
+    @Test
+    void queuesTargetsOfBusyHostInsteadOfSkippingThem() throws Exception {
+        List<FetchTarget> targets = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            targets.add(new FetchTarget(id, baseUrl + "/slow?n=" + id, null, null));
+        }
+
+        // 8 запросов по 100 мс в один слот дольше, чем 2 * timeout ожидания семафора
+        HostLimiter limiter = new HostLimiter(1, 0);
+        try (PortalFetcher fetcher = new PortalFetcher(8, limiter, Duration.ofMillis(300), 64 * 1024, "test")) {
+            List<FetchResult> results = fetcher.fetchAll(targets);
+
+            assertThat(results).hasSize(8)
+                    .noneMatch(FetchResult::isSkipped)
+                    .allMatch(result -> result.getHealth() == PortalMetadata.HealthStatus.UP);
+            assertThat(maxInFlight.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void skipsTargetWhenHostSlotIsNotFree() throws Exception {
+        HostLimiter limiter = new HostLimiter(1, 0);
+        assertThat(limiter.acquire("127.0.0.1", 0)).isTrue();
+
+        try (PortalFetcher fetcher = new PortalFetcher(1, limiter, Duration.ofMillis(50), 64 * 1024, "test")) {
+            FetchResult result = fetcher.fetch(new FetchTarget(1L, baseUrl + "/page", "\"v0\"", null));
+
+            assertThat(result.isSkipped()).isTrue();
+            assertThat(result.getHealth()).isNull();
+            assertThat(result.getEtag()).isEqualTo("\"v0\"");
+        } finally {
+            limiter.release("127.0.0.1");
+        }
+    }
+
+    private PortalFetcher fetcher(int concurrency, int perHost) {
+        return new PortalFetcher(concurrency, new HostLimiter(perHost, 0), Duration.ofSeconds(5), 64 * 1024, "test");
+    }
+
+    private void page(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        respond(exchange, 200, PAGE);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
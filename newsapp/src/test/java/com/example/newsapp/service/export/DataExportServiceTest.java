@@ -0,0 +1,50 @@
+package com.example.newsapp.service.export;
+
+import com.example.newsapp.service.export.DataExportService.Format;
+import com.example.newsapp.service.export.DataExportService.Table;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DataExportServiceTest {
+
+    @Test
+    void gzipIsNegotiatedFromAcceptEncoding() {
+        assertThat(DataExportService.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(DataExportService.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(DataExportService.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(DataExportService.acceptsGzip("gzip; q=0.0, identity")).isFalse();
+        assertThat(DataExportService.acceptsGzip("identity")).isFalse();
+        assertThat(DataExportService.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void onlyListedTablesAndFormatsAreExported() {
+        assertThat(Table.of("favorites")).isEqualTo(Table.FAVORITES);
+        assertThat(Format.of("NDJSON")).isEqualTo(Format.NDJSON);
+        assertThatThrownBy(() -> Table.of("users")).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> Format.of("xml")).isInstanceOf(ResponseStatusException.class);
+
+        assertThat(DataExportService.copySql(Table.CATEGORIES, Format.CSV))
+                .isEqualTo("copy categories (id, name) to stdout with (format csv, header)");
+    }
+
+    @Test
+    void concurrentExportsAreLimited() {
+        DataExportService service = new DataExportService(null, 1);
+        DataExportService.Permit permit = service.acquire();
+        assertThatThrownBy(service::acquire)
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("Too many exports");
+
+        permit.close();
+        permit.close();
+        service.acquire().close();
+        // Повторный close не выдал лишнего места
+        DataExportService.Permit again = service.acquire();
+        assertThatThrownBy(service::acquire).isInstanceOf(ResponseStatusException.class);
+        again.close();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.newsapp.service.ingest;
+
+import com.example.newsapp.service.crawler.HostLimiter;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedIngestionPipelineTest {
+
+    private static final int GENERATED_ITEMS = 500;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/feeds/", exchange -> {
+            String name = exchange.getRequestURI().getPath().substring("/feeds/".length());
+            try (InputStream feed = getClass().getResourceAsStream("/feeds/" + name)) {
+                if (feed == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    exchange.close();
+                    return;
+                }
+                byte[] body = feed.readAllBytes();
+                exchange.getResponseHeaders().add("Content-Type", "application/xml");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        });
+        server.createContext("/generated/", exchange -> {
+            byte[] body = generatedFeed(GENERATED_ITEMS);
+            exchange.getResponseHeaders().add("Content-Type", "application/rss+xml");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        serverThreads = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverThreads);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void ingestsRssAndAtomFeedsWithDeduplication() throws Exception {
+        List<ArticleRecord> written = new CopyOnWriteArrayList<>();
+        FeedIngestionPipeline pipeline = pipeline(batch -> {
+            written.addAll(batch);
+            return batch.size();
+        }, 2);
+
+        FeedIngestionPipeline.Result result = pipeline.run(List.of(
+                new FeedSource(1L, baseUrl + "/feeds/rss.xml"),
+                new FeedSource(2L, baseUrl + "/feeds/atom.xml"),
+                new FeedSource(3L, baseUrl + "/feeds/missing.xml")
+        ));
+
+        assertThat(result.getFeeds()).isEqualTo(3);
+        assertThat(result.getFailedFeeds()).isEqualTo(1);
+        assertThat(result.getArticles()).isEqualTo(3);
+        assertThat(result.getWritten()).isEqualTo(3);
+
+        Map<String, ArticleRecord> byTitle = written.stream()
+                .collect(Collectors.toMap(record -> record.getItem().getTitle(), Function.identity()));
+        assertThat(byTitle).containsOnlyKeys("First story", "Second story", "Atom entry");
+
+        ArticleRecord first = byTitle.get("First story");
+        assertThat(first.getNewsPortalId()).isEqualTo(1L);
+        assertThat(first.getItem().getSummary()).isEqualTo("<p>First <b>summary</b></p>");
+        assertThat(first.getItem().getPublishedAt()).isEqualTo(LocalDateTime.of(2025, 6, 10, 4, 0));
+
+        ArticleRecord second = byTitle.get("Second story");
+        assertThat(second.getItem().getSummary()).isEqualTo("Second body");
+        assertThat(second.getItem().getPublishedAt()).isEqualTo(LocalDateTime.of(2025, 6, 11, 6, 30));
+
+        ArticleRecord atom = byTitle.get("Atom entry");
+        assertThat(atom.getItem().getLink()).isEqualTo("http://example.org/entry-1");
+        assertThat(atom.getItem().getGuid()).isEqualTo("urn:uuid:entry-1");
+        assertThat(atom.getItem().getPublishedAt()).isEqualTo(LocalDateTime.of(2025, 6, 12, 16, 30, 2));
+    }
+
+    @Test
+    void writesInBatchesOfConfiguredSize() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        Map<String, Boolean> keys = new ConcurrentHashMap<>();
+        FeedIngestionPipeline pipeline = pipeline(batch -> {
+            batchSizes.add(batch.size());
+            batch.forEach(record -> keys.put(record.getDedupKey(), true));
+            return batch.size();
+        }, 1);
+
+        pipeline.run(List.of(
+                new FeedSource(1L, baseUrl + "/feeds/rss.xml"),
+                new FeedSource(2L, baseUrl + "/feeds/rss.xml")
+        ));
+
+        // Одинаковые GUID у разных порталов — разные статьи
+        assertThat(keys).hasSize(4);
+        assertThat(batchSizes).allMatch(size -> size <= 1);
+    }
+
+    /**
+     * Пропускная способность конвейера на синтетических фидах без БД.
+     * Запуск: mvn test -Dexcluded.test.groups= -Dgroups=benchmark
+     */
+    @Test
+    @Tag("benchmark")
+    void reportsThroughput() throws Exception {
+        List<FeedSource> sources = new ArrayList<>();
+        for (long i = 1; i <= 200; i++) {
+            sources.add(new FeedSource(i, baseUrl + "/generated/" + i + ".xml"));
+        }
+        AtomicLong written = new AtomicLong();
+        FeedIngestionPipeline pipeline = new FeedIngestionPipeline(batch -> {
+            written.addAndGet(batch.size());
+            return batch.size();
+        }, new HostLimiter(8, 0), 8, 4, 500, 4096, 4 * 1024 * 1024, Duration.ofSeconds(10));
+
+        pipeline.run(sources.subList(0, 20));
+        FeedIngestionPipeline.Result result = pipeline.run(sources);
+
+        System.out.printf("Feed ingestion: %d feeds, %d articles in %d ms (%.0f articles/s)%n",
+                result.getFeeds(), result.getArticles(), result.getElapsedMillis(), result.articlesPerSecond());
+        assertThat(result.getArticles()).isEqualTo(200L * GENERATED_ITEMS);
+        assertThat(result.getFailedFeeds()).isZero();
+    }
+
+    private static byte[] generatedFeed(int items) {
+        StringBuilder xml = new StringBuilder(items * 300);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?><rss version=\"2.0\"><channel><title>Generated</title>");
+        for (int i = 0; i < items; i++) {
+            xml.append("<item><title>Story ").append(i).append("</title>")
+                    .append("<link>http://example.com/story/").append(i).append("</link>")
+                    .append("<guid>story-").append(i).append("</guid>")
+                    .append("<description>Summary of story ").append(i).append("</description>")
+                    .append("<pubDate>Tue, 10 Jun 2025 04:00:00 GMT</pubDate></item>");
+        }
+        xml.append("</channel></rss>");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private FeedIngestionPipeline pipeline(ArticleWriter writer, int batchSize) {
+        return new FeedIngestionPipeline(writer, new HostLimiter(4, 0), 4, 2, batchSize, 16, 1024 * 1024,
+                Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.newsapp.service.ingest;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.repository.PortalMetadataRepository;
+import com.example.newsapp.service.NewsFeedSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedIngestionServiceTest {
+
+    private final BlockingSnapshot snapshot = new BlockingSnapshot();
+    private final FeedIngestionService service = new FeedIngestionService(snapshot, emptyMetadataRepo(),
+            new JdbcTemplate(), false, 1, 1, 10, 10, 1024, 1, 0, 1000);
+
+    @AfterEach
+    void shutdown() {
+        snapshot.release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void overlappingTriggersAreRejectedUntilIngestionFinishes() throws Exception {
+        assertThat(service.triggerIngest()).isTrue();
+        assertThat(snapshot.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(service.triggerIngest()).isFalse();
+        assertThat(service.triggerIngest()).isFalse();
+
+        snapshot.release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        boolean accepted = false;
+        while (!accepted && System.currentTimeMillis() < deadline) {
+            accepted = service.triggerIngest();
+            if (!accepted) Thread.sleep(10);
+        }
+        assertThat(accepted).isTrue();
+    }
+
+    private static PortalMetadataRepository emptyMetadataRepo() {
+        return (PortalMetadataRepository) Proxy.newProxyInstance(PortalMetadataRepository.class.getClassLoader(),
+                new Class<?>[]{PortalMetadataRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findAll") || args != null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return List.of();
+                });
+    }
+
+    // Первая загрузка висит на чтении снимка, пока тест её не отпустит
+    private static final class BlockingSnapshot extends NewsFeedSnapshot {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        BlockingSnapshot() {
+            super(null);
+        }
+
+        @Override
+        public List<NewsPortalDto> all() {
+            if (calls.incrementAndGet() == 1) {
+                entered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return List.of();
+        }
+    }
+}
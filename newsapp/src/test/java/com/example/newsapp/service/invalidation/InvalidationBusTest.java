@@ -0,0 +1,74 @@
+package com.example.newsapp.service.invalidation;
+
+import com.example.newsapp.event.CacheResyncEvent;
+import com.example.newsapp.event.NewsChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Два экземпляра шины на одном канале. Нужна PostgreSQL из {@code spring.datasource.*}.
+ */
+class InvalidationBusTest {
+
+    private static final String CHANNEL = "newsapp_invalidation_test";
+
+    private final List<Object> receiverEvents = new CopyOnWriteArrayList<>();
+    private final InvalidationBus receiver;
+    private final InvalidationBus sender;
+
+    InvalidationBusTest() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addLast(new ResourcePropertySource("classpath:application.properties"));
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(environment.getProperty("spring.datasource.url"));
+        properties.setUsername(environment.getProperty("spring.datasource.username"));
+        properties.setPassword(environment.getProperty("spring.datasource.password"));
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                properties.getUrl(), properties.getUsername(), properties.getPassword()));
+
+        receiver = new InvalidationBus(jdbc, properties, null, null, receiverEvents::add,
+                true, CHANNEL, 30000, 30000);
+        sender = new InvalidationBus(jdbc, properties, null, null, event -> { },
+                true, CHANNEL, 30000, 30000);
+    }
+
+    @AfterEach
+    void stop() {
+        receiver.stop();
+        sender.stop();
+    }
+
+    @Test
+    void firstListenTriggersResyncBeforeRemoteChanges() throws InterruptedException {
+        receiver.start();
+
+        // Изменения, закоммиченные до LISTEN, кэши подберут только перечитыванием
+        await(CacheResyncEvent.class::isInstance);
+
+        sender.onNewsChanged(NewsChangedEvent.deleted(42L));
+        await(event -> event instanceof NewsChangedEvent changed && changed.isRemote() && changed.getNewsId() == 42L);
+
+        assertThat(receiverEvents.get(0)).isInstanceOf(CacheResyncEvent.class);
+        assertThat(receiverEvents).filteredOn(CacheResyncEvent.class::isInstance).hasSize(1);
+    }
+
+    private void await(Predicate<Object> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (receiverEvents.stream().noneMatch(condition) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(receiverEvents).anyMatch(condition);
+    }
+}
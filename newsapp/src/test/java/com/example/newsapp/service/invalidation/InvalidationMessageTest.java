@@ -0,0 +1,35 @@
+package com.example.newsapp.service.invalidation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvalidationMessageTest {
+
+    @Test
+    void roundTripsEveryKind() {
+        for (InvalidationMessage.Kind kind : InvalidationMessage.Kind.values()) {
+            InvalidationMessage message = new InvalidationMessage("a1b2c3d4", kind, 9_000_000_001L, 7);
+
+            assertThat(InvalidationMessage.decode(message.encode())).contains(message);
+        }
+    }
+
+    @Test
+    void ignoresUnknownPayloads() {
+        assertThat(InvalidationMessage.decode(null)).isEmpty();
+        assertThat(InvalidationMessage.decode("")).isEmpty();
+        assertThat(InvalidationMessage.decode("a1b2c3d4|xx|1|0")).isEmpty();
+        assertThat(InvalidationMessage.decode("a1b2c3d4|ns|abc|0")).isEmpty();
+        assertThat(InvalidationMessage.decode("|ns|1|0")).isEmpty();
+        assertThat(InvalidationMessage.decode("a1b2c3d4|ns|1")).isEmpty();
+    }
+
+    @Test
+    void messagesFitManyToOnePayload() {
+        String encoded = new InvalidationMessage("a1b2c3d4", InvalidationMessage.Kind.NEWS_DELETED, 123456789L, 0).encode();
+
+        // Пакет из сотен сообщений укладывается в лимит NOTIFY (8000 байт)
+        assertThat(encoded.length() * 200 + 199).isLessThan(8000);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.newsapp.service.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProfilingServiceTest {
+
+    private final ProfilingService service = new ProfilingService(5);
+
+    @Test
+    void recordingContainsApplicationEvents() throws Exception {
+        PasswordEncoder encoder = new ProfiledPasswordEncoder(new BCryptPasswordEncoder(4));
+        MappingJackson2HttpMessageConverter converter = ProfiledJacksonConverters.json(new ObjectMapper());
+        ProxyFactory proxyFactory = new ProxyFactory(new ArrayList<String>());
+        proxyFactory.addAdvice(new RepositoryProfiling.Interceptor("TestRepository"));
+        @SuppressWarnings("unchecked")
+        List<String> repository = (List<String>) proxyFactory.getProxy();
+
+        AtomicReference<Path> file = new AtomicReference<>();
+        CompletableFuture<Void> recording = CompletableFuture.runAsync(() -> {
+            try {
+                file.set(service.record(Duration.ofSeconds(1), "default"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // События до старта записи теряются, поэтому генерируем их всё время записи
+        while (!recording.isDone()) {
+            encoder.matches("secret", encoder.encode("secret"));
+            repository.size();
+            converter.write(List.of(1, 2, 3), MediaType.APPLICATION_JSON, new MockHttpOutputMessage());
+            Thread.sleep(10);
+        }
+        recording.join();
+
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file.get());
+            assertThat(events).extracting(event -> event.getEventType().getName())
+                    .contains("newsapp.PasswordHash", "newsapp.RepositoryQuery", "newsapp.ResponseWrite");
+
+            RecordedEvent write = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("newsapp.ResponseWrite"))
+                    .findFirst().orElseThrow();
+            assertThat(write.getString("format")).isEqualTo("json");
+            assertThat(write.getInt("elements")).isEqualTo(3);
+            assertThat(write.getLong("bytes")).isEqualTo("[1,2,3]".length());
+
+            RecordedEvent query = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("newsapp.RepositoryQuery"))
+                    .findFirst().orElseThrow();
+            assertThat(query.getString("repository")).isEqualTo("TestRepository");
+            assertThat(query.getString("method")).isEqualTo("size");
+        } finally {
+            Files.deleteIfExists(file.get());
+        }
+    }
+
+    @Test
+    void rejectsInvalidRequests() {
+        assertThatThrownBy(() -> service.record(Duration.ZERO, "default"))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> service.record(Duration.ofSeconds(6), "default"))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> service.record(Duration.ofSeconds(1), "custom.jfc"))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void allowsOneRecordingAtATime() throws Exception {
+        CompletableFuture<Path> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.record(Duration.ofSeconds(1), "default");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(300);
+
+        assertThatThrownBy(() -> service.record(Duration.ofSeconds(1), "default"))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("in progress");
+        Files.deleteIfExists(first.join());
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.newsapp.service.recommend;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CoOccurrenceIndexTest {
+
+    @Test
+    void ranksNewsSavedTogether() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(100);
+        // 10 и 20 сохраняют вместе трое, 10 и 30 — один
+        for (long user = 1; user <= 3; user++) {
+            index.add(user, 10);
+            index.add(user, 20);
+        }
+        index.add(4, 10);
+        index.add(4, 30);
+
+        assertThat(newsIds(index.related(10, 5))).containsExactly(20L, 30L);
+        assertThat(newsIds(index.related(20, 5))).containsExactly(10L);
+        assertThat(index.pairCount()).isEqualTo(4);
+    }
+
+    @Test
+    void removalRestoresPreviousState() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(100);
+        index.add(1, 10);
+        index.add(1, 20);
+        index.add(2, 10);
+
+        assertThat(index.add(1, 20)).isFalse();
+        assertThat(index.remove(1, 20)).isTrue();
+        assertThat(index.remove(1, 20)).isFalse();
+        assertThat(index.remove(3, 10)).isFalse();
+
+        assertThat(index.related(10, 5)).isEmpty();
+        assertThat(index.pairCount()).isZero();
+        assertThat(index.favoriteCount()).isEqualTo(2);
+    }
+
+    @Test
+    void personalRecommendationsSkipOwnFavoritesAndHiddenNews() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(100);
+        index.add(1, 10);
+        index.add(1, 20);
+        index.add(1, 30);
+        index.add(2, 10);
+        index.add(2, 40);
+
+        assertThat(newsIds(index.forUser(2, 50, 10))).containsExactlyInAnyOrder(20L, 30L);
+
+        index.hide(30);
+        assertThat(newsIds(index.forUser(2, 50, 10))).containsExactly(20L);
+        assertThat(index.forUser(99, 50, 10)).isEmpty();
+    }
+
+    @Test
+    void onlyFirstFavoritesOfUserFormPairs() {
+        CoOccurrenceIndex index = new CoOccurrenceIndex(2);
+        index.add(1, 10);
+        index.add(1, 20);
+        index.add(1, 30);
+        assertThat(newsIds(index.related(30, 5))).isEmpty();
+
+        // 30 занимает место удалённой 10
+        index.remove(1, 10);
+        assertThat(newsIds(index.related(30, 5))).containsExactly(20L);
+        assertThat(index.pairCount()).isEqualTo(2);
+    }
+
+    @Test
+    void incrementalUpdatesMatchBruteForce() {
+        int maxPerUser = 8;
+        int userCount = 50;
+        int newsCount = 200;
+        SplittableRandom random = new SplittableRandom(42);
+        CoOccurrenceIndex index = new CoOccurrenceIndex(maxPerUser);
+        List<List<Integer>> favorites = new ArrayList<>();
+        for (int user = 0; user < userCount; user++) {
+            favorites.add(new ArrayList<>());
+        }
+
+        // Много добавлений и удалений: строки растут, удаление сдвигает цепочки, новости продвигаются в лимит
+        for (int step = 0; step < 20_000; step++) {
+            int user = random.nextInt(userCount);
+            Integer news = random.nextInt(newsCount);
+            List<Integer> own = favorites.get(user);
+            if (random.nextInt(3) == 0) {
+                assertThat(index.remove(user, news)).isEqualTo(own.remove(news));
+            } else {
+                assertThat(index.add(user, news)).isEqualTo(!own.contains(news) && own.add(news));
+            }
+        }
+
+        int[][] expected = new int[newsCount][newsCount];
+        int[] users = new int[newsCount];
+        long pairs = 0;
+        for (List<Integer> own : favorites) {
+            own.forEach(news -> users[news]++);
+            List<Integer> participants = own.subList(0, Math.min(own.size(), maxPerUser));
+            for (int a : participants) {
+                for (int b : participants) {
+                    if (a != b && expected[a][b]++ == 0) {
+                        pairs++;
+                    }
+                }
+            }
+        }
+
+        assertThat(index.pairCount()).isEqualTo(pairs);
+        for (int news = 0; news < newsCount; news++) {
+            for (CoOccurrenceIndex.Recommendation related : index.related(news, newsCount)) {
+                int other = (int) related.newsId();
+                assertThat(related.score()).isCloseTo(
+                        expected[news][other] / Math.sqrt((double) users[news] * users[other]), within(1e-9));
+            }
+            assertThat(index.related(news, newsCount)).hasSize((int) Arrays.stream(expected[news]).filter(c -> c > 0).count());
+        }
+    }
+
+    /**
+     * Память на миллион избранных и задержка запросов.
+     * Запуск: mvn test -Dexcluded.test.groups= -Dgroups=benchmark -Dtest=CoOccurrenceIndexTest
+     */
+    @Test
+    @Tag("benchmark")
+    void memoryAndLatencyPerMillionFavorites() {
+        int users = 100_000;
+        int news = 20_000;
+        int topics = 50;
+        int favorites = 1_000_000;
+        Random random = new Random(7);
+
+        System.gc();
+        long heapBefore = usedHeap();
+        long started = System.nanoTime();
+
+        // Пользователь читает в основном свою тему; популярность внутри темы — степенное распределение
+        CoOccurrenceIndex index = new CoOccurrenceIndex(200);
+        int added = 0;
+        while (added < favorites) {
+            int user = random.nextInt(users);
+            int topic = user % topics;
+            int item = random.nextInt(10) < 8
+                    ? topic * (news / topics) + powerLaw(random, news / topics)
+                    : powerLaw(random, news);
+            if (index.add(user, item)) {
+                added++;
+            }
+        }
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+        System.gc();
+        long heapAfter = usedHeap();
+
+        long[] relatedNanos = measure(random, 20_000, id -> index.related(id % news, 10));
+        long[] userNanos = measure(random, 20_000, id -> index.forUser(id % users, RecommendationService.PROFILE_SIZE, 20));
+
+        System.out.printf("favorites %,d, pairs %,d, build %d ms%n", index.favoriteCount(), index.pairCount() / 2, buildMillis);
+        System.out.printf("memory: estimate %,d KB, heap delta %,d KB, %.1f bytes/favorite%n",
+                index.memoryBytes() / 1024, (heapAfter - heapBefore) / 1024, (double) index.memoryBytes() / favorites);
+        System.out.printf("related  p50 %6.1f us, p99 %6.1f us%n", relatedNanos[0] / 1000.0, relatedNanos[1] / 1000.0);
+        System.out.printf("for user p50 %6.1f us, p99 %6.1f us%n", userNanos[0] / 1000.0, userNanos[1] / 1000.0);
+        assertThat(index.favoriteCount()).isEqualTo(favorites);
+    }
+
+    private interface Query {
+        List<CoOccurrenceIndex.Recommendation> run(int id);
+    }
+
+    private static long[] measure(Random random, int iterations, Query query) {
+        for (int i = 0; i < iterations; i++) {
+            query.run(random.nextInt(Integer.MAX_VALUE));
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            int id = random.nextInt(Integer.MAX_VALUE);
+            long started = System.nanoTime();
+            query.run(id);
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        return new long[]{nanos[iterations / 2], nanos[iterations * 99 / 100]};
+    }
+
+    // Индекс в [0, n) с вероятностью ~ 1 / (k + 1)
+    private static int powerLaw(Random random, int n) {
+        return (int) Math.min(n - 1, Math.floor(Math.pow(n + 1, random.nextDouble())) - 1);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static List<Long> newsIds(List<CoOccurrenceIndex.Recommendation> recommendations) {
+        return recommendations.stream().map(CoOccurrenceIndex.Recommendation::newsId).toList();
+    }
+}
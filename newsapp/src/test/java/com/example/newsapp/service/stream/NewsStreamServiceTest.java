@@ -0,0 +1,197 @@
+package com.example.newsapp.service.stream;
+
+import com.example.newsapp.dto.NewsPortalDto;
+import com.example.newsapp.event.NewsChangedEvent;
+import com.example.newsapp.event.TokenRevokedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NewsStreamServiceTest {
+
+    private static final int MAX_PENDING = 4;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final NewsStreamService service =
+            new NewsStreamService(new ObjectMapper(), registry, 100, MAX_PENDING, 60_000);
+
+    @Test
+    void savedNewsIsPushedOnlyToSubscribersOfItsCategory() throws Exception {
+        Connection sport = subscribe(1L, List.of(1L));
+        Connection politics = subscribe(2L, List.of(2L, 3L));
+        assertThat(sport.text()).startsWith("retry: ");
+
+        service.onNewsChanged(NewsChangedEvent.saved(news(10L, 1L)));
+        service.onNewsChanged(NewsChangedEvent.deleted(11L));
+        service.runPendingTasks();
+
+        assertThat(sport.text()).endsWith("event: news\n"
+                + "data: {\"id\":10,\"title\":\"News 10\",\"url\":\"https://example.com/10\","
+                + "\"categoryId\":1,\"categoryName\":\"Category 1\"}\n\n");
+        assertThat(politics.text()).doesNotContain("event: news");
+
+        service.heartbeat();
+        service.runPendingTasks();
+        assertThat(politics.text()).endsWith(": ping\n\n");
+    }
+
+    @Test
+    void burstLargerThanPendingLimitIsReplacedByResync() throws Exception {
+        Connection busy = subscribe(1L, List.of(1L));
+        Connection fast = subscribe(2L, List.of(1L));
+        busy.out.ready = false;
+
+        // Массовая смена категории: событий больше, чем помещается в очередь клиента
+        int burst = MAX_PENDING * 3;
+        for (long id = 1; id <= burst; id++) {
+            service.onNewsChanged(NewsChangedEvent.saved(news(id, 1L)));
+        }
+        service.runPendingTasks();
+
+        assertThat(busy.request.isAsyncStarted()).isTrue();
+        assertThat(fast.text().split("event: news", -1)).hasSize(burst + 1);
+        assertThat(registry.get("news.stream.dropped").tag("reason", "resync").counter().count())
+                .isEqualTo(1);
+
+        // Сокет освободился: вместо пропущенных новостей один resync, дальше обычные кадры
+        busy.out.ready = true;
+        busy.out.listener.onWritePossible();
+        service.onNewsChanged(NewsChangedEvent.saved(news(100L, 1L)));
+        service.runPendingTasks();
+
+        String text = busy.text();
+        assertThat(text).doesNotContain("\"id\":1,");
+        assertThat(text.indexOf("event: resync")).isPositive().isLessThan(text.indexOf("\"id\":100"));
+        assertThat(service.subscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void consumerThatDoesNotReadResyncUntilNextHeartbeatIsDropped() throws Exception {
+        Connection stuck = subscribe(1L, List.of(1L));
+        Connection fast = subscribe(2L, List.of(1L));
+        stuck.out.ready = false;
+
+        for (long id = 1; id <= MAX_PENDING + 1; id++) {
+            service.onNewsChanged(NewsChangedEvent.saved(news(id, 1L)));
+        }
+        service.heartbeat();
+        service.runPendingTasks();
+        assertThat(stuck.request.isAsyncStarted()).isTrue();
+
+        service.heartbeat();
+        service.runPendingTasks();
+
+        assertThat(stuck.request.isAsyncStarted()).isFalse();
+        assertThat(fast.request.isAsyncStarted()).isTrue();
+        assertThat(service.subscriberCount()).isEqualTo(1);
+        assertThat(registry.get("news.stream.dropped").tag("reason", "slow-consumer").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void pendingFramesAreWrittenWhenTheSocketDrains() throws Exception {
+        Connection connection = subscribe(1L, List.of(1L));
+        connection.out.ready = false;
+        service.onNewsChanged(NewsChangedEvent.saved(news(5L, 1L)));
+        service.runPendingTasks();
+        assertThat(connection.text()).doesNotContain("event: news");
+
+        connection.out.ready = true;
+        connection.out.listener.onWritePossible();
+        assertThat(connection.text()).contains("\"id\":5");
+        assertThat(connection.out.flushes).isPositive();
+    }
+
+    @Test
+    void revokedTokensCloseTheUsersStreams() throws Exception {
+        Connection revoked = subscribe(1L, List.of(1L));
+        Connection other = subscribe(2L, List.of(1L));
+
+        service.onTokenRevoked(new TokenRevokedEvent(1L, 2, false));
+        service.runPendingTasks();
+
+        assertThat(revoked.request.isAsyncStarted()).isFalse();
+        assertThat(other.request.isAsyncStarted()).isTrue();
+        assertThat(service.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void categoriesAreRequired() {
+        assertThatThrownBy(() -> subscribe(1L, List.of()))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("categories");
+    }
+
+    private Connection subscribe(Long userId, List<Long> categories) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/news-portal/stream");
+        request.setAsyncSupported(true);
+        ControlledOutputStream out = new ControlledOutputStream();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return out;
+            }
+        };
+        service.subscribe(userId, categories, request, response);
+        return new Connection(request, out);
+    }
+
+    private static NewsPortalDto news(Long id, Long categoryId) {
+        return new NewsPortalDto(id, "News " + id, "https://example.com/" + id, "description",
+                categoryId, "Category " + categoryId);
+    }
+
+    private record Connection(MockHttpServletRequest request, ControlledOutputStream out) {
+
+        String text() {
+            return out.bytes.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    // Неблокирующий поток, готовность которого задаёт тест; контейнер зовёт onWritePossible сразу
+    private static final class ControlledOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private volatile boolean ready = true;
+        private WriteListener listener;
+        private int flushes;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.listener = writeListener;
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+-- Схема, которую ddl-auto=update создавал в исходной версии приложения
+-- (до перехода на миграции), с именами ограничений Hibernate.
+
+create table categories (
+    id bigint generated by default as identity,
+    name varchar(255),
+    primary key (id)
+);
+
+create table favorites (
+    id bigint generated by default as identity,
+    news_portal_id bigint,
+    user_id bigint,
+    primary key (id)
+);
+
+create table news_portals (
+    id bigint generated by default as identity,
+    description varchar(255),
+    title varchar(255),
+    url varchar(255),
+    category_id bigint,
+    primary key (id)
+);
+
+create table password_reset_tokens (
+    id bigint generated by default as identity,
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    request_ip varchar(64),
+    token_hash varchar(64) not null,
+    used_at timestamp(6),
+    user_agent varchar(255),
+    user_id bigint not null,
+    primary key (id)
+);
+
+create table users (
+    id bigint generated by default as identity,
+    avatar_base64 TEXT,
+    email varchar(255),
+    password varchar(255),
+    role varchar(255),
+    theme_preference varchar(255) not null,
+    username varchar(255),
+    primary key (id)
+);
+
+create index idx_password_reset_user on password_reset_tokens (user_id);
+
+alter table if exists password_reset_tokens add constraint idx_password_reset_token_hash unique (token_hash);
+alter table if exists users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table if exists favorites add constraint FKpqoiioyo98oidfqs49mv1mt6g foreign key (news_portal_id) references news_portals;
+alter table if exists favorites add constraint FKk7du8b8ewipawnnpg76d55fus foreign key (user_id) references users;
+alter table if exists news_portals add constraint FKpqnvuqjufg2wh5fyfq6358ul7 foreign key (category_id) references categories;
+alter table if exists password_reset_tokens add constraint FKk3ndxg5xp6v7wd4gjyusp15gq foreign key (user_id) references users;
+
+-- Данные, с которыми база дошла до перехода: повтор в избранном и пользователи
+insert into categories (name) values ('World');
+insert into news_portals (title, url, category_id) values ('News', 'https://example.com', 1);
+insert into users (email, username, password, role, theme_preference)
+values ('a@example.com', 'alice', 'x', 'USER', 'SYSTEM'),
+       ('b@example.com', 'bob', 'x', 'USER', 'SYSTEM');
+insert into favorites (user_id, news_portal_id) values (1, 1), (1, 1), (2, 1);